@@ -47,7 +47,6 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.swing.BorderFactory;
 import javax.swing.InputMap;
@@ -103,9 +102,10 @@ public class App {
     public static String[] PASSED_ARGS;
 
     /**
-     * The taskpool used to quickly add in tasks to do in the background.
+     * The taskpool used to quickly add in tasks to do in the background. These are all network calls, so this is the
+     * shared network pool.
      */
-    public static final ExecutorService TASKPOOL = Executors.newFixedThreadPool(2);
+    public static final ExecutorService TASKPOOL = TaskPools.NETWORK;
 
     /**
      * The instance of toaster to show popups in the bottom right.
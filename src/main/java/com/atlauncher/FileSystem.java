@@ -17,6 +17,7 @@
  */
 package com.atlauncher;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -26,6 +27,8 @@ import java.nio.file.StandardCopyOption;
 
 import com.atlauncher.constants.Constants;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.NativesManager;
+import com.atlauncher.managers.TrashManager;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -40,7 +43,15 @@ public final class FileSystem {
     public static final Path APOLLO_CACHE = CACHE.resolve("apolloCache");
     public static final Path HTTP_CACHE = CACHE.resolve("http");
     public static final Path REMOTE_IMAGE_CACHE = CACHE.resolve("remote_image");
+    public static final Path NATIVES_CACHE = CACHE.resolve("natives");
+    public static final Path LAUNCH_FINGERPRINTS = CACHE.resolve("launch_fingerprints");
+    public static final Path LAUNCH_PLANS = CACHE.resolve("launch_plans");
+    public static final Path CDS_ARCHIVES = CACHE.resolve("cds");
     public static final Path FRACTURISER_SCANNED_HASHES = CACHE.resolve("fracturiser_scanned_hashes.json");
+    public static final Path MOD_UPDATE_SCAN_RESULTS = CACHE.resolve("mod_update_scan_results.json");
+    public static final Path FILE_HASH_INDEX = CACHE.resolve("file_hash_index.json");
+    public static final Path DISK_USAGE_CACHE = CACHE.resolve("disk_usage.json");
+    public static final Path JAVA_INSTALLATIONS = CACHE.resolve("java_installations.json");
     public static final Path LOADERS = BASE_DIR.resolve("loaders");
     public static final Path RUNTIMES = BASE_DIR.resolve("runtimes");
     public static final Path MINECRAFT_RUNTIMES = RUNTIMES.resolve("minecraft");
@@ -52,6 +63,7 @@ public final class FileSystem {
     public static final Path JSON = CONFIGS.resolve("json");
     public static final Path MINECRAFT_VERSIONS_JSON = JSON.resolve("minecraft");
     public static final Path THEMES = CONFIGS.resolve("themes");
+    public static final Path STARTUP_TIMINGS = CONFIGS.resolve("startup_timings");
 
     public static final Path ASSETS = BASE_DIR.resolve("assets");
     public static final Path RESOURCES_LOG_CONFIGS = ASSETS.resolve("log_configs");
@@ -66,7 +78,9 @@ public final class FileSystem {
     public static final Path TECHNIC_DOWNLOADS = DOWNLOADS.resolve("technic");
     public static final Path INSTANCES = BASE_DIR.resolve("instances");
     public static final Path SERVERS = BASE_DIR.resolve("servers");
+    public static final Path MOD_STORE = BASE_DIR.resolve("store");
     public static final Path TEMP = BASE_DIR.resolve("temp");
+    public static final Path TRASH = TEMP.resolve("trash");
     public static final Path FAILED_DOWNLOADS = BASE_DIR.resolve("faileddownloads");
 
     public static final Path LAUNCHER_CONFIG = CONFIGS.resolve(Constants.LAUNCHER_NAME + ".conf");
@@ -181,7 +195,16 @@ public final class FileSystem {
     }
 
     private static void cleanTempDirectory() {
-        Utils.deleteContents(TEMP.toFile());
+        // the trash is emptied in the background rather than holding up startup
+        File[] files = TEMP.toFile().listFiles((dir, name) -> !name.equals(TRASH.getFileName().toString()));
+        if (files != null) {
+            for (File file : files) {
+                Utils.delete(file);
+            }
+        }
+
+        TrashManager.emptyTrash();
+        NativesManager.pruneUnused();
     }
 
     private static void renameDirectories() throws IOException {
@@ -233,6 +256,9 @@ public final class FileSystem {
         FileUtils.createDirectory(CACHE);
         FileUtils.createDirectory(HTTP_CACHE);
         FileUtils.createDirectory(REMOTE_IMAGE_CACHE);
+        FileUtils.createDirectory(NATIVES_CACHE);
+        FileUtils.createDirectory(LAUNCH_FINGERPRINTS);
+        FileUtils.createDirectory(LAUNCH_PLANS);
         FileUtils.createDirectory(INSTANCES);
         FileUtils.createDirectory(LIBRARIES);
         FileUtils.createDirectory(LOADERS);
@@ -240,6 +266,7 @@ public final class FileSystem {
         FileUtils.createDirectory(RUNTIMES);
         FileUtils.createDirectory(MINECRAFT_RUNTIMES);
         FileUtils.createDirectory(SERVERS);
+        FileUtils.createDirectory(MOD_STORE);
         FileUtils.createDirectory(TEMP);
 
         FileUtils.createDirectory(CONFIGS);
@@ -249,6 +276,7 @@ public final class FileSystem {
         FileUtils.createDirectory(JSON);
         FileUtils.createDirectory(MINECRAFT_VERSIONS_JSON);
         FileUtils.createDirectory(THEMES);
+        FileUtils.createDirectory(STARTUP_TIMINGS);
 
         FileUtils.createDirectory(ASSETS);
         FileUtils.createDirectory(RESOURCES_INDEXES);
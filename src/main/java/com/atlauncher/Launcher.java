@@ -57,6 +57,7 @@ import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LWJGLManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.ModUpdateManager;
 import com.atlauncher.managers.ModrinthModpackUpdateManager;
 import com.atlauncher.managers.NewsManager;
 import com.atlauncher.managers.PackManager;
@@ -67,6 +68,7 @@ import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.GraphqlClient;
 import com.atlauncher.network.NetworkClient;
+import com.atlauncher.network.ResponseCache;
 import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
@@ -153,6 +155,8 @@ public class Launcher {
 
         checkForExternalPackUpdates();
 
+        ModUpdateManager.startScanning();
+
         if (App.settings.enableAnalytics && Analytics.isEnabled()) {
             Analytics.startSession(App.settings.selectedTabOnStartup);
         }
@@ -339,6 +343,9 @@ public class Launcher {
             if (InstanceManager.getInstances().stream().anyMatch(Instance::isModrinthPack)) {
                 ModrinthModpackUpdateManager.checkForUpdates();
             }
+
+            ResponseCache.logStats();
+            TaskPools.logStats();
         });
         updateThread.start();
     }
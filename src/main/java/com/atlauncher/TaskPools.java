@@ -0,0 +1,435 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Java;
+
+/**
+ * The thread pools that background work in the launcher should be run on, split up by the kind of work being done so
+ * that slow blocking work (like waiting on network requests) doesn't starve other work, or the common ForkJoin pool
+ * which parallel streams and RxJava use.
+ */
+public final class TaskPools {
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int DISK_THREADS = Math.max(2, Math.min(4, CPU_COUNT / 2));
+    private static final int NETWORK_THREADS = Math.max(8, CPU_COUNT * 2);
+
+    /**
+     * For work which is bound by the CPU, such as hashing or compressing files.
+     */
+    public static final Pool CPU = new Pool("cpu", createFixedPool("cpu", CPU_COUNT), CPU_COUNT);
+
+    /**
+     * For work which is mostly waiting on the disk, such as copying files around.
+     */
+    public static final Pool DISK = new Pool("disk", createFixedPool("disk", DISK_THREADS), DISK_THREADS);
+
+    /**
+     * For work which is mostly waiting on the network, such as api calls. When running on Java 21 or newer, each task
+     * runs in its own virtual thread.
+     */
+    public static final Pool NETWORK = new Pool("network", createNetworkExecutor(), NETWORK_THREADS);
+
+    private TaskPools() {
+    }
+
+    /**
+     * Runs the action for each item on the given pool, waiting for them all to finish. If called from a thread that
+     * already belongs to the pool, the items are run on the calling thread instead so that the pool can't deadlock
+     * waiting on itself.
+     *
+     * @param pool   the pool to run the actions on
+     * @param items  the items to run the action for
+     * @param action the action to run
+     */
+    public static <T> void forEach(Pool pool, Collection<T> items, Consumer<T> action) {
+        map(pool, items, item -> {
+            action.accept(item);
+            return null;
+        });
+    }
+
+    /**
+     * Maps each item on the given pool, waiting for them all to finish and returning the results in the same order as
+     * the items. At most the pool's concurrency worth of items are in flight at once, so that a large batch of network
+     * tasks doesn't open hundreds of connections when running on virtual threads. If called from a thread that already
+     * belongs to the pool, the items are mapped on the calling thread.
+     *
+     * @param pool   the pool to run the mapper on
+     * @param items  the items to map
+     * @param mapper the function to map each item with
+     * @return the mapped items
+     */
+    public static <T, R> List<R> map(Pool pool, Collection<T> items, Function<T, R> mapper) {
+        List<R> results = new ArrayList<>(items.size());
+
+        if (Pool.CURRENT.get() == pool || items.size() < 2) {
+            for (T item : items) {
+                results.add(mapper.apply(item));
+            }
+
+            return results;
+        }
+
+        Semaphore inFlight = new Semaphore(pool.maxConcurrency);
+        List<Future<R>> futures = new ArrayList<>(items.size());
+
+        try {
+            for (T item : items) {
+                inFlight.acquire();
+                futures.add(pool.submit(() -> {
+                    try {
+                        return mapper.apply(item);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting on tasks in the " + pool.name + " pool", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+
+        return results;
+    }
+
+    public static void logStats() {
+        LogManager.debug(CPU.toString());
+        LogManager.debug(DISK.toString());
+        LogManager.debug(NETWORK.toString());
+    }
+
+    private static ExecutorService createFixedPool(String name, int threads) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "atl-" + name + "-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // don't keep idle threads around when nothing's happening
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    private static ExecutorService createNetworkExecutor() {
+        // the launcher is built for Java 8, so virtual threads can only be looked up at runtime
+        if (Java.getLauncherJavaVersionNumber() >= 21) {
+            try {
+                Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                // fall through to a normal thread pool
+            }
+        }
+
+        return createFixedPool("network", NETWORK_THREADS);
+    }
+
+    /**
+     * A pool which keeps track of how many tasks were run on it, and how long they spent waiting and running.
+     */
+    public static final class Pool extends AbstractExecutorService {
+        private static final ThreadLocal<Pool> CURRENT = new ThreadLocal<>();
+
+        private final String name;
+        private final ExecutorService delegate;
+        private final int maxConcurrency;
+
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong totalRunNanos = new AtomicLong();
+
+        private Pool(String name, ExecutorService delegate, int maxConcurrency) {
+            this.name = name;
+            this.delegate = delegate;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long queuedAt = System.nanoTime();
+            submitted.incrementAndGet();
+
+            delegate.execute(() -> {
+                long startedAt = System.nanoTime();
+                totalWaitNanos.addAndGet(startedAt - queuedAt);
+                peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+                Pool previous = CURRENT.get();
+                CURRENT.set(this);
+
+                try {
+                    command.run();
+
+                    if (command instanceof RunnableFuture && hasFailed((RunnableFuture<?>) command)) {
+                        failed.incrementAndGet();
+                    } else {
+                        completed.incrementAndGet();
+                    }
+                } catch (RuntimeException | Error e) {
+                    failed.incrementAndGet();
+                    throw e;
+                } finally {
+                    CURRENT.set(previous);
+                    active.decrementAndGet();
+                    totalRunNanos.addAndGet(System.nanoTime() - startedAt);
+                }
+            });
+        }
+
+        /**
+         * Tasks given to {@link #submit} are wrapped in a future which catches anything they throw, so check the
+         * future to see if it failed.
+         */
+        private static boolean hasFailed(RunnableFuture<?> future) {
+            if (!future.isDone() || future.isCancelled()) {
+                return false;
+            }
+
+            try {
+                future.get();
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Gets an executor which runs its tasks on this pool, but which can be shut down and waited on without
+         * affecting the pool itself. This is for APIs which take ownership of the executor they're given and shut it
+         * down when they're done with it. Tasks submitted from a thread already in this pool are run on that thread.
+         *
+         * @return a new executor backed by this pool
+         */
+        public ExecutorService newScopedExecutor() {
+            return new ScopedExecutor(this);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public long getSubmittedCount() {
+            return submitted.get();
+        }
+
+        public long getCompletedCount() {
+            return completed.get();
+        }
+
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        public int getActiveCount() {
+            return active.get();
+        }
+
+        public int getPeakActiveCount() {
+            return peakActive.get();
+        }
+
+        public long getTotalWaitTime(TimeUnit unit) {
+            return unit.convert(totalWaitNanos.get(), TimeUnit.NANOSECONDS);
+        }
+
+        public long getTotalRunTime(TimeUnit unit) {
+            return unit.convert(totalRunNanos.get(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public String toString() {
+            long finished = completed.get() + failed.get();
+
+            return String.format(Locale.ENGLISH,
+                    "Task pool %s: %d submitted, %d completed, %d failed, %d active (peak %d), "
+                            + "average wait %dms, average run %dms",
+                    name, submitted.get(), completed.get(), failed.get(), active.get(), peakActive.get(),
+                    finished == 0 ? 0 : getTotalWaitTime(TimeUnit.MILLISECONDS) / finished,
+                    finished == 0 ? 0 : getTotalRunTime(TimeUnit.MILLISECONDS) / finished);
+        }
+    }
+
+    /**
+     * An executor which hands its tasks off to a pool, keeping track of its own tasks so that it can be shut down and
+     * awaited on independently of the pool.
+     */
+    private static final class ScopedExecutor extends AbstractExecutorService {
+        private final Pool pool;
+        private final Object lock = new Object();
+
+        private int running = 0;
+        private boolean shutdown = false;
+
+        private ScopedExecutor(Pool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            synchronized (lock) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Executor for the " + pool.name + " pool is shut down");
+                }
+
+                running++;
+            }
+
+            Runnable task = () -> {
+                try {
+                    command.run();
+                } finally {
+                    synchronized (lock) {
+                        running--;
+                        lock.notifyAll();
+                    }
+                }
+            };
+
+            if (Pool.CURRENT.get() == pool) {
+                task.run();
+            } else {
+                pool.execute(task);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized (lock) {
+                shutdown = true;
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown();
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            synchronized (lock) {
+                return shutdown;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized (lock) {
+                return shutdown && running == 0;
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            synchronized (lock) {
+                while (!shutdown || running != 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+
+                return true;
+            }
+        }
+    }
+}
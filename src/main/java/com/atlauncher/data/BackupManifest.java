@@ -0,0 +1,64 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A single incremental backup of an instance. The contents of the files aren't stored in the manifest, only the list
+ * of chunks (by their SHA-256 hash) which make up each file, with the chunks themselves kept in a store shared by all
+ * backups of all instances.
+ */
+public class BackupManifest {
+    /**
+     * The name of the manifest file this was read from, without the extension.
+     */
+    public transient String id;
+
+    public UUID instanceUuid;
+    public String instanceName;
+    public BackupMode mode;
+    public Instant createdAt;
+    public List<FileEntry> files = new ArrayList<>();
+
+    public long getTotalSize() {
+        return files.stream().mapToLong(f -> f.size).sum();
+    }
+
+    public static class FileEntry {
+        /**
+         * Path of the file relative to the instance root, always using / as the separator.
+         */
+        public String path;
+        public long size;
+        public long lastModified;
+        public List<String> chunks = new ArrayList<>();
+
+        public FileEntry() {
+        }
+
+        public FileEntry(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
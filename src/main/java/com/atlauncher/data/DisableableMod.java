@@ -20,10 +20,12 @@ package com.atlauncher.data;
 import java.awt.Color;
 import java.awt.Window;
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -243,7 +245,7 @@ public class DisableableMod implements Serializable {
             if (!getFile(instanceOrServer).getParentFile().exists()) {
                 getFile(instanceOrServer).getParentFile().mkdir();
             }
-            if (Utils.moveFile(getDisabledFile(instanceOrServer), getFile(instanceOrServer), true)) {
+            if (renameFile(getDisabledFile(instanceOrServer), getFile(instanceOrServer))) {
                 this.disabled = false;
             }
         }
@@ -256,7 +258,7 @@ public class DisableableMod implements Serializable {
                 FileUtils.createDirectory(instanceOrServer.getRoot().resolve("disabledmods"));
             }
 
-            if (Utils.moveFile(getFile(instanceOrServer), getDisabledFile(instanceOrServer), true)) {
+            if (renameFile(getFile(instanceOrServer), getDisabledFile(instanceOrServer))) {
                 this.disabled = true;
                 return true;
             }
@@ -264,6 +266,20 @@ public class DisableableMod implements Serializable {
         return false;
     }
 
+    /**
+     * Renames the file rather than copying and deleting it, so a file linked from the shared mod store stays linked
+     * and is never written to. Falls back to copying when the rename can't be done.
+     */
+    private static boolean renameFile(File from, File to) {
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            LogManager.debug("Couldn't rename " + from + " to " + to + ", copying instead: " + e.getMessage());
+            return Utils.moveFile(from, to, true);
+        }
+    }
+
     public boolean doesFileExist(Instance instance) {
         if (isDisabled()) {
             return getDisabledFile(instance).exists();
@@ -386,7 +402,9 @@ public class DisableableMod implements Serializable {
                     GetText.tr("Checking For Update On {0}", "CurseForge"),
                     "Cancelled checking for update on CurseForge", parent);
             dialog.addThread(new Thread(() -> {
-                List<CurseForgeFile> curseForgeFiles = CurseForgeApi.getFilesForProject(curseForgeProjectId);
+                // only files newer than the one installed matter when checking for an update
+                List<CurseForgeFile> curseForgeFiles = CurseForgeApi.getFilesForProject(curseForgeProjectId,
+                        f -> f.id > curseForgeFileId);
 
                 if (curseForgeFiles == null) {
                     dialog.setReturnValue(false);
@@ -29,12 +29,11 @@ import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -43,18 +42,24 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -82,6 +87,7 @@ import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
+import com.atlauncher.TaskPools;
 import com.atlauncher.annot.Json;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
@@ -139,6 +145,7 @@ import com.atlauncher.gui.dialogs.InstanceInstallerDialog;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.dialogs.RenameInstanceDialog;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.BackupManager;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.CurseForgeUpdateManager;
 import com.atlauncher.managers.DialogManager;
@@ -147,7 +154,9 @@ import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LWJGLManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.managers.ModrinthModpackUpdateManager;
+import com.atlauncher.managers.NativesManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.TechnicModpackUpdateManager;
@@ -169,7 +178,9 @@ import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Pair;
 import com.atlauncher.utils.SecurityUtils;
 import com.atlauncher.utils.Utils;
+import com.atlauncher.utils.ZipExportWriter;
 import com.atlauncher.utils.ZipNameMapper;
+import com.google.common.hash.HashCode;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
@@ -428,12 +439,267 @@ public class Instance extends MinecraftVersion implements ModManagement {
     /**
      * This will prepare the instance for launch. It will download the assets, Minecraft jar and libraries, as well as
      * organise the libraries, ready to be played.
+     *
+     * @return the natives to launch with, or null if preparing failed
      */
-    public boolean prepareForLaunch(ProgressDialog<Boolean> progressDialog, Path nativesTempDir,
-        Path lwjglNativesTempDir) {
+    public NativesManager.LaunchNatives prepareForLaunch(ProgressDialog<?> progressDialog) {
         PerformanceManager.start();
         OkHttpClient httpClient = Network.createProgressClient(progressDialog);
 
+        String launchFingerprintKey = getLaunchFingerprintKey();
+        LaunchFingerprint launchFingerprint = readLaunchFingerprint();
+        boolean launchFilesVerified = launchFingerprint != null && launchFingerprint.isValid(launchFingerprintKey);
+        List<Path> launchFiles = new ArrayList<>();
+        AtomicBoolean launchFilesComplete = new AtomicBoolean(true);
+
+        if (launchFilesVerified) {
+            LogManager.info("Instance files haven't changed since the last launch, skipping verifying them");
+
+            // Minecraft, libraries and Java runtime
+            progressDialog.doneTask();
+            progressDialog.doneTask();
+            progressDialog.doneTask();
+        } else if (!downloadLaunchFiles(progressDialog, httpClient, launchFiles, launchFilesComplete)) {
+            PerformanceManager.end();
+            return null;
+        }
+
+        // organise assets
+        PerformanceManager.start("Organising Resources 1");
+        progressDialog.setLabel(GetText.tr("Organising Resources"));
+
+        AssetIndex index = com.atlauncher.network.Download.build().setUrl(assetIndex.url).hash(assetIndex.sha1)
+            .size(assetIndex.size).downloadTo(FileSystem.RESOURCES_INDEXES.resolve(assetIndex.id + ".json"))
+            .withHttpClient(httpClient).asClass(AssetIndex.class);
+
+        DownloadPool pool = new DownloadPool();
+
+        if (index != null && !launchFilesVerified) {
+            index.objects.forEach((key, object) -> {
+                String filename = object.hash.substring(0, 2) + "/" + object.hash;
+                String url = String.format("%s/%s", Constants.MINECRAFT_RESOURCES, filename);
+
+                com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
+                    .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
+                    .withHttpClient(httpClient);
+
+                pool.add(download);
+            });
+        }
+
+        pool.forEach(download -> launchFiles.add(download.to));
+
+        DownloadPool smallPool = pool.downsize();
+
+        if (!smallPool.isEmpty()) {
+            progressDialog.setLabel(GetText.tr("Downloading Resources"));
+
+            progressDialog.setTotalBytes(smallPool.totalSize());
+
+            smallPool.downloadAll();
+
+            if (smallPool.any()) {
+                LogManager.warn("Some resources failed to download");
+                launchFilesComplete.set(false);
+            }
+        }
+        PerformanceManager.end("Organising Resources 1");
+
+        // copy resources to instance
+        if (index != null && (index.mapToResources || assetIndex.id.equalsIgnoreCase("legacy"))) {
+            PerformanceManager.start("Organising Resources 2");
+            progressDialog.setLabel(GetText.tr("Organising Resources"));
+
+            index.objects.forEach((key, object) -> {
+                String filename = object.hash.substring(0, 2) + "/" + object.hash;
+
+                Path downloadedFile = FileSystem.RESOURCES_OBJECTS.resolve(filename);
+                Path assetPath = index.mapToResources ? this.ROOT.resolve("resources/" + key)
+                    : FileSystem.RESOURCES_VIRTUAL_LEGACY.resolve(key);
+
+                // the legacy virtual folder belongs to the launcher, but resources are in the instance itself
+                FileUtils.linkOrCopyFile(downloadedFile, assetPath, object.hash, !index.mapToResources);
+            });
+            PerformanceManager.end("Organising Resources 2");
+        }
+
+        progressDialog.doneTask();
+
+        progressDialog.setLabel(GetText.tr("Organising Libraries"));
+
+        // extract natives into the natives cache, or reuse them if they're already there
+        PerformanceManager.start("Extracting Natives");
+        boolean useSystemGlfw = Optional.ofNullable(launcher.useSystemGlfw).orElse(App.settings.useSystemGlfw);
+        boolean useSystemOpenAl = Optional.ofNullable(launcher.useSystemOpenAl).orElse(App.settings.useSystemOpenAl);
+        List<Library> nativeLibraries = this.libraries.stream().filter(Library::shouldInstall)
+            .map(l -> LWJGLManager.shouldReplaceLWJGL3(this)
+                ? LWJGLManager.getReplacementLWJGL3Library(this, l)
+                : l)
+            .filter(library -> {
+                if (!library.hasNativeForOS()) {
+                    return false;
+                }
+
+                if (library.name.contains("glfw") && useSystemGlfw) {
+                    LogManager.warn("useSystemGlfw was enabled, not using glfw natives from Minecraft");
+                    return false;
+                }
+
+                if (library.name.contains("openal") && useSystemOpenAl) {
+                    LogManager.warn("useSystemOpenAl was enabled, not using openal natives from Minecraft");
+                    return false;
+                }
+
+                return true;
+            }).collect(Collectors.toList());
+
+        List<String> nativesKey = nativeLibraries.stream().map(library -> {
+            com.atlauncher.data.minecraft.Download download = library.getNativeDownloadForOS();
+            String sha1 = download.sha1 == null ? Hashing.sha1(FileSystem.LIBRARIES.resolve(download.path)).toString()
+                : download.sha1;
+            String exclusions = library.extract == null || library.extract.exclude == null ? ""
+                : String.join(",", library.extract.exclude);
+
+            return download.path + ":" + sha1 + ":" + exclusions;
+        }).collect(Collectors.toList());
+
+        Path nativesDirectory = NativesManager.getCachedDirectory("natives", nativesKey, directory -> {
+            boolean extracted = true;
+
+            for (Library library : nativeLibraries) {
+                Path nativePath = FileSystem.LIBRARIES.resolve(library.getNativeDownloadForOS().path);
+
+                extracted &= ArchiveUtils.extract(nativePath, directory, name -> {
+                    if (library.extract != null && library.extract.shouldExclude(name)) {
+                        return null;
+                    }
+
+                    // keep META-INF folder as per normal
+                    if (name.startsWith("META-INF")) {
+                        return name;
+                    }
+
+                    // don't extract folders
+                    if (name.endsWith("/")) {
+                        return null;
+                    }
+
+                    // if it has a / then extract just to root
+                    if (name.contains("/")) {
+                        return name.substring(name.lastIndexOf("/") + 1);
+                    }
+
+                    return name;
+                });
+            }
+
+            return extracted;
+        });
+
+        progressDialog.doneTask();
+        PerformanceManager.end("Extracting Natives");
+
+        Path lwjglNativesDirectory = null;
+        if (LWJGLManager.shouldUseLegacyLWJGL(this)) {
+            PerformanceManager.start("Extracting Legacy LWJGL");
+            progressDialog.setLabel(GetText.tr("Extracting Legacy LWJGL"));
+
+            LWJGLLibrary library = LWJGLManager.getLegacyLWJGLLibrary();
+
+            if (library != null) {
+                lwjglNativesDirectory = NativesManager.getCachedDirectory("lwjgl-natives",
+                    Arrays.asList(library.path, library.sha1), directory -> {
+                        com.atlauncher.network.Download download = new com.atlauncher.network.Download()
+                            .setUrl(library.url).downloadTo(FileSystem.LIBRARIES.resolve(library.path))
+                            .unzipTo(directory).hash(library.sha1).size(library.size).withHttpClient(httpClient);
+
+                        if (download.needToDownload()) {
+                            progressDialog.setTotalBytes(library.size);
+
+                            try {
+                                download.downloadFile();
+                            } catch (IOException e) {
+                                LogManager.logStackTrace(e);
+                                return false;
+                            }
+                        } else {
+                            download.runPostProcessors();
+                        }
+
+                        return true;
+                    });
+            }
+
+            progressDialog.doneTask();
+            PerformanceManager.end("Extracting Legacy LWJGL");
+        }
+
+        NativesManager.LaunchNatives natives = new NativesManager.LaunchNatives(nativesDirectory,
+            lwjglNativesDirectory);
+
+        if (usesCustomMinecraftJar()) {
+            PerformanceManager.start("Creating custom minecraft.jar");
+            progressDialog.setLabel(GetText.tr("Creating custom minecraft.jar"));
+
+            if (Files.exists(getCustomMinecraftJarLibraryPath())) {
+                FileUtils.delete(getCustomMinecraftJarLibraryPath());
+            }
+
+            if (!Utils.combineJars(getMinecraftJar(), getRoot().resolve("bin/modpack.jar").toFile(),
+                getCustomMinecraftJar())) {
+                LogManager.error("Failed to combine jars into custom minecraft.jar");
+                PerformanceManager.end("Creating custom minecraft.jar");
+                PerformanceManager.end();
+                natives.deleteTemporary();
+                return null;
+            }
+            PerformanceManager.end("Creating custom minecraft.jar");
+        }
+        progressDialog.doneTask();
+
+        if (App.settings.scanModsOnLaunch) {
+            PerformanceManager.start("Scanning mods for Fractureiser");
+            progressDialog.setLabel(GetText.tr("Scanning mods for Fractureiser"));
+
+            List<Path> foundInfections = new ArrayList<>();
+            try {
+                foundInfections = SecurityUtils.scanForFractureiser(this.getModPathsFromFilesystem());
+            } catch (InterruptedException e) {
+                LogManager.logStackTrace("Failed to scan all mods for Fractureiser", e);
+            }
+            PerformanceManager.end("Scanning mods for Fractureiser");
+
+            if (!foundInfections.isEmpty()) {
+                LogManager.error("Infections have been found in your mods. See the below list of paths");
+                foundInfections.forEach(p -> LogManager.error(p.toAbsolutePath().toString()));
+                natives.deleteTemporary();
+                return null;
+            }
+        }
+        progressDialog.doneTask();
+
+        if (!launchFilesVerified) {
+            if (launchFilesComplete.get()) {
+                saveLaunchFingerprint(LaunchFingerprint.create(launchFingerprintKey, launchFiles));
+            } else {
+                // something failed to download, so make sure everything is checked again next launch
+                clearLaunchFingerprint();
+            }
+        }
+
+        PerformanceManager.end();
+        return natives;
+    }
+
+    /**
+     * Downloads and verifies the Minecraft jar, libraries and Java runtime needed to launch this instance, adding all
+     * the files that were checked to the given list. If something fails to download but the instance can still try to
+     * launch (such as the Java runtime), complete is set to false so that the files aren't marked as verified.
+     *
+     * @return false if the instance can't be launched
+     */
+    private boolean downloadLaunchFiles(ProgressDialog<?> progressDialog, OkHttpClient httpClient,
+        List<Path> launchFiles, AtomicBoolean complete) {
         PerformanceManager.start("Downloading Minecraft");
         try {
             progressDialog.setLabel(GetText.tr("Downloading Minecraft"));
@@ -441,6 +707,8 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 .setUrl(this.downloads.client.url).hash(this.downloads.client.sha1).size(this.downloads.client.size)
                 .withHttpClient(httpClient).downloadTo(this.getMinecraftJarLibraryPath());
 
+            launchFiles.add(clientDownload.to);
+
             if (clientDownload.needToDownload()) {
                 progressDialog.setTotalBytes(this.downloads.client.size);
                 clientDownload.downloadFile();
@@ -450,7 +718,6 @@ public class Instance extends MinecraftVersion implements ModManagement {
         } catch (IOException e) {
             LogManager.logStackTrace(e);
             PerformanceManager.end("Downloading Minecraft");
-            PerformanceManager.end();
             return false;
         }
         PerformanceManager.end("Downloading Minecraft");
@@ -472,6 +739,7 @@ public class Instance extends MinecraftVersion implements ModManagement {
                         "This instance cannot be started due to missing libraries that cannot be downloaded.<br/><br/>Please reinstall the instance to create those libraries and be able to start this instance again."))
                     .build())
                 .setType(DialogManager.ERROR).show();
+            PerformanceManager.end("Downloading Libraries");
             return false;
         }
 
@@ -525,12 +793,25 @@ public class Instance extends MinecraftVersion implements ModManagement {
             }
         }
 
+        librariesPool.forEach(download -> {
+            launchFiles.add(download.to);
+
+            if (download.copyTo != null) {
+                launchFiles.add(download.copyTo);
+            }
+        });
+
         DownloadPool smallLibrariesPool = librariesPool.downsize();
 
         progressDialog.setTotalBytes(smallLibrariesPool.totalSize());
 
         smallLibrariesPool.downloadAll();
 
+        if (smallLibrariesPool.any()) {
+            LogManager.warn("Some libraries failed to download");
+            complete.set(false);
+        }
+
         progressDialog.doneTask();
         PerformanceManager.end("Downloading Libraries");
 
@@ -585,12 +866,18 @@ public class Instance extends MinecraftVersion implements ModManagement {
                         }
                     });
 
+                    pool.forEach(download -> launchFiles.add(download.to));
+
                     DownloadPool smallPool = pool.downsize();
 
                     progressDialog.setTotalBytes(smallPool.totalSize());
 
                     smallPool.downloadAll();
 
+                    if (smallPool.any()) {
+                        throw new IOException("Some Java runtime files failed to download");
+                    }
+
                     // write out the version file (theres also a .sha1 file created, but we're not
                     // doing that)
                     Files.write(runtimeSystemDirectory.resolve(".version"),
@@ -599,188 +886,80 @@ public class Instance extends MinecraftVersion implements ModManagement {
                     // + ".sha1"), runtimeToDownload.version.name.getBytes(StandardCharsets.UTF_8));
                 } catch (IOException e) {
                     LogManager.logStackTrace("Failed to download Java runtime", e);
+                    complete.set(false);
                 }
             }
         }
         progressDialog.doneTask();
         PerformanceManager.end("Java Runtime");
 
-        // organise assets
-        PerformanceManager.start("Organising Resources 1");
-        progressDialog.setLabel(GetText.tr("Organising Resources"));
-
-        AssetIndex index = com.atlauncher.network.Download.build().setUrl(assetIndex.url).hash(assetIndex.sha1)
-            .size(assetIndex.size).downloadTo(FileSystem.RESOURCES_INDEXES.resolve(assetIndex.id + ".json"))
-            .withHttpClient(httpClient).asClass(AssetIndex.class);
-
-        DownloadPool pool = new DownloadPool();
-
-        if (index != null) {
-            index.objects.forEach((key, object) -> {
-                String filename = object.hash.substring(0, 2) + "/" + object.hash;
-                String url = String.format("%s/%s", Constants.MINECRAFT_RESOURCES, filename);
-
-                com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
-                    .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
-                    .withHttpClient(httpClient);
-
-                pool.add(download);
-            });
-        }
+        return true;
+    }
 
-        DownloadPool smallPool = pool.downsize();
+    /**
+     * Gets a hash of everything which decides which files are needed to launch this instance, and what their hashes
+     * should be. If this changes, the files need to be verified again.
+     */
+    private String getLaunchFingerprintKey() {
+        List<String> parts = new ArrayList<>();
 
-        if (!smallPool.isEmpty()) {
-            progressDialog.setLabel(GetText.tr("Downloading Resources"));
+        parts.add(Constants.VERSION.toString());
+        parts.add(id);
+        parts.add(Gsons.DEFAULT.toJson(downloads.client));
+        parts.add(Gsons.DEFAULT.toJson(assetIndex));
+        parts.add(Gsons.DEFAULT.toJson(libraries));
+        parts.add(String.valueOf(LWJGLManager.shouldReplaceLWJGL3(this)));
 
-            progressDialog.setTotalBytes(smallPool.totalSize());
+        if (javaVersion != null && Data.JAVA_RUNTIMES != null && Optional
+            .ofNullable(launcher.useJavaProvidedByMinecraft).orElse(App.settings.useJavaProvidedByMinecraft)) {
+            String runtimeToUse = Optional.ofNullable(launcher.javaRuntimeOverride).orElse(javaVersion.component);
+            List<JavaRuntime> runtimes = Data.JAVA_RUNTIMES.getForSystem().get(runtimeToUse);
 
-            smallPool.downloadAll();
+            parts.add(runtimeToUse);
+            parts.add(runtimes == null || runtimes.isEmpty() ? "" : runtimes.get(0).manifest.sha1);
         }
-        PerformanceManager.end("Organising Resources 1");
 
-        // copy resources to instance
-        if (index != null && (index.mapToResources || assetIndex.id.equalsIgnoreCase("legacy"))) {
-            PerformanceManager.start("Organising Resources 2");
-            progressDialog.setLabel(GetText.tr("Organising Resources"));
+        return Hashing.sha1(String.join("\n", parts)).toString();
+    }
 
-            index.objects.forEach((key, object) -> {
-                String filename = object.hash.substring(0, 2) + "/" + object.hash;
+    private Path getLaunchFingerprintPath() {
+        return FileSystem.LAUNCH_FINGERPRINTS.resolve(getUUID().toString() + ".json");
+    }
 
-                Path downloadedFile = FileSystem.RESOURCES_OBJECTS.resolve(filename);
-                Path assetPath = index.mapToResources ? this.ROOT.resolve("resources/" + key)
-                    : FileSystem.RESOURCES_VIRTUAL_LEGACY.resolve(key);
+    private LaunchFingerprint readLaunchFingerprint() {
+        Path fingerprintPath = getLaunchFingerprintPath();
 
-                if (!Files.exists(assetPath)) {
-                    FileUtils.copyFile(downloadedFile, assetPath, true);
-                }
-            });
-            PerformanceManager.end("Organising Resources 2");
+        if (!Files.exists(fingerprintPath)) {
+            return null;
         }
 
-        progressDialog.doneTask();
-
-        progressDialog.setLabel(GetText.tr("Organising Libraries"));
-
-        // extract natives to a temp dir
-        PerformanceManager.start("Extracting Natives");
-        boolean useSystemGlfw = Optional.ofNullable(launcher.useSystemGlfw).orElse(App.settings.useSystemGlfw);
-        boolean useSystemOpenAl = Optional.ofNullable(launcher.useSystemOpenAl).orElse(App.settings.useSystemOpenAl);
-        this.libraries.stream().filter(Library::shouldInstall)
-            .map(l -> LWJGLManager.shouldReplaceLWJGL3(this)
-                ? LWJGLManager.getReplacementLWJGL3Library(this, l)
-                : l)
-            .forEach(library -> {
-                if (library.hasNativeForOS()) {
-                    if (library.name.contains("glfw") && useSystemGlfw) {
-                        LogManager.warn("useSystemGlfw was enabled, not using glfw natives from Minecraft");
-                        return;
-                    }
-
-                    if (library.name.contains("openal") && useSystemOpenAl) {
-                        LogManager.warn("useSystemOpenAl was enabled, not using openal natives from Minecraft");
-                        return;
-                    }
-
-                    Path nativePath = FileSystem.LIBRARIES.resolve(library.getNativeDownloadForOS().path);
-
-                    ArchiveUtils.extract(nativePath, nativesTempDir, name -> {
-                        if (library.extract != null && library.extract.shouldExclude(name)) {
-                            return null;
-                        }
-
-                        // keep META-INF folder as per normal
-                        if (name.startsWith("META-INF")) {
-                            return name;
-                        }
-
-                        // don't extract folders
-                        if (name.endsWith("/")) {
-                            return null;
-                        }
-
-                        // if it has a / then extract just to root
-                        if (name.contains("/")) {
-                            return name.substring(name.lastIndexOf("/") + 1);
-                        }
-
-                        return name;
-                    });
-                }
-            });
-
-        progressDialog.doneTask();
-        PerformanceManager.end("Extracting Natives");
-
-        if (LWJGLManager.shouldUseLegacyLWJGL(this)) {
-            PerformanceManager.start("Extracting Legacy LWJGL");
-            progressDialog.setLabel(GetText.tr("Extracting Legacy LWJGL"));
-
-            LWJGLLibrary library = LWJGLManager.getLegacyLWJGLLibrary();
-
-            if (library != null) {
-                com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(library.url)
-                    .downloadTo(FileSystem.LIBRARIES.resolve(library.path)).unzipTo(lwjglNativesTempDir)
-                    .hash(library.sha1).size(library.size).withHttpClient(httpClient);
-
-                if (download.needToDownload()) {
-                    progressDialog.setTotalBytes(library.size);
-
-                    try {
-                        download.downloadFile();
-                    } catch (IOException e) {
-                        LogManager.logStackTrace(e);
-                    }
-                } else {
-                    download.runPostProcessors();
-                }
-            }
-
-            progressDialog.doneTask();
-            PerformanceManager.end("Extracting Legacy LWJGL");
+        try (InputStreamReader fileReader = new InputStreamReader(Files.newInputStream(fingerprintPath),
+            StandardCharsets.UTF_8)) {
+            return Gsons.DEFAULT.fromJson(fileReader, LaunchFingerprint.class);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception reading launch fingerprint", e, false);
+            return null;
         }
+    }
 
-        if (usesCustomMinecraftJar()) {
-            PerformanceManager.start("Creating custom minecraft.jar");
-            progressDialog.setLabel(GetText.tr("Creating custom minecraft.jar"));
-
-            if (Files.exists(getCustomMinecraftJarLibraryPath())) {
-                FileUtils.delete(getCustomMinecraftJarLibraryPath());
-            }
-
-            if (!Utils.combineJars(getMinecraftJar(), getRoot().resolve("bin/modpack.jar").toFile(),
-                getCustomMinecraftJar())) {
-                LogManager.error("Failed to combine jars into custom minecraft.jar");
-                PerformanceManager.end("Creating custom minecraft.jar");
-                PerformanceManager.end();
-                return false;
-            }
-            PerformanceManager.end("Creating custom minecraft.jar");
+    private void saveLaunchFingerprint(LaunchFingerprint fingerprint) {
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
+            Files.newOutputStream(getLaunchFingerprintPath()), StandardCharsets.UTF_8)) {
+            Gsons.DEFAULT.toJson(fingerprint, fileWriter);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace("Exception saving launch fingerprint", e, false);
         }
-        progressDialog.doneTask();
-
-        if (App.settings.scanModsOnLaunch) {
-            PerformanceManager.start("Scanning mods for Fractureiser");
-            progressDialog.setLabel(GetText.tr("Scanning mods for Fractureiser"));
+    }
 
-            List<Path> foundInfections = new ArrayList<>();
-            try {
-                foundInfections = SecurityUtils.scanForFractureiser(this.getModPathsFromFilesystem());
-            } catch (InterruptedException e) {
-                LogManager.logStackTrace("Failed to scan all mods for Fractureiser", e);
-            }
-            PerformanceManager.end("Scanning mods for Fractureiser");
+    /**
+     * Removes the saved launch fingerprint, so that the files needed to launch are fully verified on the next launch.
+     */
+    public void clearLaunchFingerprint() {
+        Path fingerprintPath = getLaunchFingerprintPath();
 
-            if (!foundInfections.isEmpty()) {
-                LogManager.error("Infections have been found in your mods. See the below list of paths");
-                foundInfections.forEach(p -> LogManager.error(p.toAbsolutePath().toString()));
-                return false;
-            }
+        if (Files.exists(fingerprintPath)) {
+            FileUtils.delete(fingerprintPath);
         }
-        progressDialog.doneTask();
-
-        PerformanceManager.end();
-        return true;
     }
 
     public boolean launch() {
@@ -856,35 +1035,19 @@ public class Instance extends MinecraftVersion implements ModManagement {
             }
         }
 
-        Path nativesTempDir = FileSystem.TEMP.resolve("natives-" + UUID.randomUUID().toString().replace("-", ""));
-        Path lwjglNativesTempDir = FileSystem.TEMP
-            .resolve("lwjgl-natives-" + UUID.randomUUID().toString().replace("-", ""));
-
-        try {
-            Files.createDirectory(nativesTempDir);
-        } catch (IOException e2) {
-            LogManager.logStackTrace(e2, false);
-        }
-
-        if (LWJGLManager.shouldUseLegacyLWJGL(this)) {
-            try {
-                Files.createDirectory(lwjglNativesTempDir);
-            } catch (IOException e2) {
-                LogManager.logStackTrace(e2, false);
-            }
-        }
-
-        ProgressDialog<Boolean> prepareDialog = new ProgressDialog<>(GetText.tr("Preparing For Launch"),
+        ProgressDialog<NativesManager.LaunchNatives> prepareDialog = new ProgressDialog<>(
+            GetText.tr("Preparing For Launch"),
             7,
             GetText.tr("Preparing For Launch"));
         prepareDialog.addThread(new Thread(() -> {
             LogManager.info("Preparing for launch!");
-            prepareDialog.setReturnValue(prepareForLaunch(prepareDialog, nativesTempDir, lwjglNativesTempDir));
+            prepareDialog.setReturnValue(prepareForLaunch(prepareDialog));
             prepareDialog.close();
         }));
         prepareDialog.start();
 
-        if (!Boolean.TRUE.equals(prepareDialog.getReturnValue())) {
+        final NativesManager.LaunchNatives natives = prepareDialog.getReturnValue();
+        if (natives == null) {
             Analytics.trackEvent(AnalyticsEvent.forInstanceLaunchFailed(this, offline, "prepare_failure"));
             LogManager.error(
                 "Failed to prepare instance " + this.launcher.name + " for launch. Check the logs and try again.");
@@ -954,9 +1117,8 @@ public class Instance extends MinecraftVersion implements ModManagement {
                     }
                 }
 
-                Process process = MCLauncher.launch(account, this, nativesTempDir,
-                    LWJGLManager.shouldUseLegacyLWJGL(this) ? lwjglNativesTempDir : null,
-                    wrapperCommand, username);
+                Process process = MCLauncher.launch(account, this, natives.nativesDirectory,
+                    natives.lwjglNativesDirectory, wrapperCommand, username);
 
                 if (process == null) {
                     Analytics.trackEvent(AnalyticsEvent.forInstanceLaunchFailed(this, offline, "no_process"));
@@ -968,6 +1130,9 @@ public class Instance extends MinecraftVersion implements ModManagement {
                     return;
                 }
 
+                // timings are measured from when the process was spawned, not from building the launch command
+                StartupTimings.Launch startupTiming = new StartupTimings.Launch(this.launcher.version);
+
                 Analytics.trackEvent(AnalyticsEvent.forInstanceLaunched(this, offline));
 
                 if (this.getPack() != null && this.getPack().isLoggingEnabled() && !this.launcher.isDev
@@ -993,6 +1158,11 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 String replaceUUID = account.uuid.replace("-", "");
 
                 while ((line = br.readLine()) != null) {
+                    if (startupTiming.check(line).contains(StartupMilestone.MAIN_MENU)) {
+                        LogManager.info(String.format(Locale.ENGLISH, "Minecraft reached the main menu in %.1f seconds",
+                            startupTiming.get(StartupMilestone.MAIN_MENU) / 1000.0));
+                    }
+
                     if (line.contains("java.lang.OutOfMemoryError")
                         || line.contains("There is insufficient memory for the Java Runtime Environment")) {
                         detectedError = MinecraftError.OUT_OF_MEMORY;
@@ -1062,6 +1232,9 @@ public class Instance extends MinecraftVersion implements ModManagement {
                     App.launcher.getParent().setVisible(true);
                 }
                 long end = System.currentTimeMillis();
+                if (startupTiming.get(StartupMilestone.JVM_STARTED) != null) {
+                    StartupTimings.add(this, startupTiming);
+                }
                 int exitValue = 0; // Assume we exited fine
                 try {
                     exitValue = process.exitValue(); // Try to get the real exit value
@@ -1115,12 +1288,7 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 if (App.settings.keepLauncherOpen) {
                     App.launcher.updateData();
                 }
-                if (Files.isDirectory(nativesTempDir)) {
-                    FileUtils.deleteDirectoryQuietly(nativesTempDir);
-                }
-                if (Files.isDirectory(lwjglNativesTempDir)) {
-                    FileUtils.deleteDirectoryQuietly(lwjglNativesTempDir);
-                }
+                natives.deleteTemporary();
                 if (usesCustomMinecraftJar() && Files.exists(getCustomMinecraftJarLibraryPath())) {
                     FileUtils.delete(getCustomMinecraftJarLibraryPath());
                 }
@@ -1421,66 +1589,12 @@ public class Instance extends MinecraftVersion implements ModManagement {
             manifest.components.add(quiltLoaderComponent);
         }
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
-
-        // create mmc-pack.json
-        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-            Files.newOutputStream(tempDir.resolve("mmc-pack.json")), StandardCharsets.UTF_8)) {
-            Gsons.DEFAULT.toJson(manifest, fileWriter);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save mmc-pack.json", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
-            return new Pair<>(null, null);
-        }
-
-        // if Legacy Fabric, add patch in
-        if (launcher.loaderVersion.type.equals("LegacyFabric")) {
-            FileUtils.createDirectory(tempDir.resolve("patches"));
-
-            JsonObject patch = new JsonObject();
-            patch.addProperty("formatVersion", 1);
-            patch.addProperty("name", "Intermediary Mappings");
-            patch.addProperty("uid", "net.fabricmc.intermediary");
-            patch.addProperty("version", id);
-
-            JsonArray plusLibraries = new JsonArray();
-            JsonObject intermediary = new JsonObject();
-            intermediary.addProperty("name", String.format("net.fabricmc:intermediary:%s", id));
-            intermediary.addProperty("url", Constants.LEGACY_FABRIC_MAVEN);
-            plusLibraries.add(intermediary);
-            patch.add("+libraries", plusLibraries);
-
-            // create net.fabricmc.intermediary.json
-            try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-                Files.newOutputStream(tempDir.resolve("net.fabricmc.intermediary.json")),
-                StandardCharsets.UTF_8)) {
-                Gsons.DEFAULT.toJson(patch, fileWriter);
-            } catch (JsonIOException | IOException e) {
-                LogManager.logStackTrace("Failed to save net.fabricmc.intermediary.json", e);
-
-                FileUtils.deleteDirectory(tempDir);
-
-                return new Pair<>(null, null);
-            }
-
-        }
-
         // create instance.cfg
-        Path instanceCfgPath = tempDir.resolve("instance.cfg");
         Properties instanceCfg = new Properties();
 
         String iconKey = "default";
         if (hasCustomImage()) {
-            String customIconFileName = "atlauncher_" + getSafeName().toLowerCase(Locale.ENGLISH);
-            Path customIconPath = tempDir.resolve(customIconFileName + ".png");
-
-            FileUtils.copyFile(this.getRoot().resolve("instance.png"), customIconPath, true);
-
-            iconKey = customIconFileName;
+            iconKey = "atlauncher_" + getSafeName().toLowerCase(Locale.ENGLISH);
         }
 
         instanceCfg.setProperty("AutoCloseConsole", "false");
@@ -1528,54 +1642,95 @@ public class Instance extends MinecraftVersion implements ModManagement {
         instanceCfg.setProperty("notes", "");
         instanceCfg.setProperty("totalTimePlayed", "0");
 
-        try (OutputStream outputStream = Files.newOutputStream(instanceCfgPath)) {
-            instanceCfg.store(outputStream, "Exported by ATLauncher");
+        try (ZipExportWriter writer = new ZipExportWriter(to)) {
+            // create mmc-pack.json
+            writer.addJson("mmc-pack.json", manifest);
+
+            // if Legacy Fabric, add patch in
+            if (launcher.loaderVersion.type.equals("LegacyFabric")) {
+                writer.addDirectoryEntry("patches/");
+
+                JsonObject patch = new JsonObject();
+                patch.addProperty("formatVersion", 1);
+                patch.addProperty("name", "Intermediary Mappings");
+                patch.addProperty("uid", "net.fabricmc.intermediary");
+                patch.addProperty("version", id);
+
+                JsonArray plusLibraries = new JsonArray();
+                JsonObject intermediary = new JsonObject();
+                intermediary.addProperty("name", String.format("net.fabricmc:intermediary:%s", id));
+                intermediary.addProperty("url", Constants.LEGACY_FABRIC_MAVEN);
+                plusLibraries.add(intermediary);
+                patch.add("+libraries", plusLibraries);
+
+                // create net.fabricmc.intermediary.json
+                writer.addJson("net.fabricmc.intermediary.json", patch);
+            }
+
+            if (hasCustomImage()) {
+                writer.addFile(iconKey + ".png", this.getRoot().resolve("instance.png"));
+            }
+
+            ByteArrayOutputStream instanceCfgBytes = new ByteArrayOutputStream();
+            instanceCfg.store(instanceCfgBytes, "Exported by ATLauncher");
+            writer.addEntry("instance.cfg", instanceCfgBytes.toByteArray());
+
+            // add an empty .packignore file, it's unused but seems to be there by default
+            writer.addEntry(".packignore", new byte[0]);
+
+            // add the files into the .minecraft folder
+            writer.addDirectoryEntry(".minecraft/");
+            addExportOverrides(writer, to, ".minecraft/", overrides, safePathName, Collections.emptySet());
         } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save mmc-pack.json", e);
+            LogManager.logStackTrace("Failed to export instance as MultiMC zip", e);
 
-            FileUtils.deleteDirectory(tempDir);
+            FileUtils.delete(to);
 
             return new Pair<>(null, null);
         }
 
-        // create an empty .packignore file
-        Path packignoreFile = tempDir.resolve(".packignore");
-        try {
-            packignoreFile.toFile().createNewFile();
-        } catch (IOException ignored) {
-            // this is okay to ignore, it's unused but seems to be there by default
-        }
+        return new Pair<>(to, null);
+    }
 
-        // copy over the files into the .minecraft folder
-        Path dotMinecraftPath = tempDir.resolve(".minecraft");
-        FileUtils.createDirectory(dotMinecraftPath);
+    /**
+     * Streams the given override paths from the instance into the export, under the given prefix.
+     *
+     * @param writer        the export being written
+     * @param to            the file the export is being written to, so it's never added to itself
+     * @param prefix        the prefix to put the overrides under, ending with /
+     * @param overrides     the paths, relative to the instance root, selected to export
+     * @param safePathName  the name of the export
+     * @param excludedFiles files which shouldn't be added, as absolute normalised paths
+     */
+    private void addExportOverrides(ZipExportWriter writer, Path to, String prefix, List<String> overrides,
+        String safePathName, Set<Path> excludedFiles) throws IOException {
+        Set<Path> filesToSkip = new HashSet<>(excludedFiles);
+        filesToSkip.add(to.toAbsolutePath().normalize());
 
         for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                && (getRoot().resolve(path).toFile().isFile()
-                || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile(), true);
-                }
+            Path overridePath = getRoot().resolve(path);
+
+            if (path.equalsIgnoreCase(safePathName + ".zip") || !Files.exists(overridePath)) {
+                continue;
             }
-        }
 
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(dotMinecraftPath)) {
-            walk.filter(Files::isRegularFile)
-                .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                .forEach(f -> FileUtils.delete(f, false));
-        } catch (IOException ignored) {
-            // ignored
+            String entryName = prefix + path.replace('\\', '/');
+            if (Files.isDirectory(overridePath)) {
+                writer.addDirectory(entryName + "/", overridePath,
+                    file -> !filesToSkip.contains(file.toAbsolutePath().normalize()));
+            } else if (!overridePath.getFileName().toString().equals(".DS_Store")
+                && !filesToSkip.contains(overridePath.toAbsolutePath().normalize())) {
+                writer.addFile(entryName, overridePath);
+            }
         }
+    }
 
-        ArchiveUtils.createZip(tempDir, to);
-
-        FileUtils.deleteDirectory(tempDir);
-
-        return new Pair<>(to, null);
+    /**
+     * Gets the files of the given mods, as absolute normalised paths, to exclude from an exports overrides.
+     */
+    private Set<Path> getModFilesToExclude(Stream<DisableableMod> mods) {
+        return mods.map(mod -> mod.getFile(this)).filter(Objects::nonNull)
+            .map(file -> file.toPath().toAbsolutePath().normalize()).collect(Collectors.toSet());
     }
 
     public Pair<Path, String> exportAsCurseForgeZip(String name, String version, String author, String saveTo,
@@ -1682,22 +1837,6 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 }));
         manifest.overrides = "overrides";
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
-
-        // create manifest.json
-        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-            Files.newOutputStream(tempDir.resolve("manifest.json")), StandardCharsets.UTF_8)) {
-            Gsons.DEFAULT.toJson(manifest, fileWriter);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save manifest.json", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
-            return new Pair<>(null, null);
-        }
-
         // create modlist.html
         StringBuilder sb = new StringBuilder("<ul>");
         this.launcher.mods.stream()
@@ -1718,42 +1857,6 @@ public class Instance extends MinecraftVersion implements ModManagement {
             });
         sb.append("</ul>");
 
-        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-            Files.newOutputStream(tempDir.resolve("modlist.html")), StandardCharsets.UTF_8)) {
-            fileWriter.write(sb.toString());
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save modlist.html", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
-            return new Pair<>(null, null);
-        }
-
-        // copy over the overrides folder
-        Path overridesPath = tempDir.resolve("overrides");
-        FileUtils.createDirectory(overridesPath);
-
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                && (getRoot().resolve(path).toFile().isFile()
-                || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile(), true);
-                }
-            }
-        }
-
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                .forEach(f -> FileUtils.delete(f, false));
-        } catch (IOException ignored) {
-            // ignored
-        }
-
         // log files that are not available on CurseForge anymore and put in overrides
         launcher.mods.stream()
             .filter(m -> !m.disabled && m.isFromCurseForge() && m
@@ -1763,36 +1866,25 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 "File %s is no longer available according to the CurseForge api, so putting it in overrides",
                 mod.file)));
 
-        // remove files that come from CurseForge or aren't disabled
-        launcher.mods.stream()
+        // don't add files that come from CurseForge to the overrides
+        Set<Path> curseForgeFiles = getModFilesToExclude(launcher.mods.stream()
             .filter(m -> !m.disabled && m.isFromCurseForge() && m.hasFullCurseForgeInformation()
                 && m.type != com.atlauncher.data.Type.worlds)
             // #875 - Non available mods/files will be rejected by CurseForge
-            .filter(mod -> mod.curseForgeFile.isAvailable)
-            .forEach(mod -> {
-                File file = mod.getFile(this, overridesPath);
-
-                if (file != null && file.exists()) {
-                    FileUtils.delete(file.toPath());
-                }
-            });
+            .filter(mod -> mod.curseForgeFile.isAvailable));
 
-        for (String path : overrides) {
-            // if no files, remove the directory
-            if (overridesPath.resolve(path).toFile().isDirectory()
-                && overridesPath.resolve(path).toFile().list().length == 0) {
-                FileUtils.deleteDirectory(overridesPath.resolve(path));
-            }
-        }
+        try (ZipExportWriter writer = new ZipExportWriter(to)) {
+            writer.addJson("manifest.json", manifest);
+            writer.addEntry("modlist.html", sb.toString().getBytes(StandardCharsets.UTF_8));
 
-        // if overrides folder itself is empty, then remove it
-        if (overridesPath.toFile().list().length == 0) {
-            FileUtils.deleteDirectory(overridesPath);
-        }
+            addExportOverrides(writer, to, "overrides/", overrides, safePathName, curseForgeFiles);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace("Failed to export instance as CurseForge zip", e);
 
-        ArchiveUtils.createZip(tempDir, to);
+            FileUtils.delete(to);
 
-        FileUtils.deleteDirectory(tempDir);
+            return new Pair<>(null, null);
+        }
 
         return new Pair<>(to, null);
     }
@@ -1803,22 +1895,34 @@ public class Instance extends MinecraftVersion implements ModManagement {
         Path to = Paths.get(saveTo).resolve(String.format("%s %s.mrpack", safePathName, version));
         ModrinthModpackManifest manifest = new ModrinthModpackManifest();
 
+        // work out the hashes of every mod up front, reading each file at most once
+        List<DisableableMod> enabledMods = this.launcher.mods.stream()
+            .filter(m -> !m.disabled && m.getFile(this).exists())
+            .collect(Collectors.toList());
+        List<ExportFileHashes> enabledModHashes = TaskPools.map(TaskPools.DISK, enabledMods,
+            this::getExportFileHashes);
+        Map<DisableableMod, ExportFileHashes> modHashes = new HashMap<>();
+        for (int i = 0; i < enabledMods.size(); i++) {
+            if (enabledModHashes.get(i) != null) {
+                modHashes.put(enabledMods.get(i), enabledModHashes.get(i));
+            }
+        }
+
         // for any mods not from Modrinth, scan for them on Modrinth
-        List<DisableableMod> nonModrinthMods = this.launcher.mods.parallelStream()
-            .filter(m -> !m.disabled && !m.isFromModrinth() && m.getFile(this).exists())
+        List<DisableableMod> nonModrinthMods = enabledMods.stream()
+            .filter(m -> !m.isFromModrinth() && modHashes.containsKey(m))
             .collect(Collectors.toList());
 
-        String[] sha1Hashes = nonModrinthMods.parallelStream()
-            .map(m -> Hashing.sha1(m.getFile(this).toPath()).toString()).toArray(String[]::new);
+        String[] sha1Hashes = nonModrinthMods.stream().map(m -> modHashes.get(m).sha1).toArray(String[]::new);
 
         Map<String, ModrinthVersion> modrinthVersions = ModrinthApi.getVersionsFromSha1Hashes(sha1Hashes);
 
         if (!modrinthVersions.isEmpty()) {
             Map<String, ModrinthProject> modrinthProjects = ModrinthApi.getProjectsAsMap(
-                modrinthVersions.values().parallelStream().map(mv -> mv.projectId).toArray(String[]::new));
+                modrinthVersions.values().stream().map(mv -> mv.projectId).toArray(String[]::new));
 
-            nonModrinthMods.parallelStream().forEach(mod -> {
-                String hash = Hashing.sha1(mod.getFile(this).toPath()).toString();
+            nonModrinthMods.forEach(mod -> {
+                String hash = modHashes.get(mod).sha1;
 
                 if (modrinthVersions.containsKey(hash)) {
                     ModrinthVersion modrinthVersion = modrinthVersions.get(hash);
@@ -1835,13 +1939,19 @@ public class Instance extends MinecraftVersion implements ModManagement {
             this.save();
         }
 
+        // only mods whose file on disk is actually one of the files of its Modrinth version can be downloaded from
+        // Modrinth, anything else (such as a file replaced since it was downloaded) goes in the overrides
+        List<DisableableMod> modrinthMods = enabledMods.stream()
+            .filter(m -> m.modrinthVersion != null && modHashes.containsKey(m)
+                && m.modrinthVersion.getFileBySha1(modHashes.get(m).sha1) != null)
+            .collect(Collectors.toList());
+
         manifest.formatVersion = 1;
         manifest.game = "minecraft";
         manifest.versionId = version;
         manifest.name = name;
         manifest.summary = this.launcher.description;
-        manifest.files = this.launcher.mods.parallelStream()
-            .filter(m -> !m.disabled && m.modrinthVersion != null && m.getFile(this).exists())
+        manifest.files = modrinthMods.stream()
             .filter(mod -> overrides.stream()
                 .anyMatch(path -> getRoot().relativize(mod.getPath(this)).startsWith(path)))
             .collect(Collectors.collectingAndThen(
@@ -1852,15 +1962,17 @@ public class Instance extends MinecraftVersion implements ModManagement {
                         .filter(mod -> seenFileIds.add(mod.modrinthVersion.id))
                         .map(mod -> {
                             Path modPath = mod.getFile(this).toPath();
+                            ExportFileHashes hashes = modHashes.get(mod);
 
                             ModrinthModpackFile file = new ModrinthModpackFile();
                             file.path = this.ROOT.relativize(modPath).toString().replace("\\", "/");
 
-                            String sha1Hash = Hashing.sha1(modPath).toString();
+                            String sha1Hash = hashes.sha1;
+                            ModrinthFile modrinthFile = mod.modrinthVersion.getFileBySha1(sha1Hash);
 
                             file.hashes = new HashMap<>();
                             file.hashes.put("sha1", sha1Hash);
-                            file.hashes.put("sha512", Hashing.sha512(modPath).toString());
+                            file.hashes.put("sha512", hashes.sha512);
 
                             file.env = new HashMap<>();
                             // mods are always required on the client ALWAYS ALWAYS ALWAYS (for now)
@@ -1872,11 +1984,10 @@ public class Instance extends MinecraftVersion implements ModManagement {
                                 file.env.put("server", "unsupported");
                             }
 
-                            file.fileSize = modPath.toFile().length();
+                            file.fileSize = hashes.size;
 
                             file.downloads = new ArrayList<>();
-                            file.downloads.add(HttpUrl.get(mod.modrinthVersion.getFileBySha1(sha1Hash).url)
-                                .toString());
+                            file.downloads.add(HttpUrl.get(modrinthFile.url).toString());
 
                             return file;
                         })
@@ -1891,86 +2002,65 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 this.launcher.loaderVersion.version);
         }
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
+        // don't add files that come from Modrinth to the overrides
+        Set<Path> modrinthFiles = getModFilesToExclude(modrinthMods.stream());
 
-        // create modrinth.index.json
-        try (FileOutputStream fos = new FileOutputStream(tempDir.resolve("modrinth.index.json").toFile());
-            OutputStreamWriter osw = new OutputStreamWriter(fos,
-                StandardCharsets.UTF_8)) {
-            Gsons.DEFAULT.toJson(manifest, osw);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save modrinth.index.json", e);
+        // find any override jar/zip files
+        StringBuilder overridesForPermissions = new StringBuilder();
 
-            FileUtils.deleteDirectory(tempDir);
+        try (ZipExportWriter writer = new ZipExportWriter(to)) {
+            writer.addJson("modrinth.index.json", manifest);
 
-            return new Pair<>(null, null);
-        }
+            addExportOverrides(writer, to, "overrides/", overrides, safePathName, modrinthFiles);
 
-        // copy over the overrides folder
-        Path overridesPath = tempDir.resolve("overrides");
-        FileUtils.createDirectory(overridesPath);
+            writer.getFileNames().stream()
+                .filter(fileName -> fileName.startsWith("overrides/")
+                    && (fileName.endsWith(".jar") || fileName.endsWith(".zip")))
+                .forEach(fileName -> overridesForPermissions.append(String.format("%s\n", fileName)));
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace("Failed to export instance as Modrinth pack", e);
 
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                && (getRoot().resolve(path).toFile().isFile()
-                || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile(), true);
-                }
-            }
-        }
+            FileUtils.delete(to);
 
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                .forEach(f -> FileUtils.delete(f, false));
-        } catch (IOException ignored) {
-            // ignored
+            return new Pair<>(null, null);
         }
 
-        // remove files that come from Modrinth or aren't disabled
-        launcher.mods.stream().filter(m -> !m.disabled && m.modrinthVersion != null).forEach(mod -> {
-            File file = mod.getFile(this, overridesPath);
-
-            if (file.exists()) {
-                FileUtils.delete(file.toPath());
-            }
-        });
-
-        for (String path : overrides) {
-            // if no files, remove the directory
-            if (overridesPath.resolve(path).toFile().isDirectory()
-                && overridesPath.resolve(path).toFile().list().length == 0) {
-                FileUtils.deleteDirectory(overridesPath.resolve(path));
-            }
-        }
+        return new Pair<>(to, overridesForPermissions.toString());
+    }
 
-        // if overrides folder itself is empty, then remove it
-        if (overridesPath.toFile().list().length == 0) {
-            FileUtils.deleteDirectory(overridesPath);
-        }
+    /**
+     * The hashes of a file being exported.
+     */
+    private static class ExportFileHashes {
+        private final long size;
+        private final String sha1;
+        private final String sha512;
 
-        // find any override jar/zip files
-        StringBuilder overridesForPermissions = new StringBuilder();
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                .filter(path -> path.getFileName().toString().endsWith(".jar")
-                    || path.getFileName().toString().endsWith(".zip"))
-                .forEach(f -> overridesForPermissions.append(String.format("%s\n", tempDir.relativize(f))));
-        } catch (IOException ignored) {
-            // ignored
+        private ExportFileHashes(long size, String sha1, String sha512) {
+            this.size = size;
+            this.sha1 = sha1;
+            this.sha512 = sha512;
         }
+    }
 
-        ArchiveUtils.createZip(tempDir, to);
+    /**
+     * Gets the hashes of the given mod for exporting, reading the file once for both hashes. The file itself is always
+     * hashed, as the hashes in a mods Modrinth or CurseForge metadata are only for the file that was downloaded, which
+     * may since have been replaced with a different file of the same name and size.
+     */
+    private ExportFileHashes getExportFileHashes(DisableableMod mod) {
+        Path path = mod.getFile(this).toPath();
 
-        FileUtils.deleteDirectory(tempDir);
+        try {
+            long size = Files.size(path);
+            HashCode[] hashes = Hashing.hash(path, com.google.common.hash.Hashing.sha1(),
+                com.google.common.hash.Hashing.sha512());
 
-        return new Pair<>(to, overridesForPermissions.toString());
+            return new ExportFileHashes(size, hashes[0].toString(), hashes[1].toString());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to hash " + path + " for export", e);
+            return null;
+        }
     }
 
     public boolean rename(String newName) {
@@ -2276,17 +2366,24 @@ public class Instance extends MinecraftVersion implements ModManagement {
         Analytics.trackEvent(AnalyticsEvent.forInstanceBackup(backupMode, this));
 
         final Thread backupThread = new Thread(() -> {
+            if (App.settings.enableIncrementalBackups) {
+                boolean success = BackupManager.backup(this, backupMode);
+
+                dialog.dispose();
+                if (success) {
+                    App.TOASTER.pop(GetText.tr("Backup is complete"));
+                } else {
+                    App.TOASTER.popError(GetText.tr("Backup failed. Check the console for details"));
+                }
+                return;
+            }
+
             Timestamp timestamp = new Timestamp(new Date().getTime());
             String timestampString = timestamp.toString().replaceAll("[^0-9]", "_");
             String filename = getSafeName() + "-" + timestampString.substring(0, timestampString.lastIndexOf("_"))
                 + ".zip";
 
-            Path backupsPath = FileSystem.BACKUPS;
-            if (App.settings.backupsPath != null) {
-                backupsPath = Paths.get(App.settings.backupsPath);
-            }
-
-            ArchiveUtils.createZip(getRoot(), backupsPath.resolve(filename),
+            ArchiveUtils.createZip(getRoot(), BackupManager.getBackupsPath().resolve(filename),
                 ZipNameMapper.getMapperForBackupMode(backupMode));
 
             dialog.dispose();
@@ -2303,6 +2400,65 @@ public class Instance extends MinecraftVersion implements ModManagement {
         dialog.setVisible(true);
     }
 
+    public void startRestoreBackup() {
+        // restoring replaces files the game may have open and be writing to, such as worlds
+        if (App.launcher.minecraftLaunched) {
+            DialogManager.okDialog().setTitle(GetText.tr("Restore Backup"))
+                .setContent(GetText.tr("Backups can't be restored while Minecraft is running."))
+                .setType(DialogManager.ERROR).show();
+            return;
+        }
+
+        List<BackupManifest> backups = BackupManager.getBackups(this);
+
+        if (backups.isEmpty()) {
+            DialogManager.okDialog().setTitle(GetText.tr("Restore Backup"))
+                .setContent(GetText.tr("There are no incremental backups of this instance to restore."))
+                .setType(DialogManager.INFO).show();
+            return;
+        }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)
+            .withZone(ZoneId.systemDefault());
+        List<ComboItem<BackupManifest>> options = backups.stream()
+            .map(b -> new ComboItem<>(b, String.format("%s (%s, %d files)", formatter.format(b.createdAt), b.mode,
+                b.files.size())))
+            .collect(Collectors.toList());
+
+        ComboItem<BackupManifest> selected = (ComboItem<BackupManifest>) JOptionPane.showInputDialog(
+            App.launcher.getParent(), GetText.tr("Select the backup to restore."), GetText.tr("Restore Backup"),
+            JOptionPane.QUESTION_MESSAGE, null, options.toArray(), options.get(0));
+
+        if (selected == null) {
+            return;
+        }
+
+        int ret = DialogManager.yesNoDialog(false).setTitle(GetText.tr("Restore Backup"))
+            .setContent(new HTMLBuilder().center().text(GetText.tr(
+                    "Are you sure you want to restore this backup?<br/><br/>Any changes made to the backed up files since the backup was taken will be lost."))
+                .build())
+            .setType(DialogManager.WARNING).show();
+
+        if (ret != DialogManager.YES_OPTION) {
+            return;
+        }
+
+        Analytics.trackEvent(AnalyticsEvent.forInstanceEvent("instance_restore_backup", this));
+        final ProgressDialog<Boolean> dialog = new ProgressDialog<>(GetText.tr("Restoring Backup"), 0,
+            GetText.tr("Restoring Backup. Please wait..."), null, App.launcher.getParent());
+        dialog.addThread(new Thread(() -> {
+            dialog.setReturnValue(BackupManager.restore(this, selected.getValue()));
+            dialog.close();
+        }));
+        dialog.start();
+
+        if (Boolean.TRUE.equals(dialog.getReturnValue())) {
+            App.TOASTER.pop(GetText.tr("Backup restored"));
+        } else {
+            App.TOASTER.popError(GetText.tr("Failed to restore backup. Check the console for details"));
+        }
+    }
+
     public boolean canChangeDescription() {
         return isExternalPack() || launcher.vanillaInstance || (getPack() != null && getPack().system);
     }
@@ -2833,14 +2989,12 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 GetText.tr("Scanning New Mods"), parent);
 
             progressDialog.addThread(new Thread(() -> {
-                List<DisableableMod> mods = files.parallelStream()
-                    .map(file -> {
-                        Type fileType = getTypeOfFileFromPath(file.getParent());
+                List<DisableableMod> mods = TaskPools.map(TaskPools.DISK, files, file -> {
+                    Type fileType = getTypeOfFileFromPath(file.getParent());
 
-                        return DisableableMod.generateMod(file.toFile(), fileType,
-                            !file.getParent().equals(ROOT.resolve("disabledmods")));
-                    })
-                    .collect(Collectors.toList());
+                    return DisableableMod.generateMod(file.toFile(), fileType,
+                        !file.getParent().equals(ROOT.resolve("disabledmods")));
+                });
 
                 if (!App.settings.dontCheckModsOnCurseForge) {
                     Map<Long, DisableableMod> murmurHashes = new HashMap<>();
@@ -2995,17 +3149,15 @@ public class Instance extends MinecraftVersion implements ModManagement {
         PerformanceManager.start("Instance::scanMissingMods - CheckForRemovedMods");
 
         // next remove any mods that the no longer exist in the filesystem
-        List<DisableableMod> removedMods = launcher.mods.parallelStream().filter(mod -> {
+        List<DisableableMod> removedMods = TaskPools.map(TaskPools.DISK, new ArrayList<>(launcher.mods), mod -> {
             if (!mod.wasSelected || mod.skipped || mod.type != com.atlauncher.data.Type.mods) {
-                return false;
+                return null;
             }
 
-            if (mod.disabled) {
-                return (mod.getDisabledFile(this) != null && !mod.getDisabledFile(this).exists());
-            } else {
-                return (mod.getFile(this) != null && !mod.getFile(this).exists());
-            }
-        }).collect(Collectors.toList());
+            File file = mod.disabled ? mod.getDisabledFile(this) : mod.getFile(this);
+
+            return file != null && !file.exists() ? mod : null;
+        }).stream().filter(Objects::nonNull).collect(Collectors.toList());
 
         if (!removedMods.isEmpty()) {
             removedMods.forEach(mod -> LogManager.info("Mod no longer in filesystem: " + mod.file));
@@ -3382,7 +3534,7 @@ public class Instance extends MinecraftVersion implements ModManagement {
                     FileUtils.createDirectory(finalLocation.getParent());
                 }
 
-                FileUtils.copyFile(downloadLocation, finalLocation, true);
+                ModStoreManager.installFile(downloadLocation, finalLocation);
             }
         } else {
             com.atlauncher.network.Download download = com.atlauncher.network.Download.build().setUrl(file.downloadUrl)
@@ -3394,7 +3546,7 @@ public class Instance extends MinecraftVersion implements ModManagement {
             if (mod.getRootCategoryId() == Constants.CURSEFORGE_WORLDS_SECTION_ID) {
                 download = download.unzipTo(this.getRoot().resolve("saves"));
             } else {
-                download = download.copyTo(finalLocation);
+                download = download.copyTo(finalLocation).useModStore();
                 if (Files.exists(finalLocation)) {
                     FileUtils.delete(finalLocation);
                 }
@@ -3481,7 +3633,7 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 ? this.getRoot().resolve("shaderpacks").resolve(fileToDownload.filename)
                 : this.getRoot().resolve("resourcepacks").resolve(fileToDownload.filename));
         com.atlauncher.network.Download download = com.atlauncher.network.Download.build().setUrl(fileToDownload.url)
-            .downloadTo(downloadLocation).copyTo(finalLocation)
+            .downloadTo(downloadLocation).copyTo(finalLocation).useModStore()
             .withHttpClient(Network.createProgressClient(dialog));
 
         if (fileToDownload.hashes != null && fileToDownload.hashes.containsKey("sha512")) {
@@ -76,6 +76,7 @@ public class InstanceLauncher {
     public String wrapperCommand = null;
     public Boolean useSystemGlfw = null;
     public Boolean useSystemOpenAl = null;
+    public String jvmTuningProfile = null;
 
     public boolean isDev;
     public boolean isPlayable;
@@ -0,0 +1,128 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.atlauncher.managers.LogManager;
+
+/**
+ * A record of the files an instance needed to launch, taken after they were all verified and downloaded. As long as
+ * the instance hasn't changed and none of the files have been touched since, the next launch can skip verifying them.
+ */
+public class LaunchFingerprint {
+    /**
+     * Hash of everything in the instance which decides which files are needed to launch it and what their hashes should
+     * be (Minecraft version, libraries, asset index, Java runtime and launcher version).
+     */
+    public String key;
+
+    public Instant createdAt;
+
+    public List<FileState> files = new ArrayList<>();
+
+    public LaunchFingerprint() {
+    }
+
+    public LaunchFingerprint(String key, Instant createdAt) {
+        this.key = key;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Creates a fingerprint of the given files as they are on disk right now. Files which don't exist are recorded as
+     * such, so the fingerprint will never match them.
+     *
+     * @param key   the key of the instance the files are for
+     * @param paths the files needed to launch the instance
+     * @return the fingerprint
+     */
+    public static LaunchFingerprint create(String key, Collection<Path> paths) {
+        LaunchFingerprint fingerprint = new LaunchFingerprint(key, Instant.now());
+
+        for (Path path : new LinkedHashSet<>(paths)) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+                fingerprint.files.add(new FileState(path.toAbsolutePath().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis()));
+            } catch (IOException e) {
+                // file failed to download, so make sure the next launch verifies everything again
+                fingerprint.files.add(new FileState(path.toAbsolutePath().toString(), -1L, -1L));
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Checks if this fingerprint is still valid for the given key, by checking that every file still has the same size
+     * and modified time as when the fingerprint was taken. This only stats the files and doesn't read any of them.
+     *
+     * @param key the current key of the instance
+     * @return if the files don't need to be verified again
+     */
+    public boolean isValid(String key) {
+        if (this.key == null || !this.key.equals(key) || files == null || files.isEmpty()) {
+            return false;
+        }
+
+        for (FileState file : files) {
+            if (!file.matches()) {
+                LogManager.debug("Launch fingerprint doesn't match as " + file.path + " has changed");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static class FileState {
+        public String path;
+        public long size;
+        public long lastModified;
+
+        public FileState() {
+        }
+
+        public FileState(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public boolean matches() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+
+                return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
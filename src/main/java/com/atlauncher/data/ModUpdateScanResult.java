@@ -0,0 +1,61 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The result of a background mod update scan for a single instance.
+ */
+public class ModUpdateScanResult {
+    /**
+     * Hash of the instances Minecraft version, loader and installed mod versions at the time of the scan.
+     */
+    public String modSetHash;
+
+    public Instant checkedAt;
+    public Instant expiresAt;
+
+    /**
+     * Map of mod file name to the name of the newer version that's available for it.
+     */
+    public Map<String, String> updates = new HashMap<>();
+
+    public ModUpdateScanResult() {
+    }
+
+    public ModUpdateScanResult(String modSetHash, Instant checkedAt, Instant expiresAt) {
+        this.modSetHash = modSetHash;
+        this.checkedAt = checkedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean hasUpdates() {
+        return updates != null && !updates.isEmpty();
+    }
+
+    public int getNumberOfUpdates() {
+        return updates == null ? 0 : updates.size();
+    }
+
+    public boolean isExpired() {
+        return expiresAt == null || Instant.now().isAfter(expiresAt);
+    }
+}
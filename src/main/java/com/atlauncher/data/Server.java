@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -60,6 +61,7 @@ import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
+import com.atlauncher.TaskPools;
 import com.atlauncher.annot.Json;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
@@ -1121,16 +1123,14 @@ public class Server implements ModManagement {
                 GetText.tr("Scanning New Mods"), parent);
 
             progressDialog.addThread(new Thread(() -> {
-                List<DisableableMod> allMods = files.parallelStream()
-                    .map(file -> {
-                        com.atlauncher.data.Type fileType = file.getParent().equals(ROOT.resolve("plugins"))
-                            ? com.atlauncher.data.Type.plugins
-                            : com.atlauncher.data.Type.mods;
+                List<DisableableMod> allMods = TaskPools.map(TaskPools.DISK, files, file -> {
+                    com.atlauncher.data.Type fileType = file.getParent().equals(ROOT.resolve("plugins"))
+                        ? com.atlauncher.data.Type.plugins
+                        : com.atlauncher.data.Type.mods;
 
-                        return DisableableMod.generateMod(file.toFile(), fileType,
-                            !file.getParent().equals(ROOT.resolve("disabledmods")));
-                    })
-                    .collect(Collectors.toList());
+                    return DisableableMod.generateMod(file.toFile(), fileType,
+                        !file.getParent().equals(ROOT.resolve("disabledmods")));
+                });
 
                 if (!App.settings.dontCheckModsOnCurseForge) {
                     Map<Long, DisableableMod> murmurHashes = new HashMap<>();
@@ -1285,17 +1285,15 @@ public class Server implements ModManagement {
         PerformanceManager.start("Server::scanMissingMods - CheckForRemovedMods");
 
         // next remove any mods that the no longer exist in the filesystem
-        List<DisableableMod> removedMods = mods.parallelStream().filter(mod -> {
+        List<DisableableMod> removedMods = TaskPools.map(TaskPools.DISK, new ArrayList<>(mods), mod -> {
             if (!mod.wasSelected || mod.skipped || mod.type != com.atlauncher.data.Type.mods) {
-                return false;
+                return null;
             }
 
-            if (mod.disabled) {
-                return (mod.getDisabledFile(this) != null && !mod.getDisabledFile(this).exists());
-            } else {
-                return (mod.getFile(this) != null && !mod.getFile(this).exists());
-            }
-        }).collect(Collectors.toList());
+            File file = mod.disabled ? mod.getDisabledFile(this) : mod.getFile(this);
+
+            return file != null && !file.exists() ? mod : null;
+        }).stream().filter(Objects::nonNull).collect(Collectors.toList());
 
         if (!removedMods.isEmpty()) {
             removedMods.forEach(mod -> LogManager.info("Mod no longer in filesystem: " + mod.file));
@@ -96,6 +96,8 @@ public class Settings {
     public boolean dontCheckModsOnCurseForge = false;
     public boolean dontCheckModsOnModrinth = false;
     public boolean scanModsOnLaunch = true;
+    public boolean useSharedModStore = false;
+    public boolean enableBackgroundModUpdateScanning = true;
 
     // Java/Minecraft
     public int maximumMemory = 4096;
@@ -112,6 +114,7 @@ public class Settings {
     public boolean disableLegacyLaunching = false;
     public boolean useSystemGlfw = false;
     public boolean useSystemOpenAl = false;
+    public boolean useClassDataSharing = false;
 
     // Environment Variables
     public Map<String, String> environmentVariables = new HashMap<>();
@@ -135,6 +138,8 @@ public class Settings {
     public String backupsPath = null;
     public boolean enableAutomaticBackupAfterLaunch = false;
     public BackupMode backupMode = BackupMode.NORMAL;
+    public boolean enableIncrementalBackups = false;
+    public int incrementalBackupsToKeep = 10;
 
     // Commands
     public boolean enableCommands = false;
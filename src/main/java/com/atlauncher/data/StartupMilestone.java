@@ -0,0 +1,63 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Well known points in the game log which mark how far along Minecraft is in starting up. Each is matched against the
+ * log line along with the name of the thread that logged it (if known), so that milestones which could otherwise be
+ * triggered by chat messages are only matched from the game's own logging.
+ */
+public enum StartupMilestone {
+    JVM_STARTED((line, thread) -> true),
+    LOADER_STARTED((line, thread) -> line.contains("ModLauncher running") || line.contains("with Fabric Loader")
+        || line.contains("with Quilt Loader") || line.contains("Forge Mod Loader version")),
+    MODS_LOADED((line, thread) -> line.contains("Injecting existing registry data into this CLIENT instance")
+        || line.contains("Forge Mod Loader has successfully loaded")
+        || Patterns.FABRIC_MODS_LOADED.matcher(line).find()),
+    MAIN_MENU((line, thread) -> line.contains("Sound engine started")),
+    // the client logs "Connecting to host, port" when joining a server, and the integrated server logs the player
+    // joining in singleplayer. Chat is logged with a [CHAT] marker, which is how other players joining shows up
+    WORLD_JOINED((line, thread) -> !line.contains("[CHAT]") && (Patterns.CONNECTING_TO_SERVER.matcher(line).find()
+        || ("Server thread".equals(thread) && Patterns.PLAYER_JOINED.matcher(line).find())));
+
+    private final BiPredicate<String, String> matcher;
+
+    StartupMilestone(BiPredicate<String, String> matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * Checks if the given log line marks this milestone.
+     *
+     * @param line   the line from the game log
+     * @param thread the name of the thread which logged the line, or null if it's not known
+     * @return true if the line marks this milestone
+     */
+    public boolean matches(String line, String thread) {
+        return matcher.test(line, thread);
+    }
+
+    private static class Patterns {
+        private static final Pattern FABRIC_MODS_LOADED = Pattern.compile("Loading \\d+ mods:");
+        private static final Pattern CONNECTING_TO_SERVER = Pattern.compile("Connecting to [^\\s,]+, \\d+");
+        private static final Pattern PLAYER_JOINED = Pattern.compile("\\S+ joined the game");
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.google.gson.JsonIOException;
+
+/**
+ * The history of how long an instance has taken to start up, kept across launches so that changes in startup time
+ * after an update or settings change can be spotted.
+ */
+public class StartupTimings {
+    private static final int MAX_LAUNCHES = 20;
+
+    private static final Map<UUID, StartupTimings> CACHE = new ConcurrentHashMap<>();
+
+    public List<Launch> launches = new ArrayList<>();
+
+    public static StartupTimings forInstance(Instance instance) {
+        return CACHE.computeIfAbsent(instance.getUUID(), uuid -> read(getPath(uuid)));
+    }
+
+    private static Path getPath(UUID uuid) {
+        return FileSystem.STARTUP_TIMINGS.resolve(uuid.toString() + ".json");
+    }
+
+    private static StartupTimings read(Path path) {
+        if (Files.exists(path)) {
+            try (InputStreamReader fileReader = new InputStreamReader(Files.newInputStream(path),
+                StandardCharsets.UTF_8)) {
+                StartupTimings timings = Gsons.DEFAULT.fromJson(fileReader, StartupTimings.class);
+
+                if (timings != null && timings.launches != null) {
+                    return timings;
+                }
+            } catch (Exception e) {
+                LogManager.logStackTrace("Exception reading startup timings", e, false);
+            }
+        }
+
+        return new StartupTimings();
+    }
+
+    /**
+     * Adds the given launch to the instances history, keeping only the most recent launches, and saves it.
+     *
+     * @param instance the instance that was launched
+     * @param launch   the timings of the launch
+     */
+    public static void add(Instance instance, Launch launch) {
+        StartupTimings timings = forInstance(instance);
+
+        synchronized (timings) {
+            timings.launches.add(launch);
+
+            while (timings.launches.size() > MAX_LAUNCHES) {
+                timings.launches.remove(0);
+            }
+
+            try (OutputStreamWriter fileWriter = new OutputStreamWriter(
+                Files.newOutputStream(getPath(instance.getUUID())), StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(timings, fileWriter);
+            } catch (JsonIOException | IOException e) {
+                LogManager.logStackTrace("Exception saving startup timings", e, false);
+            }
+        }
+    }
+
+    public static void delete(Instance instance) {
+        CACHE.remove(instance.getUUID());
+
+        try {
+            Files.deleteIfExists(getPath(instance.getUUID()));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception deleting startup timings", e, false);
+        }
+    }
+
+    public Launch getLatest() {
+        return launches.isEmpty() ? null : launches.get(launches.size() - 1);
+    }
+
+    /**
+     * Gets the average time taken to reach the given milestone over all launches before the latest one.
+     *
+     * @param milestone the milestone to get the average for
+     * @return the average time in milliseconds, if any previous launches reached it
+     */
+    public OptionalDouble getPreviousAverage(StartupMilestone milestone) {
+        if (launches.size() < 2) {
+            return OptionalDouble.empty();
+        }
+
+        return launches.subList(0, launches.size() - 1).stream().map(l -> l.get(milestone))
+            .filter(Objects::nonNull).mapToLong(Long::longValue).average();
+    }
+
+    /**
+     * The timings of a single launch, measured from when the game process was started.
+     */
+    public static class Launch {
+        /**
+         * Matches the thread name in plain log lines such as "[12:00:00] [Render thread/INFO]: ...".
+         */
+        private static final Pattern LOG_LINE_THREAD = Pattern.compile("^\\[[^\\]]*\\] \\[([^\\]/]+)/");
+
+        /**
+         * Matches the thread name in the opening tag of a log4j XML event.
+         */
+        private static final Pattern LOG4J_EVENT_THREAD = Pattern.compile("<log4j:Event [^>]*thread=\"([^\"]*)\"");
+
+        public Instant launchedAt;
+        public String version;
+        public Map<StartupMilestone, Long> milestones = new LinkedHashMap<>();
+
+        private transient long start;
+
+        /**
+         * The thread of the log4j XML event currently being read, as the message is on a different line to the thread.
+         */
+        private transient String eventThread;
+
+        public Launch() {
+        }
+
+        public Launch(String version) {
+            this.launchedAt = Instant.now();
+            this.version = version;
+            this.start = System.currentTimeMillis();
+        }
+
+        /**
+         * Checks the given line from the game log for any milestones not yet reached.
+         *
+         * @param line the line from the game log
+         * @return the milestones that were reached by this line, in order, which is empty if there were none
+         */
+        public List<StartupMilestone> check(String line) {
+            if (isComplete()) {
+                return Collections.emptyList();
+            }
+
+            String thread = getThread(line);
+
+            if (line.contains("</log4j:Event>")) {
+                eventThread = null;
+            }
+
+            // a single line can reach more than one milestone, such as the first line also being the loader starting
+            List<StartupMilestone> reached = new ArrayList<>();
+            long elapsed = System.currentTimeMillis() - start;
+
+            for (StartupMilestone milestone : StartupMilestone.values()) {
+                if (!milestones.containsKey(milestone) && milestone.matches(line, thread)) {
+                    milestones.put(milestone, elapsed);
+                    reached.add(milestone);
+                }
+            }
+
+            return reached;
+        }
+
+        private String getThread(String line) {
+            Matcher eventMatcher = LOG4J_EVENT_THREAD.matcher(line);
+            if (eventMatcher.find()) {
+                eventThread = eventMatcher.group(1);
+                return eventThread;
+            }
+
+            if (eventThread != null) {
+                return eventThread;
+            }
+
+            Matcher lineMatcher = LOG_LINE_THREAD.matcher(line);
+            return lineMatcher.find() ? lineMatcher.group(1) : null;
+        }
+
+        public boolean isComplete() {
+            return milestones.size() == StartupMilestone.values().length;
+        }
+
+        public Long get(StartupMilestone milestone) {
+            return milestones == null ? null : milestones.get(milestone);
+        }
+    }
+}
@@ -52,6 +52,7 @@ import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.ServerManager;
+import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.workers.InstanceInstaller;
 
@@ -291,11 +292,15 @@ public abstract class Installable {
                 }
 
                 if (this.curseForgeExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.curseForgeExtractedPath);
+                    ArchiveUtils.cleanupExtracted(this.curseForgeExtractedPath);
+                }
+
+                if (this.modrinthExtractedPath != null) {
+                    ArchiveUtils.cleanupExtracted(this.modrinthExtractedPath);
                 }
 
                 if (this.multiMCExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.multiMCExtractedPath);
+                    ArchiveUtils.cleanupExtracted(this.multiMCExtractedPath);
                 }
 
                 if (this.technicModpackExtractedPath != null) {
@@ -20,6 +20,7 @@ package com.atlauncher.data.json;
 import java.awt.Color;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.mini2Dx.gettext.GetText;
@@ -34,6 +35,7 @@ import com.atlauncher.data.modrinth.ModrinthProject;
 import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -704,13 +706,13 @@ public class Mod {
                 if (!installer.root.resolve("texturepacks").toFile().exists()) {
                     installer.root.resolve("texturepacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("texturepacks").toFile());
+                installFile(fileLocation, installer.root.resolve("texturepacks"));
                 break;
             case resourcepack:
                 if (!installer.root.resolve("resourcepacks").toFile().exists()) {
                     installer.root.resolve("resourcepacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("resourcepacks").toFile());
+                installFile(fileLocation, installer.root.resolve("resourcepacks"));
                 break;
             case texturepackextract:
                 if (!installer.root.resolve("texturepacks").toFile().exists()) {
@@ -744,16 +746,16 @@ public class Mod {
                         installer.root.resolve(path).toFile().mkdirs();
                     }
 
-                    Utils.copyFile(fileLocation, installer.root.resolve(path).toFile());
+                    installFile(fileLocation, installer.root.resolve(path));
                 } else {
-                    Utils.copyFile(fileLocation, installer.root.resolve("mods").toFile());
+                    installFile(fileLocation, installer.root.resolve("mods"));
                 }
                 break;
             case ic2lib:
                 if (!installer.root.resolve("mods/ic2").toFile().exists()) {
                     installer.root.resolve("mods/ic2").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/ic2").toFile());
+                installFile(fileLocation, installer.root.resolve("mods/ic2"));
                 break;
             case flan:
                 if (!installer.root.resolve("Flan").toFile().exists()) {
@@ -765,14 +767,14 @@ public class Mod {
                 if (!installer.root.resolve("mods/denlib").toFile().exists()) {
                     installer.root.resolve("mods/denlib").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/denlib").toFile());
+                installFile(fileLocation, installer.root.resolve("mods/denlib"));
                 break;
             case depandency:
             case dependency:
                 if (!installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile().exists()) {
                     installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile().mkdirs();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile());
+                installFile(fileLocation, installer.root.resolve("mods/" + installer.minecraftVersion.id));
                 break;
             case plugins:
                 if (!installer.root.resolve("plugins").toFile().exists()) {
@@ -790,7 +792,7 @@ public class Mod {
                 if (!installer.root.resolve("shaderpacks").toFile().exists()) {
                     installer.root.resolve("shaderpacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("shaderpacks").toFile());
+                installFile(fileLocation, installer.root.resolve("shaderpacks"));
                 break;
             case extract:
                 File tempDirExtract = FileSystem.TEMP.resolve(getSafeName()).toFile();
@@ -873,6 +875,10 @@ public class Mod {
         }
     }
 
+    private void installFile(File fileLocation, Path directory) {
+        ModStoreManager.installFile(fileLocation.toPath(), directory.resolve(fileLocation.getName()));
+    }
+
     public File getInstalledFile(InstanceInstaller installer) {
         ModType thisType;
         String file;
@@ -291,7 +291,7 @@ public class Version {
     public List<Mod> getInstallMods(InstanceInstaller instanceInstaller, boolean client) {
         return this.mods.stream().filter(client ? Mod::installOnClient : Mod::installOnServer).map(mod -> {
             if (instanceInstaller.isReinstall) {
-                Optional<DisableableMod> matchingMod = instanceInstaller.instance.launcher.mods.parallelStream()
+                Optional<DisableableMod> matchingMod = instanceInstaller.instance.launcher.mods.stream()
                         .filter(dm -> dm.file.equals(mod.file)).findFirst();
 
                 if (matchingMod.isPresent() && matchingMod.get().hasFullCurseForgeInformation()) {
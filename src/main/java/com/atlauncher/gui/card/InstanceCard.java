@@ -24,11 +24,20 @@ import java.awt.FlowLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
+import javax.swing.JLabel;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
@@ -43,22 +52,34 @@ import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.BackupMode;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.StartupMilestone;
+import com.atlauncher.data.StartupTimings;
 import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.gui.components.CollapsiblePanel;
 import com.atlauncher.gui.components.DropDownButton;
 import com.atlauncher.gui.components.ImagePanel;
 import com.atlauncher.gui.dialogs.AddModsDialog;
+import com.atlauncher.gui.dialogs.DiskUsageDialog;
 import com.atlauncher.gui.dialogs.EditModsDialog;
 import com.atlauncher.gui.dialogs.InstanceExportDialog;
 import com.atlauncher.gui.dialogs.InstanceSettingsDialog;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.BackupManager;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.managers.DiskUsageManager;
 import com.atlauncher.managers.InstanceManager;
+import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.analytics.AnalyticsEvent;
+import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.OS;
+import com.gitlab.doomsdayrs.lib.rxswing.schedulers.SwingSchedulers;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 /**
  * <p/>
@@ -67,6 +88,8 @@ import com.atlauncher.utils.OS;
 public class InstanceCard extends CollapsiblePanel {
     private final Instance instance;
     private final JTextArea descArea = new JTextArea();
+    private final JLabel playStatsLabel = new JLabel();
+    private final JLabel diskUsageLabel = new JLabel();
     private final ImagePanel image;
     private final JButton updateButton = new JButton(GetText.tr("Update"));
     private final JButton deleteButton = new JButton(GetText.tr("Delete"));
@@ -91,6 +114,7 @@ public class InstanceCard extends CollapsiblePanel {
     private final JPopupMenu playPopupMenu = new JPopupMenu();
     private final JMenuItem playOnlinePlayMenuItem = new JMenuItem(GetText.tr("Play Online"));
     private final JMenuItem playOfflinePlayMenuItem = new JMenuItem(GetText.tr("Play Offline"));
+    private final JMenuItem verifyAndPlayMenuItem = new JMenuItem(GetText.tr("Verify Files & Play"));
     private final DropDownButton playButton = new DropDownButton(GetText.tr("Play"), playPopupMenu, true,
             new MouseAdapter() {
                 @Override
@@ -103,6 +127,7 @@ public class InstanceCard extends CollapsiblePanel {
     private final JMenuItem normalBackupMenuItem = new JMenuItem(GetText.tr("Normal Backup"));
     private final JMenuItem normalPlusModsBackupMenuItem = new JMenuItem(GetText.tr("Normal + Mods Backup"));
     private final JMenuItem fullBackupMenuItem = new JMenuItem(GetText.tr("Full Backup"));
+    private final JMenuItem restoreBackupMenuItem = new JMenuItem(GetText.tr("Restore Backup"));
     private final DropDownButton backupButton = new DropDownButton(GetText.tr("Backup"), backupPopupMenu);
 
     private final JPopupMenu getHelpPopupMenu = new JPopupMenu();
@@ -155,6 +180,10 @@ public class InstanceCard extends CollapsiblePanel {
 
     private final boolean hasUpdate;
 
+    private Disposable diskUsageDisposable = null;
+    private Disposable startupTimingsDisposable = null;
+    private Disposable hasBackupsDisposable = null;
+
     public InstanceCard(Instance instance, boolean hasUpdate, String instanceTitleFormat) {
         super(instance, instanceTitleFormat);
         this.instance = instance;
@@ -251,6 +280,17 @@ public class InstanceCard extends CollapsiblePanel {
                 JScrollPane.HORIZONTAL_SCROLLBAR_NEVER), BorderLayout.CENTER);
         rightPanel.add(as, BorderLayout.SOUTH);
 
+        JPanel statsPanel = new JPanel(new BorderLayout());
+        if (instance.getNumberOfPlays() != 0) {
+            // the startup timings are added once they've been read in the background
+            setupPlayStats(null);
+            statsPanel.add(this.playStatsLabel, BorderLayout.CENTER);
+        }
+        this.diskUsageLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 5, 5));
+        this.diskUsageLabel.setVisible(false);
+        statsPanel.add(this.diskUsageLabel, BorderLayout.EAST);
+        rightPanel.add(statsPanel, BorderLayout.NORTH);
+
         this.getContentPane().setLayout(new BorderLayout());
         this.getContentPane().add(splitter, BorderLayout.CENTER);
 
@@ -262,12 +302,160 @@ public class InstanceCard extends CollapsiblePanel {
         this.addMouseListeners();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        if (diskUsageDisposable == null) {
+            diskUsageDisposable = DiskUsageManager.getObservable(instance).observeOn(SwingSchedulers.edt())
+                    .subscribe(this::setDiskUsage);
+            DiskUsageManager.scanInBackground();
+        }
+
+        if (startupTimingsDisposable == null && instance.getNumberOfPlays() != 0) {
+            startupTimingsDisposable = Single.fromCallable(() -> StartupTimings.forInstance(instance))
+                    .subscribeOn(Schedulers.io()).observeOn(SwingSchedulers.edt())
+                    .subscribe(this::setupPlayStats,
+                            e -> LogManager.logStackTrace("Failed to read startup timings", e, false));
+        }
+
+        // with incremental backups turned off, restoring is only offered for instances which already have some
+        if (hasBackupsDisposable == null && !App.settings.enableIncrementalBackups) {
+            hasBackupsDisposable = Single.fromCallable(() -> BackupManager.hasBackups(instance))
+                    .subscribeOn(Schedulers.io()).observeOn(SwingSchedulers.edt())
+                    .subscribe(hasBackups -> {
+                        if (hasBackups) {
+                            addRestoreBackupMenuItem();
+                        }
+                    }, e -> LogManager.logStackTrace("Failed to check for backups", e, false));
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+
+        if (diskUsageDisposable != null) {
+            diskUsageDisposable.dispose();
+            diskUsageDisposable = null;
+        }
+
+        if (startupTimingsDisposable != null) {
+            startupTimingsDisposable.dispose();
+            startupTimingsDisposable = null;
+        }
+
+        if (hasBackupsDisposable != null) {
+            hasBackupsDisposable.dispose();
+            hasBackupsDisposable = null;
+        }
+    }
+
+    private void setDiskUsage(Optional<DiskUsageManager.Usage> usage) {
+        if (!usage.isPresent()) {
+            diskUsageLabel.setVisible(false);
+            return;
+        }
+
+        DiskUsageManager.Usage diskUsage = usage.get();
+        diskUsageLabel.setText(FileUtils.formatSize(diskUsage.totalBytes));
+
+        // #. {0} is the amount of disk space that would be freed
+        StringBuilder tooltip = new StringBuilder(GetText.tr("{0} would be freed by deleting this instance",
+                FileUtils.formatSize(diskUsage.freedOnDelete)));
+        for (Map.Entry<String, Long> entry : diskUsage.breakdown.entrySet()) {
+            if (entry.getValue() != 0L) {
+                tooltip.append("<br/>").append(entry.getKey().isEmpty() ? GetText.tr("Other Files") : entry.getKey())
+                        .append(": ").append(FileUtils.formatSize(entry.getValue()));
+            }
+        }
+        diskUsageLabel.setToolTipText(new HTMLBuilder().text(tooltip.toString()).build());
+        diskUsageLabel.setVisible(true);
+    }
+
+    private void setupPlayStats(StartupTimings startupTimings) {
+        StringBuilder stats = new StringBuilder();
+        // #. {0} is the number of times the instance has been played
+        stats.append(GetText.tr("Played {0} times", instance.getNumberOfPlays()));
+
+        if (!instance.getLastPlayedOrEpoch().equals(Instant.EPOCH)) {
+            // #. {0} is the date the instance was last played
+            stats.append(", ").append(GetText.tr("last played {0}",
+                    DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM)
+                            .format(instance.getLastPlayedOrEpoch().atZone(ZoneId.systemDefault()))));
+        }
+
+        StartupTimings.Launch latest = startupTimings == null ? null : startupTimings.getLatest();
+
+        if (latest != null && latest.get(StartupMilestone.MAIN_MENU) != null) {
+            long mainMenu = latest.get(StartupMilestone.MAIN_MENU);
+            // #. {0} is the number of seconds it took the game to reach the main menu
+            stats.append(" - ").append(GetText.tr("Started in {0}s", formatSeconds(mainMenu)));
+
+            OptionalDouble average = startupTimings.getPreviousAverage(StartupMilestone.MAIN_MENU);
+            if (average.isPresent()) {
+                long difference = mainMenu - (long) average.getAsDouble();
+
+                if (difference >= 0) {
+                    // #. {0} is the number of seconds slower than the average startup time
+                    stats.append(" (").append(GetText.tr("{0}s slower than average", formatSeconds(difference)))
+                            .append(")");
+                } else {
+                    // #. {0} is the number of seconds faster than the average startup time
+                    stats.append(" (").append(GetText.tr("{0}s faster than average", formatSeconds(-difference)))
+                            .append(")");
+                }
+            }
+        }
+
+        playStatsLabel.setText(stats.toString());
+        playStatsLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 5, 5));
+
+        if (latest != null) {
+            StringBuilder tooltip = new StringBuilder(GetText.tr("Last launch") + ":");
+            for (StartupMilestone milestone : StartupMilestone.values()) {
+                if (latest.get(milestone) != null) {
+                    tooltip.append("<br/>").append(getMilestoneName(milestone)).append(": ")
+                            .append(formatSeconds(latest.get(milestone))).append("s");
+                }
+            }
+            playStatsLabel.setToolTipText(new HTMLBuilder().text(tooltip.toString()).build());
+        }
+    }
+
+    private String getMilestoneName(StartupMilestone milestone) {
+        switch (milestone) {
+            case JVM_STARTED:
+                return GetText.tr("Java started");
+            case LOADER_STARTED:
+                return GetText.tr("Loader started");
+            case MODS_LOADED:
+                return GetText.tr("Mods loaded");
+            case MAIN_MENU:
+                return GetText.tr("Main menu");
+            case WORLD_JOINED:
+                return GetText.tr("World joined");
+            default:
+                return milestone.name();
+        }
+    }
+
+    private String formatSeconds(long millis) {
+        return String.format(Locale.ENGLISH, "%.1f", millis / 1000.0);
+    }
+
     private void setupPlayPopupMenus() {
         playOnlinePlayMenuItem.addActionListener(e -> play(false));
         playPopupMenu.add(playOnlinePlayMenuItem);
 
         playOfflinePlayMenuItem.addActionListener(e -> play(true));
         playPopupMenu.add(playOfflinePlayMenuItem);
+
+        verifyAndPlayMenuItem.addActionListener(e -> {
+            instance.clearLaunchFingerprint();
+            play(false);
+        });
+        playPopupMenu.add(verifyAndPlayMenuItem);
     }
 
     private void setupOpenPopupMenus() {
@@ -322,9 +510,23 @@ public class InstanceCard extends CollapsiblePanel {
         fullBackupMenuItem.addActionListener(e -> instance.backup(BackupMode.FULL));
         backupPopupMenu.add(fullBackupMenuItem);
 
+        restoreBackupMenuItem.addActionListener(e -> instance.startRestoreBackup());
+        if (App.settings.enableIncrementalBackups) {
+            addRestoreBackupMenuItem();
+        }
+
         setupEditInstanceButton();
     }
 
+    private void addRestoreBackupMenuItem() {
+        if (restoreBackupMenuItem.getParent() == backupPopupMenu) {
+            return;
+        }
+
+        backupPopupMenu.addSeparator();
+        backupPopupMenu.add(restoreBackupMenuItem);
+    }
+
     private void setupEditInstanceButton() {
         editInstancePopupMenu.add(reinstallMenuItem);
         editInstancePopupMenu.add(cloneMenuItem);
@@ -680,6 +882,10 @@ public class InstanceCard extends CollapsiblePanel {
                     JMenuItem cloneItem = new JMenuItem(GetText.tr("Clone"));
                     cloneItem.addActionListener(l -> instance.startClone());
                     rightClickMenu.add(cloneItem);
+
+                    JMenuItem diskUsageItem = new JMenuItem(GetText.tr("Disk Usage"));
+                    diskUsageItem.addActionListener(l -> new DiskUsageDialog().setVisible(true));
+                    rightClickMenu.add(diskUsageItem);
                     rightClickMenu.show(image, e.getX(), e.getY());
                 }
             }
@@ -240,7 +240,7 @@ public class CurseForgeProjectFileSelectorDialog extends JDialog {
                             && dependency.modId == Constants.CURSEFORGE_FABRIC_MOD_ID) {
                             // if on Quilt and the dependency is Fabric API, then don't show it if user
                             // already has QSL installed
-                            return instanceOrServer.getMods().parallelStream().anyMatch(m -> m.isFromModrinth()
+                            return instanceOrServer.getMods().stream().anyMatch(m -> m.isFromModrinth()
                                 && m.modrinthProject.id.equals(Constants.MODRINTH_QSL_MOD_ID));
                         }
 
@@ -0,0 +1,182 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.gui.dialogs;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import org.mini2Dx.gettext.GetText;
+
+import com.atlauncher.App;
+import com.atlauncher.data.Instance;
+import com.atlauncher.managers.DiskUsageManager;
+import com.atlauncher.managers.InstanceManager;
+import com.atlauncher.network.Analytics;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Utils;
+
+/**
+ * Shows how much disk space each instance, and the folders shared between instances, take up.
+ */
+public class DiskUsageDialog extends JDialog {
+    private final JLabel totalLabel = new JLabel();
+
+    private DefaultTableModel tableModel;
+
+    public DiskUsageDialog() {
+        this(App.launcher.getParent());
+    }
+
+    public DiskUsageDialog(Window parent) {
+        super(parent, GetText.tr("Disk Usage"), ModalityType.DOCUMENT_MODAL);
+
+        Analytics.sendScreenView("Disk Usage Dialog");
+
+        setSize(750, 450);
+        setLocationRelativeTo(parent);
+        setLayout(new BorderLayout());
+        setIconImage(Utils.getImage("/assets/image/icon.png"));
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        setupComponents();
+
+        if (instancesMissingUsage()) {
+            refresh(false);
+        } else {
+            loadUsage();
+        }
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent arg0) {
+                close();
+            }
+        });
+    }
+
+    private void setupComponents() {
+        // Top Panel Stuff
+        JPanel top = new JPanel();
+        top.add(new JLabel(GetText.tr("Disk Usage")));
+
+        // Middle Panel Stuff
+        tableModel = new DefaultTableModel(new Object[] { GetText.tr("Name"), GetText.tr("Size"),
+                GetText.tr("Worlds"), GetText.tr("Mods"), GetText.tr("Freed If Deleted") }, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        JTable table = new JTable(tableModel);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setToolTipText(GetText.tr(
+                "Files shared between instances count towards the size of each of them, but are only freed once every instance using them is deleted."));
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+
+        // Bottom Panel Stuff
+        JPanel bottom = new JPanel();
+        bottom.setLayout(new FlowLayout());
+        bottom.add(totalLabel);
+
+        JButton refreshButton = new JButton(GetText.tr("Refresh"));
+        refreshButton.addActionListener(e -> refresh(true));
+        bottom.add(refreshButton);
+
+        JButton closeButton = new JButton(GetText.tr("Close"));
+        closeButton.addActionListener(e -> close());
+        bottom.add(closeButton);
+
+        add(top, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    private boolean instancesMissingUsage() {
+        return InstanceManager.getInstances().stream().anyMatch(i -> DiskUsageManager.getUsage(i) == null);
+    }
+
+    private void refresh(boolean force) {
+        final ProgressDialog<Void> dialog = new ProgressDialog<>(GetText.tr("Disk Usage"), 0,
+                GetText.tr("Calculating Disk Usage"), "Disk usage scan cancelled!", isVisible() ? this : getOwner());
+
+        dialog.addThread(new Thread(() -> {
+            DiskUsageManager.scan(force);
+            dialog.close();
+        }));
+
+        dialog.start();
+
+        loadUsage();
+    }
+
+    private void loadUsage() {
+        tableModel.setRowCount(0);
+
+        long total = 0L;
+
+        List<Instance> instances = InstanceManager.getInstances();
+        for (Instance instance : instances) {
+            DiskUsageManager.Usage usage = DiskUsageManager.getUsage(instance);
+            if (usage == null) {
+                continue;
+            }
+
+            // files shared with other instances are counted by whichever folder they're freed from
+            total += usage.freedOnDelete;
+            tableModel.addRow(new Object[] { instance.launcher.name, FileUtils.formatSize(usage.totalBytes),
+                    FileUtils.formatSize(usage.getBreakdown("saves")),
+                    FileUtils.formatSize(usage.getBreakdown("mods", "disabledmods", "coremods", "jarmods")),
+                    FileUtils.formatSize(usage.freedOnDelete) });
+        }
+
+        for (Map.Entry<Path, DiskUsageManager.Usage> entry : DiskUsageManager.getSharedUsage().entrySet()) {
+            DiskUsageManager.Usage usage = entry.getValue();
+
+            total += usage.totalBytes;
+            // #. {0} is the name of the shared folder (such as libraries or assets)
+            tableModel.addRow(new Object[] { GetText.tr("Shared {0}", entry.getKey().getFileName().toString()),
+                    FileUtils.formatSize(usage.totalBytes), "-", "-", "-" });
+        }
+
+        // #. {0} is the total size used on disk (e.g. 10 GB)
+        totalLabel.setText(GetText.tr("Total: {0}", FileUtils.formatSize(total)));
+    }
+
+    private void close() {
+        setVisible(false);
+        dispose();
+    }
+}
@@ -524,10 +524,10 @@ public class EditModsDialog extends JDialog {
 
             List<ModsJCheckBox> modsToRefresh = new ArrayList<>();
             modsToRefresh
-                    .addAll(enabledMods.parallelStream().filter(ModsJCheckBox::isSelected)
+                    .addAll(enabledMods.stream().filter(ModsJCheckBox::isSelected)
                             .collect(Collectors.toList()));
             modsToRefresh
-                    .addAll(disabledMods.parallelStream().filter(ModsJCheckBox::isSelected)
+                    .addAll(disabledMods.stream().filter(ModsJCheckBox::isSelected)
                             .collect(Collectors.toList()));
 
             // TODO: Generalise this, cause fuck me I've copy pasted this like 10 times now
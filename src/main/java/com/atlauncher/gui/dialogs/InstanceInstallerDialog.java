@@ -108,6 +108,7 @@ import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.NetworkClient;
+import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.FTBApi;
@@ -421,7 +422,14 @@ public class InstanceInstallerDialog extends JDialog {
             }
         });
         JButton cancel = new JButton(GetText.tr("Cancel"));
-        cancel.addActionListener(e -> dispose());
+        cancel.addActionListener(e -> {
+            // nothing is going to be installed from the imported pack, so release it
+            if (extractedPath != null) {
+                ArchiveUtils.cleanupExtracted(extractedPath);
+            }
+
+            dispose();
+        });
         bottom.add(install);
         bottom.add(cancel);
 
@@ -477,7 +485,14 @@ public class InstanceInstallerDialog extends JDialog {
                                     .filter(sf -> sf.serverPackFileId != null)
                                     .filter(sf -> sf.serverPackFileId == f.id).findFirst();
 
-                                matchingFile.ifPresent(curseForgeFile -> f.gameVersions = curseForgeFile.gameVersions);
+                                if (matchingFile.isPresent()) {
+                                    // files are shared through the response cache, so change a copy of it
+                                    CurseForgeFile serverFile = Gsons.DEFAULT.fromJson(Gsons.DEFAULT.toJson(f),
+                                        CurseForgeFile.class);
+                                    serverFile.gameVersions = matchingFile.get().gameVersions;
+
+                                    return serverFile;
+                                }
                             }
 
                             return f;
@@ -26,6 +26,7 @@ import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -43,6 +44,7 @@ import javax.swing.JTextField;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.Border;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
@@ -59,6 +61,8 @@ import com.atlauncher.data.Instance;
 import com.atlauncher.data.minecraft.JavaRuntime;
 import com.atlauncher.gui.components.JLabelWithHover;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.mclauncher.JvmTuningProfile;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
@@ -70,6 +74,9 @@ public class JavaInstanceSettingsTab extends JPanel {
     private final Instance instance;
 
     private JSpinner maximumMemory;
+    private JComboBox<ComboItem<String>> jvmTuningProfile;
+    private JTextArea jvmTuningProfileFlags;
+    private SwingWorker<String, Void> jvmTuningProfileWorker;
     private JSpinner permGen;
     private JTextField javaPath;
     private JTextArea javaParameters;
@@ -126,6 +133,49 @@ public class JavaInstanceSettingsTab extends JPanel {
         ((JSpinner.DefaultEditor) maximumMemory.getEditor()).getTextField().setColumns(5);
         add(maximumMemory, gbc);
 
+        // JVM Tuning Profile
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover jvmTuningProfileLabel = new JLabelWithHover(GetText.tr("JVM Tuning Profile") + ":",
+            HELP_ICON,
+            new HTMLBuilder().center().split(100).text(GetText.tr(
+                "When set to Auto, the memory and garbage collector settings are worked out from your system, the Java version and the mods in this instance, replacing any conflicting Java Parameters."))
+                .build());
+        add(jvmTuningProfileLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.FIRST_LINE_START;
+        jvmTuningProfile = new JComboBox<>();
+        jvmTuningProfile.addItem(new ComboItem<>(null, GetText.tr("Manual")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.AUTO, GetText.tr("Auto")));
+        jvmTuningProfile.setSelectedIndex(JvmTuningProfile.isEnabled(instance) ? 1 : 0);
+        add(jvmTuningProfile, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        add(new JLabel(GetText.tr("Auto Flags") + ":"), gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        jvmTuningProfileFlags = new JTextArea(2, 40);
+        jvmTuningProfileFlags.setEditable(false);
+        jvmTuningProfileFlags.setLineWrap(true);
+        jvmTuningProfileFlags.setWrapStyleWord(true);
+        add(jvmTuningProfileFlags, gbc);
+
+        jvmTuningProfile.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED) {
+                updateJvmTuningProfile();
+            }
+        });
+        updateJvmTuningProfile();
+
         // Perm Gen Settings
         gbc.gridx = 0;
         gbc.gridy++;
@@ -546,6 +596,47 @@ public class JavaInstanceSettingsTab extends JPanel {
         add(useSystemOpenAl, gbc);
     }
 
+    private void updateJvmTuningProfile() {
+        boolean auto = jvmTuningProfile.getSelectedIndex() == 1;
+
+        maximumMemory.setEnabled(!auto);
+        jvmTuningProfileFlags.setEnabled(auto);
+
+        if (jvmTuningProfileWorker != null) {
+            jvmTuningProfileWorker.cancel(false);
+            jvmTuningProfileWorker = null;
+        }
+
+        if (!auto) {
+            jvmTuningProfileFlags.setText("");
+            return;
+        }
+
+        // working out the profile looks through the instances mods and the system, so keep it off the EDT
+        jvmTuningProfileFlags.setText(GetText.tr("Loading..."));
+        jvmTuningProfileWorker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return String.join(" ", JvmTuningProfile.compute(instance).getArguments());
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+
+                try {
+                    jvmTuningProfileFlags.setText(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    LogManager.logStackTrace("Failed to work out the JVM tuning profile", e, false);
+                    jvmTuningProfileFlags.setText("");
+                }
+            }
+        };
+        jvmTuningProfileWorker.execute();
+    }
+
     private Integer getIfNotNull(Integer value, Integer defaultValue) {
         if (value != null) {
             return value;
@@ -597,6 +688,7 @@ public class JavaInstanceSettingsTab extends JPanel {
         Boolean disableLegacyLaunchingVal = ((ComboItem<Boolean>) disableLegacyLaunching.getSelectedItem()).getValue();
         Boolean useSystemGlfwVal = ((ComboItem<Boolean>) useSystemGlfw.getSelectedItem()).getValue();
         Boolean useSystemOpenAlVal = ((ComboItem<Boolean>) useSystemOpenAl.getSelectedItem()).getValue();
+        String jvmTuningProfileVal = ((ComboItem<String>) jvmTuningProfile.getSelectedItem()).getValue();
 
         this.instance.launcher.maximumMemory = (maximumMemory == App.settings.maximumMemory ? null : maximumMemory);
         this.instance.launcher.permGen = (permGen == App.settings.metaspace ? null : permGen);
@@ -616,5 +708,6 @@ public class JavaInstanceSettingsTab extends JPanel {
         this.instance.launcher.javaRuntimeOverride = javaRuntimeOverrideVal;
         this.instance.launcher.useSystemGlfw = useSystemGlfwVal;
         this.instance.launcher.useSystemOpenAl = useSystemOpenAlVal;
+        this.instance.launcher.jvmTuningProfile = jvmTuningProfileVal;
     }
 }
@@ -29,7 +29,9 @@ import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JPanel;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -162,6 +164,49 @@ public class BackupsSettingsTab extends AbstractSettingsTab {
                 .addItemListener(e -> viewModel.setEnableAutoBackup(e.getStateChange() == ItemEvent.SELECTED));
         addDisposable(viewModel.getEnableAutoBackup().subscribe(enableAutomaticBackupAfterLaunch::setSelected));
         add(enableAutomaticBackupAfterLaunch, gbc);
+
+        // Enable incremental backups
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover enableIncrementalBackupsLabel = new JLabelWithHover(
+                GetText.tr("Enable Incremental Backups") + "?", HELP_ICON,
+                new HTMLBuilder().center().split(100).text(GetText.tr(
+                        "Instead of creating a new zip file every time, only store what has changed since the last backup. Files are shared between all backups of all instances, so backups are much faster and take up much less space. Incremental backups can be restored from the Backup button on the instance."))
+                        .build());
+        add(enableIncrementalBackupsLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JCheckBox enableIncrementalBackups = new JCheckBox();
+        enableIncrementalBackups.addItemListener(
+                e -> viewModel.setEnableIncrementalBackups(e.getStateChange() == ItemEvent.SELECTED));
+        addDisposable(viewModel.getEnableIncrementalBackups().subscribe(enableIncrementalBackups::setSelected));
+        add(enableIncrementalBackups, gbc);
+
+        // Incremental backups to keep
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover incrementalBackupsToKeepLabel = new JLabelWithHover(
+                GetText.tr("Incremental Backups To Keep") + ":", HELP_ICON,
+                GetText.tr("How many incremental backups to keep for each instance before removing the oldest."));
+        add(incrementalBackupsToKeepLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JSpinner incrementalBackupsToKeep = new JSpinner(new SpinnerNumberModel(10, 1, 1000, 1));
+        ((JSpinner.DefaultEditor) incrementalBackupsToKeep.getEditor()).getTextField().setColumns(5);
+        incrementalBackupsToKeep.addChangeListener(
+                e -> viewModel.setIncrementalBackupsToKeep((Integer) incrementalBackupsToKeep.getValue()));
+        addDisposable(viewModel.getIncrementalBackupsToKeep().subscribe(incrementalBackupsToKeep::setValue));
+        add(incrementalBackupsToKeep, gbc);
     }
 
     private void showBackupsPathWarning() {
@@ -589,6 +589,28 @@ public class JavaSettingsTab extends AbstractSettingsTab {
             itemEvent -> viewModel.setSystemOpenAL(itemEvent.getStateChange() == ItemEvent.SELECTED));
         addDisposable(viewModel.getSystemOpenAL().subscribe(useSystemOpenAl::setSelected));
         add(useSystemOpenAl, gbc);
+
+        // Use Class Data Sharing
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover useClassDataSharingLabel = new JLabelWithHover(GetText.tr("Use Class Data Sharing") + "?",
+            HELP_ICON,
+            new HTMLBuilder().center().text(GetText.tr(
+                    "This records the classes Minecraft loads the first time an instance is played, and reuses them on later launches to start faster.<br/><br/>This only works with the Java runtimes provided by Minecraft for Java 13 and newer."))
+                .build());
+        add(useClassDataSharingLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JCheckBox useClassDataSharing = new JCheckBox();
+        useClassDataSharing.addItemListener(
+            itemEvent -> viewModel.setClassDataSharing(itemEvent.getStateChange() == ItemEvent.SELECTED));
+        addDisposable(viewModel.getClassDataSharing().subscribe(useClassDataSharing::setSelected));
+        add(useClassDataSharing, gbc);
     }
 
     private void showJavaPathWarning() {
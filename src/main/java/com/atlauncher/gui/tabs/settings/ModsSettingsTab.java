@@ -33,6 +33,7 @@ import com.atlauncher.data.InstanceExportFormat;
 import com.atlauncher.data.ModPlatform;
 import com.atlauncher.gui.components.JLabelWithHover;
 import com.atlauncher.utils.ComboItem;
+import com.atlauncher.utils.OS;
 import com.atlauncher.viewmodel.impl.settings.ModsSettingsViewModel;
 
 public class ModsSettingsTab extends AbstractSettingsTab {
@@ -283,6 +284,52 @@ public class ModsSettingsTab extends AbstractSettingsTab {
         scanModsOnLaunch.addItemListener(e -> viewModel.setScanModsOnLaunch(e.getStateChange() == ItemEvent.SELECTED));
         addDisposable(viewModel.getScanModsOnLaunch().subscribe(scanModsOnLaunch::setSelected));
         add(scanModsOnLaunch, gbc);
+
+        // Enable background mod update scanning
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover enableBackgroundModUpdateScanningLabel = new JLabelWithHover(
+                GetText.tr("Check For Mod Updates In The Background?"), HELP_ICON,
+                new HTMLBuilder().center().split(100)
+                        .text(GetText.tr(
+                                "This will periodically check the mods in your instances for updates on CurseForge and Modrinth while the launcher is open, so that instances with mod updates available can be shown."))
+                        .build());
+        add(enableBackgroundModUpdateScanningLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JCheckBox enableBackgroundModUpdateScanning = new JCheckBox();
+        enableBackgroundModUpdateScanning.addItemListener(
+                e -> viewModel.setEnableBackgroundModUpdateScanning(e.getStateChange() == ItemEvent.SELECTED));
+        addDisposable(viewModel.getEnableBackgroundModUpdateScanning()
+                .subscribe(enableBackgroundModUpdateScanning::setSelected));
+        add(enableBackgroundModUpdateScanning, gbc);
+
+        // Use shared mod store (not available on Windows, see ModStoreManager)
+        if (!OS.isWindows()) {
+            gbc.gridx = 0;
+            gbc.gridy++;
+            gbc.insets = UIConstants.LABEL_INSETS;
+            gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+            JLabelWithHover useSharedModStoreLabel = new JLabelWithHover(
+                    GetText.tr("Share Mod Files Between Instances?"), HELP_ICON, new HTMLBuilder().center().split(100)
+                            .text(GetText.tr(
+                                    "This will store each mod, resource pack and shader pack once and link it into every instance that uses it, rather than keeping a separate copy in each instance. This is only used when the filesystem supports hard links."))
+                            .build());
+            add(useSharedModStoreLabel, gbc);
+
+            gbc.gridx++;
+            gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+            gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+            JCheckBox useSharedModStore = new JCheckBox();
+            useSharedModStore.addItemListener(
+                    e -> viewModel.setUseSharedModStore(e.getStateChange() == ItemEvent.SELECTED));
+            addDisposable(viewModel.getUseSharedModStore().subscribe(useSharedModStore::setSelected));
+            add(useSharedModStore, gbc);
+        }
     }
 
     @Override
@@ -0,0 +1,102 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.gui.tabs.tools;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Locale;
+
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+
+import org.mini2Dx.gettext.GetText;
+
+import com.atlauncher.builders.HTMLBuilder;
+import com.atlauncher.gui.dialogs.ProgressDialog;
+import com.atlauncher.managers.DeduplicationManager;
+import com.atlauncher.managers.DialogManager;
+
+public class DeduplicationToolPanel extends AbstractToolPanel implements ActionListener {
+
+    private final ToolsViewModel viewModel;
+
+    private final JCheckBox dryRun = new JCheckBox(GetText.tr("Dry Run"), true);
+
+    public DeduplicationToolPanel(ToolsViewModel viewModel) {
+        super(GetText.tr("Duplicate File Linker"));
+        this.viewModel = viewModel;
+        JLabel INFO_LABEL = new JLabel(new HTMLBuilder().center().split(70).text(GetText.tr(
+                "This tool finds mods, resource packs and shader packs duplicated across your instances and downloads, and replaces the duplicates with links to a single copy. Use a dry run to see how much space can be saved without changing anything."))
+                .build());
+        MIDDLE_PANEL.add(INFO_LABEL);
+        BOTTOM_PANEL.add(dryRun);
+        BOTTOM_PANEL.add(LAUNCH_BUTTON);
+        LAUNCH_BUTTON.addActionListener(this);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        final boolean isDryRun = dryRun.isSelected();
+        final ProgressDialog<DeduplicationManager.Result> dialog = new ProgressDialog<>(
+                GetText.tr("Duplicate File Linker"), 0, GetText.tr("Scanning For Duplicate Files"),
+                "Duplicate File Linker Tool Cancelled!");
+
+        dialog.addThread(new Thread(() -> {
+            dialog.setReturnValue(viewModel.deduplicateFiles(isDryRun, (bytesHashed, totalBytesToHash,
+                    bytesPerSecond) -> dialog.setSubProgress(
+                            totalBytesToHash == 0L ? 0.0 : (bytesHashed * 100.0) / totalBytesToHash,
+                            String.format(Locale.ENGLISH, "%.2f MB / %.2f MB (%.2f MB/s)",
+                                    bytesHashed / 1024.0 / 1024.0, totalBytesToHash / 1024.0 / 1024.0,
+                                    bytesPerSecond / 1024.0 / 1024.0))));
+            dialog.close();
+        }));
+
+        dialog.start();
+
+        DeduplicationManager.Result result = dialog.getReturnValue();
+
+        if (dialog.wasClosed || result == null || result.cancelled) {
+            DialogManager.okDialog().setType(DialogManager.WARNING).setTitle(GetText.tr("Cancelled"))
+                    .setContent(new HTMLBuilder().center().text(GetText.tr(
+                            "The duplicate file scan was cancelled. Any files already linked have been kept, and all other files were left as they were."))
+                            .build())
+                    .show();
+            return;
+        }
+
+        String reclaimable = String.format(Locale.ENGLISH, "%.2f MB", result.reclaimableBytes / 1024.0 / 1024.0);
+
+        if (isDryRun) {
+            DialogManager.okDialog().setType(DialogManager.INFO).setTitle(GetText.tr("Success"))
+                    // #. {0} is the number of files, {1} is the number of duplicates and {2} is the size (e.g. 10 MB)
+                    .setContent(new HTMLBuilder().center().text(GetText.tr(
+                            "Scanned {0} files and found {1} duplicates.<br/><br/>Linking them would free up {2}.",
+                            result.filesScanned, result.duplicateFiles, reclaimable)).build())
+                    .show();
+        } else {
+            String reclaimed = String.format(Locale.ENGLISH, "%.2f MB", result.bytesReclaimed / 1024.0 / 1024.0);
+
+            DialogManager.okDialog().setType(DialogManager.INFO).setTitle(GetText.tr("Success"))
+                    // #. {0} is the number of files linked, {1} is the number of duplicates and {2} is the size (e.g. 10 MB)
+                    .setContent(new HTMLBuilder().center().text(GetText.tr(
+                            "Linked {0} of {1} duplicate files, freeing up {2}.", result.filesLinked,
+                            result.duplicateFiles, reclaimed)).build())
+                    .show();
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class ToolsTab extends HierarchyPanel implements Tab {
     protected void onShow() {
         JPanel mainPanel = new JPanel();
 
-        mainPanel.setLayout(new GridLayout(3, 2, 10, 10));
+        mainPanel.setLayout(new GridLayout(4, 2, 10, 10));
 
         mainPanel.add(new NetworkCheckerToolPanel(viewModel));
         mainPanel.add(new LogClearerToolPanel(viewModel));
@@ -49,6 +49,8 @@ public class ToolsTab extends HierarchyPanel implements Tab {
         mainPanel.add(new DownloadClearerToolPanel(viewModel));
         mainPanel.add(new SkinUpdaterToolPanel(viewModel));
         mainPanel.add(new LibrariesDeleterToolPanel(viewModel));
+        mainPanel.add(new DeduplicationToolPanel(viewModel));
+        mainPanel.add(new DiskUsageToolPanel());
 
         add(mainPanel, BorderLayout.CENTER);
     }
@@ -31,6 +31,7 @@ import com.atlauncher.constants.Constants;
 import com.atlauncher.evnt.listener.SettingsListener;
 import com.atlauncher.evnt.manager.SettingsManager;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.DeduplicationManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.Download;
@@ -109,6 +110,13 @@ public class ToolsViewModel implements SettingsListener {
         }
     }
 
+    public DeduplicationManager.Result deduplicateFiles(boolean dryRun,
+        DeduplicationManager.ProgressListener listener) {
+        Analytics.trackEvent(AnalyticsEvent.forToolRun(dryRun ? "deduplicator_dry_run" : "deduplicator"));
+
+        return DeduplicationManager.deduplicate(dryRun, listener);
+    }
+
     private boolean canRunNetworkChecker() {
         return App.settings.enableLogs;
     }
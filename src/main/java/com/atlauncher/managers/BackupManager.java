@@ -0,0 +1,585 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.TaskPools;
+import com.atlauncher.data.BackupManifest;
+import com.atlauncher.data.BackupMode;
+import com.atlauncher.data.Instance;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.PathPrefixFilter;
+import com.atlauncher.utils.ZipNameMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Manages incremental backups of instances.
+ *
+ * Files are split into content defined chunks, each of which is compressed and stored once by its SHA-256 hash in a
+ * store shared by every backup of every instance. A backup is then just a manifest listing the chunks making up each
+ * file. Files whose size and modified time haven't changed since the previous backup reuse the chunks from that
+ * backup without being read again, so backing up an instance which hasn't changed only has to stat its files.
+ */
+public class BackupManager {
+    static final int MIN_CHUNK_SIZE = 256 * 1024;
+    static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Cut a chunk when the top 20 bits of the rolling hash are all zero, giving chunks of around 1MB on average.
+     */
+    private static final long CHUNK_BOUNDARY_MASK = 0xFFFFF00000000000L;
+
+    /**
+     * Random values for the gear rolling hash. The seed is fixed so the same content is always chunked the same way.
+     */
+    private static final long[] GEAR = new long[256];
+
+    private static final DateTimeFormatter MANIFEST_NAME_FORMATTER = DateTimeFormatter
+        .ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.of("UTC"));
+
+    /**
+     * Backups and restores hold the read lock while using the chunk store, and removing unused chunks holds the write
+     * lock, so that chunks written by a backup which hasn't saved its manifest yet aren't removed.
+     */
+    private static final ReadWriteLock STORE_LOCK = new ReentrantReadWriteLock();
+
+    static {
+        Random random = new Random(0x41544C61756E6368L);
+
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    public static Path getBackupsPath() {
+        if (App.settings.backupsPath != null) {
+            return Paths.get(App.settings.backupsPath);
+        }
+
+        return FileSystem.BACKUPS;
+    }
+
+    private static Path getStorePath() {
+        return getBackupsPath().resolve("incremental");
+    }
+
+    private static Path getChunksPath() {
+        return getStorePath().resolve("chunks");
+    }
+
+    private static Path getManifestsPath() {
+        return getStorePath().resolve("manifests");
+    }
+
+    private static Path getManifestsPath(UUID instanceUuid) {
+        return getManifestsPath().resolve(instanceUuid.toString());
+    }
+
+    private static Path getChunkPath(String hash) {
+        return getChunksPath().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public static boolean hasBackups(Instance instance) {
+        Path manifestsPath = getManifestsPath(instance.getUUID());
+
+        if (!Files.isDirectory(manifestsPath)) {
+            return false;
+        }
+
+        try (Stream<Path> stream = Files.list(manifestsPath)) {
+            return stream.anyMatch(p -> p.getFileName().toString().endsWith(".json"));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets all the incremental backups of the given instance, newest first.
+     *
+     * @param instance the instance to get the backups for
+     * @return the backups
+     */
+    public static List<BackupManifest> getBackups(Instance instance) {
+        return readManifests(getManifestsPath(instance.getUUID()));
+    }
+
+    private static List<BackupManifest> readManifests(Path directory) {
+        try {
+            return readManifests(directory, false);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception listing backup manifests in " + directory, e, false);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Reads all the backup manifests in the given directory, newest first.
+     *
+     * @param strict if a manifest which can't be read should fail the whole read rather than just be skipped, for when
+     *               missing a manifest would mean removing chunks it still uses
+     */
+    private static List<BackupManifest> readManifests(Path directory, boolean strict) throws IOException {
+        List<BackupManifest> manifests = new ArrayList<>();
+
+        if (!Files.isDirectory(directory)) {
+            return manifests;
+        }
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            for (Path path : stream.filter(p -> p.getFileName().toString().endsWith(".json"))
+                .collect(Collectors.toList())) {
+                try (InputStreamReader fileReader = new InputStreamReader(Files.newInputStream(path),
+                    StandardCharsets.UTF_8)) {
+                    BackupManifest manifest = Gsons.DEFAULT.fromJson(fileReader, BackupManifest.class);
+
+                    if (manifest != null && manifest.files != null && manifest.createdAt != null) {
+                        String fileName = path.getFileName().toString();
+                        manifest.id = fileName.substring(0, fileName.length() - ".json".length());
+                        manifests.add(manifest);
+                    } else if (strict) {
+                        throw new IOException("Backup manifest " + path + " is incomplete");
+                    }
+                } catch (Exception e) {
+                    if (strict) {
+                        throw e instanceof IOException ? (IOException) e
+                            : new IOException("Exception reading backup manifest " + path, e);
+                    }
+
+                    LogManager.logStackTrace("Exception reading backup manifest " + path, e, false);
+                }
+            }
+        }
+
+        manifests.sort(Comparator.comparing((BackupManifest m) -> m.createdAt).reversed());
+
+        return manifests;
+    }
+
+    /**
+     * Creates an incremental backup of the given instance, then prunes old backups of it.
+     *
+     * @param instance   the instance to backup
+     * @param backupMode what to backup
+     * @return if the backup was successful
+     */
+    public static boolean backup(Instance instance, BackupMode backupMode) {
+        PerformanceManager.start("Incremental Backup");
+        Path root = instance.getRoot();
+        PathPrefixFilter filter = ZipNameMapper.getMapperForBackupMode(backupMode);
+
+        Map<String, BackupManifest.FileEntry> previousFiles = new HashMap<>();
+        List<BackupManifest> previousBackups = getBackups(instance);
+        if (!previousBackups.isEmpty()) {
+            previousBackups.get(0).files.forEach(f -> previousFiles.put(f.path, f));
+        }
+
+        BackupManifest manifest = new BackupManifest();
+        manifest.instanceUuid = instance.getUUID();
+        manifest.instanceName = instance.launcher.name;
+        manifest.mode = backupMode;
+        manifest.createdAt = Instant.now();
+
+        AtomicInteger unchangedFiles = new AtomicInteger();
+        AtomicInteger newChunks = new AtomicInteger();
+        AtomicLong newChunkBytes = new AtomicLong();
+
+        STORE_LOCK.readLock().lock();
+        try {
+            List<BackupManifest.FileEntry> files = new ArrayList<>();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    return PathPrefixFilter.preVisitDirectory(filter, getEntryName(root, dir));
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isSymbolicLink() || attributes.isDirectory()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    String name = getEntryName(root, file);
+                    if (filter.includes(name)) {
+                        files.add(new BackupManifest.FileEntry(name, attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            Files.createDirectories(getChunksPath());
+
+            TaskPools.forEach(TaskPools.DISK, files, entry -> {
+                BackupManifest.FileEntry previous = previousFiles.get(entry.path);
+
+                if (previous != null && previous.size == entry.size && previous.lastModified == entry.lastModified
+                    && previous.chunks != null) {
+                    entry.chunks = previous.chunks;
+                    unchangedFiles.incrementAndGet();
+                    return;
+                }
+
+                try {
+                    entry.chunks = storeFile(root.resolve(entry.path), newChunks, newChunkBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            files.sort(Comparator.comparing(f -> f.path));
+            manifest.files = files;
+
+            Path manifestsPath = getManifestsPath(instance.getUUID());
+            Files.createDirectories(manifestsPath);
+
+            Path manifestPath = manifestsPath.resolve(MANIFEST_NAME_FORMATTER.format(manifest.createdAt) + ".json");
+            Path tempManifestPath = manifestsPath.resolve(manifestPath.getFileName().toString() + ".tmp");
+            try (OutputStreamWriter fileWriter = new OutputStreamWriter(Files.newOutputStream(tempManifestPath),
+                StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(manifest, fileWriter);
+            }
+            Files.move(tempManifestPath, manifestPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            LogManager.logStackTrace("Failed to create incremental backup of " + instance.launcher.name, e);
+            PerformanceManager.end();
+            return false;
+        } finally {
+            STORE_LOCK.readLock().unlock();
+        }
+
+        LogManager.info(String.format(
+            "Backed up %d files (%d bytes) of %s, %d unchanged since the last backup, %d new chunks (%d bytes)",
+            manifest.files.size(), manifest.getTotalSize(), instance.launcher.name, unchangedFiles.get(),
+            newChunks.get(), newChunkBytes.get()));
+
+        prune(instance);
+        PerformanceManager.end();
+        return true;
+    }
+
+    /**
+     * Splits the given file into chunks, storing any chunks not already in the store.
+     *
+     * @return the hashes of the chunks making up the file, in order
+     */
+    private static List<String> storeFile(Path file, AtomicInteger newChunks, AtomicLong newChunkBytes)
+        throws IOException {
+        List<String> chunks = new ArrayList<>();
+
+        // most files are much smaller than a chunk can be, so don't allocate the full chunk size for them
+        byte[] buffer = new byte[(int) Math.min(Files.size(file), MAX_CHUNK_SIZE)];
+
+        try (Chunker chunker = new Chunker(Files.newInputStream(file))) {
+            int length;
+            while ((length = chunker.next(buffer)) > 0) {
+                String hash = Hashing.sha256().hashBytes(buffer, 0, length).toString();
+                Path chunkPath = getChunkPath(hash);
+
+                if (!Files.exists(chunkPath)) {
+                    Files.createDirectories(chunkPath.getParent());
+
+                    Path tempChunkPath = Files.createTempFile(chunkPath.getParent(), hash, ".tmp");
+                    try (OutputStream os = new DeflaterOutputStream(Files.newOutputStream(tempChunkPath))) {
+                        os.write(buffer, 0, length);
+                    }
+                    Files.move(tempChunkPath, chunkPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+
+                    newChunks.incrementAndGet();
+                    newChunkBytes.addAndGet(Files.size(chunkPath));
+                }
+
+                chunks.add(hash);
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Splits a stream into chunks, ending each chunk where the gear rolling hash of the content hits a boundary so that
+     * inserting or removing data in a file only changes the chunks around the change.
+     */
+    static class Chunker implements AutoCloseable {
+        private final InputStream is;
+        private final byte[] readBuffer = new byte[64 * 1024];
+        private int position = 0;
+        private int limit = 0;
+
+        Chunker(InputStream is) {
+            this.is = is;
+        }
+
+        /**
+         * Reads the next chunk of the stream into the buffer. Chunks are cut at the buffer's length if no boundary is
+         * found before then, so the buffer should be {@link #MAX_CHUNK_SIZE} long, or as long as the rest of the stream.
+         *
+         * @return the length of the chunk, or 0 when at the end of the stream
+         */
+        int next(byte[] buffer) throws IOException {
+            long hash = 0;
+            int length = 0;
+            int maxLength = Math.min(buffer.length, MAX_CHUNK_SIZE);
+
+            while (length < maxLength) {
+                if (position == limit) {
+                    limit = is.read(readBuffer);
+                    position = 0;
+
+                    if (limit == -1) {
+                        limit = 0;
+                        break;
+                    }
+                }
+
+                int b = readBuffer[position++] & 0xFF;
+                buffer[length++] = (byte) b;
+                hash = (hash << 1) + GEAR[b];
+
+                if (length >= MIN_CHUNK_SIZE && (hash & CHUNK_BOUNDARY_MASK) == 0) {
+                    break;
+                }
+            }
+
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            is.close();
+        }
+    }
+
+    /**
+     * Restores the given backup into its instance. Files which are the same as in the backup are left alone, and
+     * files which are covered by the backups mode but weren't in the backup are removed.
+     *
+     * @param instance the instance to restore into
+     * @param manifest the backup to restore
+     * @return if the restore was successful
+     */
+    public static boolean restore(Instance instance, BackupManifest manifest) {
+        PerformanceManager.start("Incremental Restore");
+        Path root = instance.getRoot().toAbsolutePath().normalize();
+        PathPrefixFilter filter = ZipNameMapper.getMapperForBackupMode(manifest.mode);
+        Set<String> backedUpFiles = manifest.files.stream().map(f -> f.path).collect(Collectors.toSet());
+
+        STORE_LOCK.readLock().lock();
+        try {
+            TaskPools.forEach(TaskPools.DISK, manifest.files, entry -> {
+                Path file = root.resolve(entry.path).normalize();
+
+                if (!file.startsWith(root)) {
+                    throw new IllegalStateException("Backup contains path outside of instance " + entry.path);
+                }
+
+                try {
+                    restoreFile(file, entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            List<Path> filesToRemove = new ArrayList<>();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    return PathPrefixFilter.preVisitDirectory(filter, getEntryName(root, dir));
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    // symbolic links are never backed up, so leave them be
+                    if (attributes.isSymbolicLink() || attributes.isDirectory()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    String name = getEntryName(root, file);
+
+                    if (filter.includes(name) && !backedUpFiles.contains(name)) {
+                        filesToRemove.add(file);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            filesToRemove.forEach(FileUtils::delete);
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            LogManager.logStackTrace("Failed to restore backup " + manifest.id + " of " + instance.launcher.name, e);
+            PerformanceManager.end();
+            return false;
+        } finally {
+            STORE_LOCK.readLock().unlock();
+        }
+
+        LogManager.info(String.format("Restored backup %s of %s (%d files)", manifest.id, instance.launcher.name,
+            manifest.files.size()));
+        PerformanceManager.end();
+        return true;
+    }
+
+    private static void restoreFile(Path file, BackupManifest.FileEntry entry) throws IOException {
+        if (Files.exists(file)) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+            if (attributes.size() == entry.size && attributes.lastModifiedTime().toMillis() == entry.lastModified) {
+                return;
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName().toString() + ".restoring");
+
+        try (OutputStream os = Files.newOutputStream(tempFile)) {
+            byte[] buffer = new byte[8192];
+
+            for (String hash : entry.chunks) {
+                Hasher hasher = Hashing.sha256().newHasher();
+
+                try (InputStream is = new InflaterInputStream(Files.newInputStream(getChunkPath(hash)))) {
+                    int read;
+                    while ((read = is.read(buffer)) != -1) {
+                        hasher.putBytes(buffer, 0, read);
+                        os.write(buffer, 0, read);
+                    }
+                }
+
+                if (!hasher.hash().toString().equals(hash)) {
+                    throw new IOException("Backup chunk " + hash + " is corrupt");
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(entry.lastModified));
+    }
+
+    /**
+     * Removes the oldest backups of the given instance past the number to keep, then removes any chunks which are no
+     * longer used by any backup.
+     *
+     * @param instance the instance to prune the backups of
+     */
+    public static void prune(Instance instance) {
+        List<BackupManifest> backups = getBackups(instance);
+        int backupsToKeep = Math.max(1, App.settings.incrementalBackupsToKeep);
+
+        if (backups.size() <= backupsToKeep) {
+            return;
+        }
+
+        Path manifestsPath = getManifestsPath(instance.getUUID());
+        for (BackupManifest backup : backups.subList(backupsToKeep, backups.size())) {
+            LogManager.debug("Pruning backup " + backup.id + " of " + instance.launcher.name);
+            FileUtils.delete(manifestsPath.resolve(backup.id + ".json"));
+        }
+
+        removeUnusedChunks();
+    }
+
+    /**
+     * Removes any chunks in the store which aren't used by any backup of any instance.
+     */
+    public static void removeUnusedChunks() {
+        Path chunksPath = getChunksPath();
+        if (!Files.isDirectory(chunksPath)) {
+            return;
+        }
+
+        STORE_LOCK.writeLock().lock();
+        AtomicInteger removed = new AtomicInteger();
+        try {
+            // if any manifest can't be read then the chunks it uses can't be known, so don't remove anything
+            Set<String> usedChunks = new HashSet<>();
+            try (Stream<Path> stream = Files.list(getManifestsPath())) {
+                for (Path directory : stream.filter(Files::isDirectory).collect(Collectors.toList())) {
+                    for (BackupManifest manifest : readManifests(directory, true)) {
+                        manifest.files.stream().filter(f -> f.chunks != null)
+                            .forEach(f -> usedChunks.addAll(f.chunks));
+                    }
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to read backup manifests, not removing unused chunks", e, false);
+                return;
+            }
+
+            try (Stream<Path> stream = Files.walk(chunksPath)) {
+                stream.filter(Files::isRegularFile).filter(p -> !usedChunks.contains(p.getFileName().toString()))
+                    .forEach(p -> {
+                        FileUtils.delete(p);
+                        removed.incrementAndGet();
+                    });
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to remove unused backup chunks", e, false);
+            }
+        } finally {
+            STORE_LOCK.writeLock().unlock();
+        }
+
+        LogManager.debug("Removed " + removed.get() + " unused backup chunks");
+    }
+
+    private static String getEntryName(Path root, Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+}
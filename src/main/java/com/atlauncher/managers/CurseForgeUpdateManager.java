@@ -88,7 +88,7 @@ public class CurseForgeUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to CurseForge instances");
 
-        int[] projectIdsFound = InstanceManager.getInstances().parallelStream()
+        int[] projectIdsFound = InstanceManager.getInstances().stream()
             .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId())
             .mapToInt(i -> i.launcher.curseForgeManifest != null
                 ? i.launcher.curseForgeManifest.projectID
@@ -98,7 +98,7 @@ public class CurseForgeUpdateManager {
         Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(projectIdsFound);
 
         if (foundProjects != null) {
-            InstanceManager.getInstances().parallelStream()
+            InstanceManager.getInstances().stream()
                 .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId()).forEach(i -> {
                     CurseForgeProject curseForgeMod = foundProjects.get(i.launcher.curseForgeManifest != null
                         ? i.launcher.curseForgeManifest.projectID
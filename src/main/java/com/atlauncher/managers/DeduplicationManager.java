@@ -0,0 +1,368 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.TaskPools;
+import com.atlauncher.data.Instance;
+import com.atlauncher.utils.Hashing;
+import com.google.common.hash.HashCode;
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Finds files duplicated across instances, the downloads folder and the shared mod store, and optionally replaces the
+ * duplicates with hard links to a single copy.
+ *
+ * Only mods, resource packs and shader packs are looked at, since the game writes to other files (configs, saves,
+ * options) in place, and that would then change every instance sharing the file. Files are grouped by size first, so
+ * only files with a potential duplicate are hashed, and hashes are kept in {@link FileSystem#FILE_HASH_INDEX} by path,
+ * size and modified time so running the tool again only hashes files that have changed.
+ *
+ * Each duplicate is replaced by creating a hard link next to it and renaming that over the top of it, so aborting at
+ * any point leaves every file either as it was or linked, never missing.
+ */
+public class DeduplicationManager {
+    private static final long MIN_FILE_SIZE = 4 * 1024;
+
+    private static final String[] INSTANCE_DIRECTORIES = { "mods", "disabledmods", "resourcepacks", "shaderpacks",
+            "texturepacks", "jarmods", "coremods" };
+
+    private static final String[] EXTENSIONS = { ".jar", ".zip", ".litemod" };
+
+    public interface ProgressListener {
+        void onProgress(long bytesHashed, long totalBytesToHash, double bytesPerSecond);
+    }
+
+    public static class Result {
+        public int filesScanned = 0;
+        public int duplicateFiles = 0;
+        public long reclaimableBytes = 0L;
+        public int filesLinked = 0;
+        public long bytesReclaimed = 0L;
+        public boolean cancelled = false;
+    }
+
+    private static class IndexEntry {
+        public long size;
+        public long lastModified;
+        public String sha1;
+    }
+
+    private static class ScannedFile {
+        public final Path path;
+        public final FileStore fileStore;
+        public final long size;
+        public final long lastModified;
+        public final Object fileKey;
+        public String sha1;
+
+        public ScannedFile(Path path, FileStore fileStore, BasicFileAttributes attributes) {
+            this.path = path;
+            this.fileStore = fileStore;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.fileKey = attributes.fileKey() == null ? path : attributes.fileKey();
+        }
+    }
+
+    /**
+     * Scans for duplicate files and, unless it's a dry run, replaces them with hard links.
+     *
+     * If the calling thread is interrupted the scan stops as soon as possible, and whatever has been linked up until
+     * then stays linked.
+     *
+     * @param dryRun   if duplicates should only be reported and not replaced
+     * @param listener listener for hashing progress
+     * @return the result of the scan
+     */
+    public static Result deduplicate(boolean dryRun, ProgressListener listener) {
+        Result result = new Result();
+
+        List<ScannedFile> files;
+        try {
+            files = scanFiles();
+        } catch (IllegalStateException e) {
+            LogManager.warn("Duplicate file scan was cancelled");
+            result.cancelled = true;
+            return result;
+        }
+        result.filesScanned = files.size();
+
+        // only files which share a size with another file on the same filesystem can be duplicates
+        Map<String, List<ScannedFile>> sizeGroups = files.stream()
+                .collect(Collectors.groupingBy(file -> file.fileStore.name() + ":" + file.size));
+        List<ScannedFile> toHash = sizeGroups.values().stream()
+                .filter(group -> group.stream().map(file -> file.fileKey).distinct().count() > 1)
+                .flatMap(Collection::stream).collect(Collectors.toList());
+
+        Map<String, IndexEntry> index = readIndex();
+        Map<String, IndexEntry> newIndex = new ConcurrentHashMap<>();
+
+        long totalBytesToHash = toHash.stream().mapToLong(file -> file.size).sum();
+        AtomicLong bytesHashed = new AtomicLong();
+        long started = System.nanoTime();
+
+        try {
+            TaskPools.forEach(TaskPools.DISK, toHash, file -> {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                String key = file.path.toAbsolutePath().toString();
+                IndexEntry entry = index.get(key);
+
+                if (entry == null || entry.size != file.size || entry.lastModified != file.lastModified) {
+                    HashCode sha1 = Hashing.sha1(file.path);
+                    if (sha1.equals(Hashing.EMPTY_HASH_CODE)) {
+                        return;
+                    }
+
+                    entry = new IndexEntry();
+                    entry.size = file.size;
+                    entry.lastModified = file.lastModified;
+                    entry.sha1 = sha1.toString();
+                }
+
+                file.sha1 = entry.sha1;
+                newIndex.put(key, entry);
+
+                long hashed = bytesHashed.addAndGet(file.size);
+                double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+                listener.onProgress(hashed, totalBytesToHash, hashed / seconds);
+            });
+        } catch (IllegalStateException e) {
+            LogManager.warn("Duplicate file scan was cancelled");
+            result.cancelled = true;
+        }
+
+        // clear the interrupt while saving, since writing through an interrupted thread closes the file
+        boolean interrupted = Thread.interrupted();
+
+        if (result.cancelled || interrupted) {
+            // keep the hashes of files we didn't get to for next time
+            index.putAll(newIndex);
+            saveIndex(index);
+
+            Thread.currentThread().interrupt();
+            result.cancelled = true;
+            return result;
+        }
+
+        saveIndex(newIndex);
+
+        Map<String, List<ScannedFile>> hashGroups = toHash.stream().filter(file -> file.sha1 != null)
+                .collect(Collectors.groupingBy(file -> file.fileStore.name() + ":" + file.sha1));
+
+        Set<FileStore> unsupportedFileStores = new HashSet<>();
+
+        for (List<ScannedFile> group : hashGroups.values()) {
+            if (Thread.currentThread().isInterrupted()) {
+                result.cancelled = true;
+                break;
+            }
+
+            // prefer keeping the copy in the shared mod store, as that's what new installs will link to
+            ScannedFile keeper = group.stream()
+                    .min(Comparator.comparing((ScannedFile file) -> !file.path.startsWith(FileSystem.MOD_STORE))
+                            .thenComparing(file -> file.path.toString()))
+                    .get();
+
+            Set<Object> seenFileKeys = new HashSet<>();
+            seenFileKeys.add(keeper.fileKey);
+
+            for (ScannedFile file : group) {
+                // already the same file as one we've seen, so nothing to reclaim
+                if (!seenFileKeys.add(file.fileKey)) {
+                    continue;
+                }
+
+                result.duplicateFiles++;
+                result.reclaimableBytes += file.size;
+
+                if (dryRun || unsupportedFileStores.contains(file.fileStore)
+                        || Thread.currentThread().isInterrupted()) {
+                    continue;
+                }
+
+                try {
+                    if (replaceWithLink(keeper, file)) {
+                        result.filesLinked++;
+                        result.bytesReclaimed += file.size;
+                    }
+                } catch (UnsupportedOperationException e) {
+                    LogManager.warn("Hard links aren't supported for " + file.path.getParent()
+                            + " so duplicates there can't be linked");
+                    unsupportedFileStores.add(file.fileStore);
+                }
+            }
+        }
+
+        LogManager.info(String.format(Locale.ENGLISH,
+                "Duplicate file scan looked at %d files and found %d duplicates using %.2f MB, of which %d were linked",
+                result.filesScanned, result.duplicateFiles, result.reclaimableBytes / 1024.0 / 1024.0,
+                result.filesLinked));
+
+        return result;
+    }
+
+    private static boolean replaceWithLink(ScannedFile keeper, ScannedFile file) {
+        Path tempLink = file.path.resolveSibling(file.path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+
+        try {
+            // make sure neither file has changed since they were hashed
+            BasicFileAttributes keeperAttributes = Files.readAttributes(keeper.path, BasicFileAttributes.class);
+            BasicFileAttributes fileAttributes = Files.readAttributes(file.path, BasicFileAttributes.class);
+            if (keeperAttributes.size() != keeper.size
+                    || keeperAttributes.lastModifiedTime().toMillis() != keeper.lastModified
+                    || fileAttributes.size() != file.size
+                    || fileAttributes.lastModifiedTime().toMillis() != file.lastModified) {
+                LogManager.warn("Not linking " + file.path + " as it or " + keeper.path + " changed while scanning");
+                return false;
+            }
+
+            Files.createLink(tempLink, keeper.path);
+            Files.move(tempLink, file.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to replace " + file.path + " with a link to " + keeper.path, e, false);
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(tempLink);
+            } catch (IOException ignored) {
+                // nothing to clean up
+            }
+        }
+    }
+
+    private static List<ScannedFile> scanFiles() {
+        List<Path> roots = new ArrayList<>();
+        roots.add(FileSystem.DOWNLOADS);
+        roots.add(FileSystem.MOD_STORE);
+
+        for (Instance instance : InstanceManager.getInstances()) {
+            for (String directory : INSTANCE_DIRECTORIES) {
+                roots.add(instance.getRoot().resolve(directory));
+            }
+        }
+
+        List<List<ScannedFile>> scanned = TaskPools.map(TaskPools.DISK,
+                roots.stream().filter(Files::isDirectory).collect(Collectors.toList()),
+                DeduplicationManager::scanDirectory);
+
+        return scanned.stream().flatMap(Collection::stream).collect(Collectors.toList());
+    }
+
+    private static List<ScannedFile> scanDirectory(Path directory) {
+        List<ScannedFile> files = new ArrayList<>();
+
+        try (Stream<Path> stream = Files.walk(directory)) {
+            FileStore fileStore = Files.getFileStore(directory);
+
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                if (!isCandidate(path)) {
+                    continue;
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isRegularFile() && attributes.size() >= MIN_FILE_SIZE) {
+                    files.add(new ScannedFile(path, fileStore, attributes));
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to scan " + directory + " for duplicate files", e, false);
+        }
+
+        return files;
+    }
+
+    private static boolean isCandidate(Path path) {
+        if (path.startsWith(FileSystem.MOD_STORE)) {
+            // files in the store are named by their hash
+            return path.getFileName().toString().length() == 40;
+        }
+
+        String filename = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
+        for (String extension : EXTENSIONS) {
+            if (filename.endsWith(extension)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Map<String, IndexEntry> readIndex() {
+        if (!Files.exists(FileSystem.FILE_HASH_INDEX)) {
+            return new HashMap<>();
+        }
+
+        try (InputStreamReader fileReader = new InputStreamReader(
+                Files.newInputStream(FileSystem.FILE_HASH_INDEX), StandardCharsets.UTF_8)) {
+            Type indexType = new TypeToken<Map<String, IndexEntry>>() {
+            }.getType();
+            Map<String, IndexEntry> index = Gsons.DEFAULT.fromJson(fileReader, indexType);
+
+            if (index != null) {
+                return index;
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading file hash index", e, false);
+        }
+
+        return new HashMap<>();
+    }
+
+    private static void saveIndex(Map<String, IndexEntry> index) {
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
+                Files.newOutputStream(FileSystem.FILE_HASH_INDEX), StandardCharsets.UTF_8)) {
+            Type indexType = new TypeToken<Map<String, IndexEntry>>() {
+            }.getType();
+            Gsons.DEFAULT.toJson(index, indexType, fileWriter);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace(e, false);
+        }
+    }
+}
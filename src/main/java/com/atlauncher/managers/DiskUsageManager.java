@@ -0,0 +1,412 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.TaskPools;
+import com.atlauncher.data.Instance;
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Works out how much disk space each instance, and the folders shared between instances, take up.
+ *
+ * Instance roots and the shared folders are walked in parallel on the disk pool. The totals of the files directly in
+ * each directory are cached in {@link FileSystem#DISK_USAGE_CACHE} along with the directory's modified time, and a
+ * directory is only listed again once that changes (which happens whenever something in it is added, removed or
+ * renamed), so rescanning mostly comes down to one stat per directory. Files changed in place don't change the
+ * directory's modified time, so a forced scan ignores the cache entirely.
+ *
+ * Files hard linked from elsewhere (such as from the shared mod store, or by the duplicate file linker) count towards
+ * the size of every instance they're in, but only count towards what deleting an instance would free when every link
+ * to them is inside that instance. Link counts are only available on Unix like systems, so elsewhere every file is
+ * treated as unique to the instance it's in.
+ */
+public class DiskUsageManager {
+    private static final long BACKGROUND_SCAN_INTERVAL_MINUTES = 5;
+
+    private static final boolean HAS_LINK_COUNTS = FileSystems.getDefault().supportedFileAttributeViews()
+            .contains("unix");
+
+    private static final Map<UUID, BehaviorSubject<Optional<Usage>>> INSTANCE_USAGE = new ConcurrentHashMap<>();
+
+    private static final Map<Path, Usage> SHARED_USAGE = new ConcurrentHashMap<>();
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "disk-usage-scanner");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static Map<String, DirectoryEntry> cache = null;
+    private static volatile long lastScanned = 0L;
+    private static volatile boolean backgroundScanQueued = false;
+
+    public static class Usage {
+        /**
+         * The size of every file, counting hard linked files in full.
+         */
+        public long totalBytes = 0L;
+
+        /**
+         * The size of the files which would actually be freed by deleting this directory.
+         */
+        public long freedOnDelete = 0L;
+
+        /**
+         * The size of each top level directory, with files directly in the root under an empty name.
+         */
+        public final Map<String, Long> breakdown = new LinkedHashMap<>();
+
+        public long getBreakdown(String... names) {
+            return Arrays.stream(names).mapToLong(name -> breakdown.getOrDefault(name, 0L)).sum();
+        }
+    }
+
+    private static class DirectoryEntry {
+        public long lastModified;
+        public long fileBytes;
+        public Map<String, Long> linkedFiles = new HashMap<>();
+        public List<String> directories = new ArrayList<>();
+    }
+
+    private static class Totals {
+        public long bytes = 0L;
+        public final Map<Path, Long> linkedFiles = new HashMap<>();
+
+        public void add(Totals other) {
+            bytes += other.bytes;
+            linkedFiles.putAll(other.linkedFiles);
+        }
+    }
+
+    private static BehaviorSubject<Optional<Usage>> getSubject(Instance instance) {
+        return INSTANCE_USAGE.computeIfAbsent(instance.getUUID(),
+                uuid -> BehaviorSubject.createDefault(Optional.empty()));
+    }
+
+    /**
+     * Get an observable for an instance's disk usage, which is empty until it's been scanned.
+     *
+     * @param instance Instance to get an observable for
+     * @return Disk usage observable
+     */
+    public static Observable<Optional<Usage>> getObservable(Instance instance) {
+        return getSubject(instance);
+    }
+
+    public static Usage getUsage(Instance instance) {
+        return getSubject(instance).getValue().orElse(null);
+    }
+
+    /**
+     * Gets the usage of the folders shared between instances, in the order they're scanned in.
+     */
+    public static Map<Path, Usage> getSharedUsage() {
+        Map<Path, Usage> usage = new LinkedHashMap<>();
+        for (Path path : getSharedPaths()) {
+            if (SHARED_USAGE.containsKey(path)) {
+                usage.put(path, SHARED_USAGE.get(path));
+            }
+        }
+        return usage;
+    }
+
+    public static List<Path> getSharedPaths() {
+        return Arrays.asList(FileSystem.LIBRARIES, FileSystem.ASSETS, FileSystem.DOWNLOADS, FileSystem.MOD_STORE);
+    }
+
+    /**
+     * Queues up a scan in the background, unless one's already queued or was done recently.
+     */
+    public static void scanInBackground() {
+        if (backgroundScanQueued || System.currentTimeMillis() - lastScanned < TimeUnit.MINUTES
+                .toMillis(BACKGROUND_SCAN_INTERVAL_MINUTES)) {
+            return;
+        }
+
+        backgroundScanQueued = true;
+        EXECUTOR.execute(() -> {
+            try {
+                scan(false);
+            } catch (Throwable t) {
+                LogManager.logStackTrace("Error scanning disk usage", t, false);
+            } finally {
+                backgroundScanQueued = false;
+            }
+        });
+    }
+
+    /**
+     * Scans the disk usage of every instance and the shared folders.
+     *
+     * @param force if the cache should be ignored and every directory listed again
+     */
+    public static synchronized void scan(boolean force) {
+        long started = System.currentTimeMillis();
+
+        if (cache == null) {
+            cache = readCache();
+        }
+
+        Map<String, DirectoryEntry> oldCache = force ? new HashMap<>() : cache;
+        Map<String, DirectoryEntry> newCache = new ConcurrentHashMap<>();
+
+        List<Instance> instances = Optional.ofNullable(InstanceManager.getInstances()).orElse(new ArrayList<>());
+        List<Path> roots = new ArrayList<>();
+        instances.forEach(instance -> roots.add(instance.getRoot()));
+        roots.addAll(getSharedPaths());
+
+        List<Usage> usages = TaskPools.map(TaskPools.DISK, roots, root -> scanRoot(root, oldCache, newCache));
+
+        for (int i = 0; i < instances.size(); i++) {
+            getSubject(instances.get(i)).onNext(Optional.ofNullable(usages.get(i)));
+        }
+        INSTANCE_USAGE.keySet().removeIf(uuid -> instances.stream().noneMatch(i -> uuid.equals(i.getUUID())));
+
+        List<Path> sharedPaths = getSharedPaths();
+        for (int i = 0; i < sharedPaths.size(); i++) {
+            Usage usage = usages.get(instances.size() + i);
+            if (usage != null) {
+                SHARED_USAGE.put(sharedPaths.get(i), usage);
+            }
+        }
+
+        cache = newCache;
+        saveCache(newCache);
+        lastScanned = System.currentTimeMillis();
+
+        LogManager.debug("Scanned disk usage of " + roots.size() + " directories in "
+                + (lastScanned - started) + "ms");
+    }
+
+    private static Usage scanRoot(Path root, Map<String, DirectoryEntry> oldCache,
+            Map<String, DirectoryEntry> newCache) {
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+
+        DirectoryEntry rootEntry = getEntry(root, oldCache, newCache);
+        if (rootEntry == null) {
+            return null;
+        }
+
+        Usage usage = new Usage();
+        Totals totals = new Totals();
+
+        Totals rootFiles = new Totals();
+        addFiles(root, rootEntry, rootFiles);
+        usage.breakdown.put("", rootFiles.bytes);
+        totals.add(rootFiles);
+
+        for (String directory : rootEntry.directories) {
+            Totals directoryTotals = scanDirectory(root.resolve(directory), oldCache, newCache);
+            usage.breakdown.put(directory, directoryTotals.bytes);
+            totals.add(directoryTotals);
+        }
+
+        usage.totalBytes = totals.bytes;
+        usage.freedOnDelete = totals.bytes - getBytesLinkedElsewhere(totals.linkedFiles);
+
+        return usage;
+    }
+
+    private static Totals scanDirectory(Path directory, Map<String, DirectoryEntry> oldCache,
+            Map<String, DirectoryEntry> newCache) {
+        Totals totals = new Totals();
+
+        DirectoryEntry entry = getEntry(directory, oldCache, newCache);
+        if (entry == null) {
+            return totals;
+        }
+
+        addFiles(directory, entry, totals);
+
+        for (String child : entry.directories) {
+            totals.add(scanDirectory(directory.resolve(child), oldCache, newCache));
+        }
+
+        return totals;
+    }
+
+    private static void addFiles(Path directory, DirectoryEntry entry, Totals totals) {
+        totals.bytes += entry.fileBytes;
+
+        entry.linkedFiles.forEach((name, size) -> {
+            totals.bytes += size;
+            totals.linkedFiles.put(directory.resolve(name), size);
+        });
+    }
+
+    private static DirectoryEntry getEntry(Path directory, Map<String, DirectoryEntry> oldCache,
+            Map<String, DirectoryEntry> newCache) {
+        String key = directory.toAbsolutePath().toString();
+
+        try {
+            long lastModified = Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS).toMillis();
+
+            DirectoryEntry entry = oldCache.get(key);
+            if (entry == null || entry.lastModified != lastModified) {
+                entry = listDirectory(directory, lastModified);
+            }
+
+            newCache.put(key, entry);
+            return entry;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to scan disk usage of " + directory, e, false);
+            return null;
+        }
+    }
+
+    private static DirectoryEntry listDirectory(Path directory, long lastModified) throws IOException {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.lastModified = lastModified;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS);
+
+                if (attributes.isDirectory()) {
+                    entry.directories.add(path.getFileName().toString());
+                } else if (attributes.isRegularFile()) {
+                    if (getLinkCount(path) > 1) {
+                        entry.linkedFiles.put(path.getFileName().toString(), attributes.size());
+                    } else {
+                        entry.fileBytes += attributes.size();
+                    }
+                }
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Works out how many bytes of the given hard linked files have links outside of the given files, and so wouldn't
+     * be freed by deleting them. Link counts are read fresh, as other directories may have been linked to or from
+     * since this directory was cached.
+     */
+    private static long getBytesLinkedElsewhere(Map<Path, Long> linkedFiles) {
+        Map<String, Integer> linksSeen = new HashMap<>();
+        Map<String, Integer> linkCounts = new HashMap<>();
+        Map<String, Long> sizes = new HashMap<>();
+
+        linkedFiles.forEach((path, size) -> {
+            try {
+                Map<String, Object> attributes = Files.readAttributes(path, "unix:nlink,dev,ino",
+                        LinkOption.NOFOLLOW_LINKS);
+                String inode = attributes.get("dev") + ":" + attributes.get("ino");
+
+                linksSeen.merge(inode, 1, Integer::sum);
+                linkCounts.put(inode, (Integer) attributes.get("nlink"));
+                sizes.put(inode, size);
+            } catch (IOException | UnsupportedOperationException | IllegalArgumentException ignored) {
+                // deleted since it was scanned
+            }
+        });
+
+        long bytesLinkedElsewhere = 0L;
+        for (Map.Entry<String, Integer> inode : linksSeen.entrySet()) {
+            long size = sizes.get(inode.getKey());
+
+            if (inode.getValue() < linkCounts.get(inode.getKey())) {
+                // every link in here is kept alive by the one outside
+                bytesLinkedElsewhere += size * inode.getValue();
+            } else {
+                // only the first link actually takes up space
+                bytesLinkedElsewhere += size * (inode.getValue() - 1);
+            }
+        }
+
+        return bytesLinkedElsewhere;
+    }
+
+    private static int getLinkCount(Path path) {
+        if (!HAS_LINK_COUNTS) {
+            return 1;
+        }
+
+        try {
+            return (Integer) Files.getAttribute(path, "unix:nlink", LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return 1;
+        }
+    }
+
+    private static Map<String, DirectoryEntry> readCache() {
+        if (!Files.exists(FileSystem.DISK_USAGE_CACHE)) {
+            return new HashMap<>();
+        }
+
+        try (InputStreamReader fileReader = new InputStreamReader(
+                Files.newInputStream(FileSystem.DISK_USAGE_CACHE), StandardCharsets.UTF_8)) {
+            Type cacheType = new TypeToken<Map<String, DirectoryEntry>>() {
+            }.getType();
+            Map<String, DirectoryEntry> entries = Gsons.DEFAULT.fromJson(fileReader, cacheType);
+
+            if (entries != null) {
+                return entries;
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading disk usage cache", e, false);
+        }
+
+        return new HashMap<>();
+    }
+
+    private static void saveCache(Map<String, DirectoryEntry> entries) {
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
+                Files.newOutputStream(FileSystem.DISK_USAGE_CACHE), StandardCharsets.UTF_8)) {
+            Type cacheType = new TypeToken<Map<String, DirectoryEntry>>() {
+            }.getType();
+            Gsons.DEFAULT.toJson(entries, cacheType, fileWriter);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace(e, false);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package com.atlauncher.managers;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -26,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.atlauncher.TaskPools;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.ftb.FTBPackManifest;
@@ -90,29 +92,29 @@ public class FTBUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to FTB instances");
 
-        InstanceManager.getInstances().parallelStream()
+        List<Integer> packIds = InstanceManager.getInstances().stream()
             .filter(Instance::isFTBPack)
             .map(i -> i.launcher.ftbPackManifest.id)
             .distinct()
-            .collect(Collectors.toList())
-            .forEach(id -> {
+            .collect(Collectors.toList());
 
-                FTBPackManifest packManifest = NetworkClient.getCached(
-                    String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.FTB_API_URL, id),
-                    FTBPackManifest.class,
-                    new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+        TaskPools.forEach(TaskPools.NETWORK, packIds, id -> {
+            FTBPackManifest packManifest = NetworkClient.getCached(
+                String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.FTB_API_URL, id),
+                FTBPackManifest.class,
+                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
 
-                if (packManifest == null) {
-                    return;
-                }
+            if (packManifest == null) {
+                return;
+            }
 
-                FTBPackVersion latestVersion = packManifest.versions.stream()
-                    .max(Comparator.comparingInt((FTBPackVersion version) -> version.id)).orElse(null);
+            FTBPackVersion latestVersion = packManifest.versions.stream()
+                .max(Comparator.comparingInt((FTBPackVersion version) -> version.id)).orElse(null);
 
-                InstanceManager.getInstances().stream()
-                    .filter(i -> i.isFTBPack() && i.launcher.ftbPackManifest.id == id)
-                    .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
-            });
+            InstanceManager.getInstances().stream()
+                .filter(i -> i.isFTBPack() && i.launcher.ftbPackManifest.id == id)
+                .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
+        });
 
         PerformanceManager.end();
     }
@@ -28,13 +28,18 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.atlauncher.App;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.Pack;
+import com.atlauncher.data.StartupTimings;
 import com.atlauncher.exceptions.InvalidPack;
+import com.atlauncher.mclauncher.AppCDS;
+import com.atlauncher.mclauncher.LaunchPlan;
 import com.atlauncher.utils.CurseForgeApi;
+import com.atlauncher.utils.FileCopier;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
 import com.google.gson.JsonIOException;
@@ -201,7 +206,8 @@ public class InstanceManager {
     }
 
     /**
-     * Removes an instance and deletes its directory.
+     * Removes an instance and deletes its directory. Unless it's going to the recycle bin, the directory is moved into
+     * the trash and deleted in the background, so the instance disappears straight away no matter how large it is.
      *
      * @param instance Instance to remove
      */
@@ -209,7 +215,20 @@ public class InstanceManager {
         List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
 
         if (instances.remove(instance)) {
-            FileUtils.delete(instance.getRoot(), true);
+            if (App.settings.useRecycleBin) {
+                FileUtils.delete(instance.getRoot(), true);
+            } else {
+                // files in the shared mod store can only be let go of once this instance's links to them are gone
+                TrashManager.moveToTrash(instance.getRoot(), () -> {
+                    if (ModStoreManager.isEnabled()) {
+                        ModStoreManager.removeUnusedFiles();
+                    }
+                });
+            }
+            AppCDS.deleteArchives(instance);
+            StartupTimings.delete(instance);
+            instance.clearLaunchFingerprint();
+            LaunchPlan.delete(instance);
             INSTANCES.onNext(instances);
         }
     }
@@ -287,7 +306,7 @@ public class InstanceManager {
             clonedInstance.ROOT = FileSystem.INSTANCES.resolve(clonedInstance.getSafeName());
             clonedInstance.uuid = UUID.randomUUID();
             FileUtils.createDirectory(clonedInstance.getRoot());
-            Utils.copyDirectory(instance.getRoot().toFile(), clonedInstance.getRoot().toFile());
+            FileCopier.copyDirectory(instance.getRoot(), clonedInstance.getRoot());
             clonedInstance.save();
 
             List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
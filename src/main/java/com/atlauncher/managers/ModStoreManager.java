@@ -0,0 +1,237 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.OS;
+import com.google.common.hash.HashCode;
+
+/**
+ * Manages the shared mod store.
+ *
+ * When enabled, mods, resource packs and shader packs are stored once in {@link FileSystem#MOD_STORE} keyed by their
+ * SHA-1 hash, and each instance gets a hard link to the stored file rather than its own copy. Since every link is a
+ * name for the same file, deleting a mod or renaming it into disabledmods only affects the instance it's in. Stored
+ * files are made read only so that nothing can write through one instance's link into everyone else's.
+ *
+ * The store isn't used on Windows. There the read only attribute is shared by every link, so it would stop instances
+ * from deleting their mods. Java also has no way to read a file's link count on NTFS, so unused files could never be
+ * removed from the store.
+ *
+ * If the store and the instance aren't on the same filesystem, or the filesystem doesn't support hard links, files are
+ * copied as they were before.
+ */
+public class ModStoreManager {
+    private static final Map<FileStore, Boolean> HARD_LINK_SUPPORT = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return App.settings.useSharedModStore && !OS.isWindows();
+    }
+
+    /**
+     * Places a file into an instance, linking it from the shared mod store when that's enabled and supported, or
+     * copying it otherwise.
+     *
+     * @param from the downloaded file
+     * @param to   the path in the instance to place the file at
+     * @return true, if the file is in place
+     */
+    public static boolean installFile(Path from, Path to) {
+        if (isEnabled() && linkFromStore(from, to)) {
+            return true;
+        }
+
+        return FileUtils.copyFile(from, to, true);
+    }
+
+    private static boolean linkFromStore(Path from, Path to) {
+        if (to.getParent() == null) {
+            return false;
+        }
+
+        FileUtils.createDirectory(to.getParent());
+
+        if (!supportsHardLinks(to.getParent())) {
+            return false;
+        }
+
+        Path storedFile = addToStore(from);
+        if (storedFile == null) {
+            return false;
+        }
+
+        try {
+            if (Files.exists(to) && Files.isSameFile(storedFile, to)) {
+                return true;
+            }
+
+            Files.deleteIfExists(to);
+            Files.createLink(to, storedFile);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            LogManager.logStackTrace("Failed to link " + to + " to the shared mod store", e, false);
+            return false;
+        }
+    }
+
+    /**
+     * Adds a file to the store if it's not already in there.
+     *
+     * @param file the file to add
+     * @return the path to the stored file, or null if it couldn't be stored
+     */
+    public static Path addToStore(Path file) {
+        HashCode sha1 = Hashing.sha1(file);
+        if (sha1.equals(Hashing.EMPTY_HASH_CODE)) {
+            return null;
+        }
+
+        Path storedFile = getStorePath(sha1.toString());
+
+        try {
+            if (Files.isRegularFile(storedFile) && Files.size(storedFile) == Files.size(file)) {
+                return storedFile;
+            }
+
+            Files.createDirectories(storedFile.getParent());
+
+            // copy next to the stored file and move it into place so a half written file is never linked to
+            Path tempFile = storedFile.resolveSibling(storedFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            tempFile.toFile().setReadOnly();
+
+            try {
+                Files.move(tempFile, storedFile, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException | FileAlreadyExistsException e) {
+                Files.move(tempFile, storedFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return storedFile;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to add " + file + " to the shared mod store", e, false);
+            return null;
+        }
+    }
+
+    public static Path getStorePath(String sha1) {
+        return FileSystem.MOD_STORE.resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+    /**
+     * Checks if files in the given directory can be hard linked to files in the store. This is only true when they're
+     * on the same filesystem and that filesystem supports hard links, which is checked once per filesystem by linking
+     * a throwaway file.
+     *
+     * @param directory the directory to check
+     * @return true, if files in the store can be linked into the directory
+     */
+    public static boolean supportsHardLinks(Path directory) {
+        try {
+            FileStore storeFileStore = Files.getFileStore(FileSystem.MOD_STORE);
+            if (!storeFileStore.equals(Files.getFileStore(directory))) {
+                return false;
+            }
+
+            return HARD_LINK_SUPPORT.computeIfAbsent(storeFileStore, fs -> probeHardLinks(directory));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to check for hard link support in " + directory, e, false);
+            return false;
+        }
+    }
+
+    private static boolean probeHardLinks(Path directory) {
+        String probeName = ".link-probe-" + UUID.randomUUID();
+        Path source = FileSystem.MOD_STORE.resolve(probeName);
+        Path link = directory.resolve(probeName);
+
+        try {
+            Files.createFile(source);
+            Files.createLink(link, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LogManager.warn("Hard links aren't supported for " + directory + " so the shared mod store won't be used: "
+                    + e.getMessage());
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(link);
+                Files.deleteIfExists(source);
+            } catch (IOException ignored) {
+                // nothing to clean up
+            }
+        }
+    }
+
+    /**
+     * Removes files from the store that are no longer linked into any instance. This relies on reading the number of
+     * links to each file, which is only available on Unix like systems (the only ones the store is used on).
+     *
+     * @return the number of bytes freed
+     */
+    public static long removeUnusedFiles() {
+        if (!Files.isDirectory(FileSystem.MOD_STORE)) {
+            return 0L;
+        }
+
+        AtomicLong bytesFreed = new AtomicLong();
+
+        try (Stream<Path> stream = Files.walk(FileSystem.MOD_STORE, 2)) {
+            stream.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().length() == 40)
+                    .forEach(path -> {
+                try {
+                    Object links = Files.getAttribute(path, "unix:nlink");
+                    if (links instanceof Integer && (Integer) links <= 1) {
+                        long size = Files.size(path);
+
+                        Files.delete(path);
+                        bytesFreed.addAndGet(size);
+                    }
+                } catch (UnsupportedOperationException | IllegalArgumentException ignored) {
+                    // no link counts on this filesystem
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Failed to check shared mod store file " + path, e, false);
+                }
+            });
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up the shared mod store", e, false);
+        }
+
+        if (bytesFreed.get() != 0L) {
+            LogManager.info("Removed " + bytesFreed.get() + " bytes of unused files from the shared mod store");
+        }
+
+        return bytesFreed.get();
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.constants.Constants;
+import com.atlauncher.data.DisableableMod;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.ModUpdateScanResult;
+import com.atlauncher.data.curseforge.CurseForgeGameVersionLatestFiles;
+import com.atlauncher.data.curseforge.CurseForgeProject;
+import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+import com.atlauncher.data.modrinth.ModrinthFile;
+import com.atlauncher.data.modrinth.ModrinthVersion;
+import com.atlauncher.utils.CurseForgeApi;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ModrinthApi;
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Periodically checks the mods in all instances for updates on CurseForge and Modrinth in the background, so that the
+ * UI can show which instances have mod updates available without having to open each instances mods dialog.
+ */
+public class ModUpdateManager {
+    /**
+     * How long a scan result is considered fresh for before the instance is scanned again, even if it's mods haven't
+     * changed.
+     */
+    private static final Duration RESULT_TTL = Duration.ofHours(6);
+
+    /**
+     * How often to check if any instances need to be scanned.
+     */
+    private static final long SCAN_INTERVAL_MINUTES = 60;
+
+    /**
+     * Maximum number of projects/hashes to send to the API in a single request.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Time to wait between API requests so we stay well within the rate limits of the platforms.
+     */
+    private static final long THROTTLE_MS = 1000;
+
+    private static final Map<UUID, BehaviorSubject<Optional<ModUpdateScanResult>>> INSTANCE_MOD_UPDATES = new ConcurrentHashMap<>();
+
+    private static final Map<UUID, ModUpdateScanResult> SCAN_RESULTS = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService scheduler = null;
+    private static boolean hasLoadedScanResults = false;
+
+    /**
+     * Get the update behavior subject for a given instance.
+     *
+     * @param instance Instance to get behavior subject for
+     * @return behavior subject for said instances mod updates
+     */
+    private static BehaviorSubject<Optional<ModUpdateScanResult>> getSubject(Instance instance) {
+        INSTANCE_MOD_UPDATES.putIfAbsent(
+            instance.getUUID(),
+            BehaviorSubject.createDefault(Optional.ofNullable(SCAN_RESULTS.get(instance.getUUID()))));
+        return INSTANCE_MOD_UPDATES.get(instance.getUUID());
+    }
+
+    /**
+     * Get an observable for an instances mod updates.
+     * <p>
+     * Please do not cast to a behavior subject.
+     *
+     * @param instance Instance to get an observable for
+     * @return Mod update observable
+     */
+    public static Observable<Optional<ModUpdateScanResult>> getObservable(Instance instance) {
+        return getSubject(instance);
+    }
+
+    /**
+     * Get the last scan result for an instance
+     *
+     * @param instance Instance to get the scan result of
+     * @return Last scan result, or null if the instance hasn't been scanned yet
+     */
+    public static ModUpdateScanResult getScanResult(Instance instance) {
+        return getSubject(instance).getValue().orElse(null);
+    }
+
+    /**
+     * Starts the background scanner if it's enabled and not already running.
+     */
+    public static synchronized void startScanning() {
+        if (scheduler != null || !App.settings.enableBackgroundModUpdateScanning) {
+            return;
+        }
+
+        loadScanResults();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ModUpdateScanner");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                scan();
+            } catch (Throwable t) {
+                LogManager.logStackTrace("Error scanning instances for mod updates", t, false);
+            }
+        }, 1, SCAN_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background scanner if it's running.
+     */
+    public static synchronized void stopScanning() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Scans all instances that have changed mods, or whose last result has expired, for mod updates.
+     * <p>
+     * Updates observables.
+     */
+    public static void scan() {
+        boolean curseForgeEnabled = ConfigManager.getConfigItem("platforms.curseforge.modsEnabled", true);
+        boolean modrinthEnabled = ConfigManager.getConfigItem("platforms.modrinth.modsEnabled", true);
+
+        if (!curseForgeEnabled && !modrinthEnabled) {
+            return;
+        }
+
+        loadScanResults();
+
+        // the mods of an instance can be changed on the EDT while we're scanning, so work off a copy of them
+        Map<Instance, List<DisableableMod>> scannableMods = new HashMap<>();
+        InstanceManager.getInstances().forEach(i -> scannableMods.put(i, getScannableMods(i)));
+
+        List<Instance> instancesToScan = scannableMods.keySet().stream().filter(i -> {
+            ModUpdateScanResult existing = SCAN_RESULTS.get(i.getUUID());
+
+            return existing == null || existing.isExpired()
+                || !getModSetHash(i, scannableMods.get(i)).equals(existing.modSetHash);
+        }).collect(Collectors.toList());
+
+        if (instancesToScan.isEmpty()) {
+            return;
+        }
+
+        PerformanceManager.start();
+        LogManager.debug(String.format("Scanning %d instances for mod updates", instancesToScan.size()));
+
+        Map<Integer, CurseForgeProject> curseForgeProjects = curseForgeEnabled
+            ? getCurseForgeProjects(instancesToScan, scannableMods)
+            : Collections.emptyMap();
+        Map<Instance, Map<String, ModrinthVersion>> modrinthVersions = modrinthEnabled
+            ? getModrinthVersions(instancesToScan, scannableMods)
+            : Collections.emptyMap();
+
+        Instant now = Instant.now();
+        for (Instance instance : instancesToScan) {
+            ModUpdateScanResult result = new ModUpdateScanResult(
+                getModSetHash(instance, scannableMods.get(instance)), now, now.plus(RESULT_TTL));
+
+            for (DisableableMod mod : scannableMods.get(instance)) {
+                if (mod.isFromCurseForge() && curseForgeProjects.containsKey(mod.curseForgeProjectId)) {
+                    CurseForgeGameVersionLatestFiles latestFile = getNewerCurseForgeFile(instance, mod,
+                        curseForgeProjects.get(mod.curseForgeProjectId));
+
+                    if (latestFile != null) {
+                        result.updates.put(mod.file, latestFile.filename);
+                        continue;
+                    }
+                }
+
+                if (mod.isFromModrinth() && modrinthVersions.containsKey(instance)) {
+                    ModrinthVersion latestVersion = modrinthVersions.get(instance).get(getModrinthSha1(mod));
+
+                    if (latestVersion != null && !latestVersion.id.equals(mod.modrinthVersion.id)) {
+                        result.updates.put(mod.file, latestVersion.name);
+                    }
+                }
+            }
+
+            SCAN_RESULTS.put(instance.getUUID(), result);
+            getSubject(instance).onNext(Optional.of(result));
+        }
+
+        saveScanResults();
+
+        PerformanceManager.end();
+    }
+
+    private static List<DisableableMod> getScannableMods(Instance instance) {
+        return new ArrayList<>(instance.launcher.mods).stream()
+            .filter(m -> m.type == com.atlauncher.data.Type.mods && (m.isFromCurseForge() || m.isFromModrinth()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a hash of everything that would change the result of a scan for an instance, so that instances whose
+     * mod set hasn't changed since the last scan can be skipped.
+     */
+    private static String getModSetHash(Instance instance, List<DisableableMod> mods) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(instance.getMinecraftVersion()).append('|');
+        sb.append(instance.getLoaderVersion() == null ? "" : instance.getLoaderVersion().toString()).append('|');
+        sb.append(App.settings.allowCurseForgeAlphaBetaFiles).append('|');
+
+        mods.stream().sorted(Comparator.comparing(m -> m.file)).forEach(m -> {
+            sb.append(m.file).append(':');
+            sb.append(m.curseForgeFileId).append(':');
+            sb.append(m.modrinthVersion == null ? null : m.modrinthVersion.id).append(';');
+        });
+
+        return Hashing.md5(sb.toString()).toString();
+    }
+
+    private static Map<Integer, CurseForgeProject> getCurseForgeProjects(List<Instance> instances,
+        Map<Instance, List<DisableableMod>> scannableMods) {
+        int[] projectIds = instances.stream().flatMap(i -> scannableMods.get(i).stream())
+            .filter(DisableableMod::isFromCurseForge).mapToInt(m -> m.curseForgeProjectId).distinct().toArray();
+
+        Map<Integer, CurseForgeProject> projects = new HashMap<>();
+        for (int i = 0; i < projectIds.length; i += BATCH_SIZE) {
+            int[] batch = Arrays.copyOfRange(projectIds, i, Math.min(i + BATCH_SIZE, projectIds.length));
+
+            Map<Integer, CurseForgeProject> batchProjects = CurseForgeApi.getProjectsAsMap(batch);
+            if (batchProjects != null) {
+                projects.putAll(batchProjects);
+            }
+
+            if (!throttle()) {
+                break;
+            }
+        }
+
+        return projects;
+    }
+
+    private static Map<Instance, Map<String, ModrinthVersion>> getModrinthVersions(List<Instance> instances,
+        Map<Instance, List<DisableableMod>> scannableMods) {
+        Map<Instance, Map<String, ModrinthVersion>> versions = new HashMap<>();
+
+        // the update endpoint filters by loader and game version, so group instances sharing both together
+        Map<String, List<Instance>> instancesByTarget = instances.stream()
+            .filter(i -> scannableMods.get(i).stream().anyMatch(DisableableMod::isFromModrinth))
+            .collect(Collectors.groupingBy(i -> i.getMinecraftVersion() + "|" + getModrinthLoaders(i)));
+
+        for (List<Instance> group : instancesByTarget.values()) {
+            Instance first = group.get(0);
+            String[] hashes = group.stream().flatMap(i -> scannableMods.get(i).stream())
+                .filter(DisableableMod::isFromModrinth).map(ModUpdateManager::getModrinthSha1)
+                .filter(h -> h != null).distinct().toArray(String[]::new);
+
+            Map<String, ModrinthVersion> groupVersions = new HashMap<>();
+            for (int i = 0; i < hashes.length; i += BATCH_SIZE) {
+                String[] batch = Arrays.copyOfRange(hashes, i, Math.min(i + BATCH_SIZE, hashes.length));
+
+                groupVersions.putAll(ModrinthApi.getLatestVersionsFromSha1Hashes(batch, getModrinthLoaders(first),
+                    Collections.singletonList(first.getMinecraftVersion())));
+
+                if (!throttle()) {
+                    return versions;
+                }
+            }
+
+            group.forEach(i -> versions.put(i, groupVersions));
+        }
+
+        return versions;
+    }
+
+    private static CurseForgeGameVersionLatestFiles getNewerCurseForgeFile(Instance instance, DisableableMod mod,
+        CurseForgeProject project) {
+        if (project.latestFilesIndexes == null) {
+            return null;
+        }
+
+        List<Integer> modLoaders = getCurseForgeModLoaders(instance.getLoaderVersion());
+
+        return project.latestFilesIndexes.stream()
+            .filter(f -> f.fileId > mod.curseForgeFileId)
+            .filter(f -> instance.getMinecraftVersion().equals(f.gameVersion))
+            .filter(f -> f.modLoader == 0 || modLoaders.contains(f.modLoader))
+            .filter(f -> App.settings.allowCurseForgeAlphaBetaFiles || f.releaseType == 1)
+            .max(Comparator.comparingInt(f -> f.fileId)).orElse(null);
+    }
+
+    private static String getModrinthSha1(DisableableMod mod) {
+        if (mod.modrinthVersion.files == null || mod.modrinthVersion.files.isEmpty()) {
+            return null;
+        }
+
+        ModrinthFile file = mod.modrinthVersion.files.stream().filter(f -> mod.file.equals(f.filename)).findFirst()
+            .orElse(mod.modrinthVersion.getPrimaryFile());
+
+        return file.hashes == null ? null : file.hashes.get("sha1");
+    }
+
+    private static List<Integer> getCurseForgeModLoaders(LoaderVersion loaderVersion) {
+        List<Integer> modLoaders = new ArrayList<>();
+
+        if (loaderVersion == null) {
+            return modLoaders;
+        }
+
+        if (loaderVersion.isForge()) {
+            modLoaders.add(Constants.CURSEFORGE_FORGE_MODLOADER_ID);
+        } else if (loaderVersion.isNeoForge()) {
+            modLoaders.add(Constants.CURSEFORGE_NEOFORGE_MODLOADER_ID);
+        } else if (loaderVersion.isFabric() || loaderVersion.isLegacyFabric()) {
+            modLoaders.add(Constants.CURSEFORGE_FABRIC_MODLOADER_ID);
+        } else if (loaderVersion.isQuilt()) {
+            modLoaders.add(Constants.CURSEFORGE_FABRIC_MODLOADER_ID);
+            modLoaders.add(Constants.CURSEFORGE_QUILT_MODLOADER_ID);
+        }
+
+        return modLoaders;
+    }
+
+    private static List<String> getModrinthLoaders(Instance instance) {
+        List<String> loaders = new ArrayList<>();
+        LoaderVersion loaderVersion = instance.getLoaderVersion();
+
+        if (loaderVersion == null) {
+            return loaders;
+        }
+
+        if (loaderVersion.isForge()) {
+            loaders.add("forge");
+        } else if (loaderVersion.isNeoForge()) {
+            loaders.add("neoforge");
+        } else if (loaderVersion.isFabric() || loaderVersion.isLegacyFabric()) {
+            loaders.add("fabric");
+        } else if (loaderVersion.isQuilt()) {
+            loaders.add("fabric");
+            loaders.add("quilt");
+        }
+
+        return loaders;
+    }
+
+    private static boolean throttle() {
+        try {
+            Thread.sleep(THROTTLE_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static synchronized void loadScanResults() {
+        if (hasLoadedScanResults) {
+            return;
+        }
+
+        hasLoadedScanResults = true;
+
+        if (!Files.exists(FileSystem.MOD_UPDATE_SCAN_RESULTS)) {
+            return;
+        }
+
+        try (InputStreamReader fileReader = new InputStreamReader(
+            Files.newInputStream(FileSystem.MOD_UPDATE_SCAN_RESULTS), StandardCharsets.UTF_8)) {
+            Type resultsType = new TypeToken<Map<UUID, ModUpdateScanResult>>() {
+            }.getType();
+            Map<UUID, ModUpdateScanResult> results = Gsons.DEFAULT.fromJson(fileReader, resultsType);
+
+            if (results != null) {
+                SCAN_RESULTS.putAll(results);
+                results.forEach((uuid, result) -> {
+                    if (INSTANCE_MOD_UPDATES.containsKey(uuid)) {
+                        INSTANCE_MOD_UPDATES.get(uuid).onNext(Optional.of(result));
+                    }
+                });
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading mod update scan results", e, false);
+        }
+    }
+
+    private static synchronized void saveScanResults() {
+        // don't keep results around for instances that have since been deleted
+        List<UUID> instanceUuids = InstanceManager.getInstances().stream().map(Instance::getUUID)
+            .collect(Collectors.toList());
+        SCAN_RESULTS.keySet().removeIf(uuid -> !instanceUuids.contains(uuid));
+
+        // write to a temp file first so a crash mid write can't leave a truncated results file behind
+        Path tempFile = FileSystem.MOD_UPDATE_SCAN_RESULTS
+            .resolveSibling(FileSystem.MOD_UPDATE_SCAN_RESULTS.getFileName() + ".tmp");
+
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(Files.newOutputStream(tempFile),
+            StandardCharsets.UTF_8)) {
+            Type resultsType = new TypeToken<Map<UUID, ModUpdateScanResult>>() {
+            }.getType();
+            Gsons.DEFAULT.toJson(SCAN_RESULTS, resultsType, fileWriter);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace(e, false);
+            return;
+        }
+
+        try {
+            Files.move(tempFile, FileSystem.MOD_UPDATE_SCAN_RESULTS, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save mod update scan results", e, false);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import com.atlauncher.TaskPools;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.utils.ModrinthApi;
@@ -86,27 +87,28 @@ public class ModrinthModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Modrinth instances");
 
-        InstanceManager.getInstances().parallelStream()
+        List<String> projectIds = InstanceManager.getInstances().stream()
             .filter(i -> i.isModrinthPack() && i.launcher.modrinthProject.id != null
                 && !i.launcher.modrinthProject.id.isEmpty())
             .map(i -> i.launcher.modrinthProject.id)
             .distinct()
-            .collect(Collectors.toList())
-            .forEach(id -> {
-                List<ModrinthVersion> packVersions = ModrinthApi.getVersions(id);
+            .collect(Collectors.toList());
 
-                if (packVersions == null) {
-                    return;
-                }
+        TaskPools.forEach(TaskPools.NETWORK, projectIds, id -> {
+            List<ModrinthVersion> packVersions = ModrinthApi.getVersions(id);
 
-                ModrinthVersion latestVersion = packVersions.stream()
-                    .sorted(Comparator.comparing((ModrinthVersion version) -> version.datePublished).reversed())
-                    .findFirst().orElse(null);
+            if (packVersions == null) {
+                return;
+            }
 
-                InstanceManager.getInstances().stream()
-                    .filter(i -> i.isModrinthPack() && i.launcher.modrinthProject.id.equals(id))
-                    .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
-            });
+            ModrinthVersion latestVersion = packVersions.stream()
+                .sorted(Comparator.comparing((ModrinthVersion version) -> version.datePublished).reversed())
+                .findFirst().orElse(null);
+
+            InstanceManager.getInstances().stream()
+                .filter(i -> i.isModrinthPack() && i.launcher.modrinthProject.id.equals(id))
+                .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
+        });
         
         PerformanceManager.end();
     }
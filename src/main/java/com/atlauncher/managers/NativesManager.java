@@ -0,0 +1,238 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * Manages the cache of extracted natives. Each set of natives is stored in a directory named from a hash of everything
+ * that went into it (the native artifacts, their hashes and their exclusion rules), so once it's been extracted it
+ * never changes and can be shared between every instance and launch that uses the same natives.
+ *
+ * Each directory has a manifest of the files that were extracted into it, which is checked before the directory is
+ * reused so that a damaged directory gets extracted again, and directories which haven't been used in a while are
+ * pruned on startup.
+ */
+public class NativesManager {
+    /**
+     * Bump this when the way natives are extracted changes, so that directories extracted the old way aren't reused.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    private static final String MANIFEST_FILENAME = ".natives-manifest";
+
+    /**
+     * How long a cached natives directory can go unused before it's removed.
+     */
+    private static final Duration UNUSED_EXPIRY = Duration.ofDays(30);
+
+    /**
+     * The natives directories to launch an instance with.
+     */
+    public static final class LaunchNatives {
+        public final Path nativesDirectory;
+
+        @Nullable
+        public final Path lwjglNativesDirectory;
+
+        public LaunchNatives(Path nativesDirectory, @Nullable Path lwjglNativesDirectory) {
+            this.nativesDirectory = nativesDirectory;
+            this.lwjglNativesDirectory = lwjglNativesDirectory;
+        }
+
+        /**
+         * Deletes any of the directories which weren't able to be cached, once the launch is done with them.
+         */
+        public void deleteTemporary() {
+            if (isTemporary(nativesDirectory) && Files.isDirectory(nativesDirectory)) {
+                FileUtils.deleteDirectoryQuietly(nativesDirectory);
+            }
+
+            if (isTemporary(lwjglNativesDirectory) && Files.isDirectory(lwjglNativesDirectory)) {
+                FileUtils.deleteDirectoryQuietly(lwjglNativesDirectory);
+            }
+        }
+    }
+
+    /**
+     * Gets the cached directory for the given key, populating it first if it doesn't exist yet.
+     *
+     * The directory is populated in the temp directory and then moved into the cache in one go, so a partially
+     * extracted directory is never picked up by another launch. If populating fails, the temp directory is returned
+     * instead so the launch can still continue, and it's cleaned up like any other temp directory.
+     *
+     * @param type     the type of natives, used to prefix the directory name
+     * @param keyParts everything that affects what gets extracted into the directory
+     * @param populate extracts the natives into the given directory, returning if it was successful
+     * @return the directory containing the natives
+     */
+    public static Path getCachedDirectory(String type, List<String> keyParts, Predicate<Path> populate) {
+        String key = Hashing.sha1(CACHE_VERSION + "\n" + String.join("\n", keyParts)).toString();
+        Path directory = FileSystem.NATIVES_CACHE.resolve(type + "-" + key);
+
+        if (Files.isDirectory(directory)) {
+            if (isIntact(directory)) {
+                LogManager.debug("Using cached " + type + " from " + directory);
+                markUsed(directory);
+                return directory;
+            }
+
+            LogManager.warn("Cached " + type + " in " + directory + " are damaged, extracting them again");
+            TrashManager.moveToTrash(directory);
+        }
+
+        PerformanceManager.start("Populating natives cache");
+        Path stagingDirectory = FileSystem.TEMP.resolve(type + "-" + UUID.randomUUID().toString().replace("-", ""));
+        FileUtils.createDirectory(stagingDirectory);
+
+        if (!populate.test(stagingDirectory) || !writeManifest(stagingDirectory)) {
+            LogManager.warn("Failed to extract " + type + ", not caching them");
+            PerformanceManager.end("Populating natives cache");
+            return stagingDirectory;
+        }
+
+        try {
+            FileUtils.createDirectory(FileSystem.NATIVES_CACHE);
+            Files.move(stagingDirectory, directory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (Files.isDirectory(directory)) {
+                // another launch beat us to it, so use theirs
+                FileUtils.deleteDirectoryQuietly(stagingDirectory);
+            } else {
+                LogManager.logStackTrace("Failed to move " + type + " into the natives cache", e, false);
+                PerformanceManager.end("Populating natives cache");
+                return stagingDirectory;
+            }
+        }
+
+        PerformanceManager.end("Populating natives cache");
+        return directory;
+    }
+
+    /**
+     * Checks if the given natives directory is a temporary one which should be deleted after the launch is done.
+     *
+     * @param directory the natives directory
+     * @return if the directory should be deleted after use
+     */
+    public static boolean isTemporary(Path directory) {
+        return directory != null && directory.startsWith(FileSystem.TEMP);
+    }
+
+    /**
+     * Removes cached natives directories which haven't been used for a while, such as those for Minecraft versions or
+     * LWJGL builds no instance uses any more.
+     */
+    public static void pruneUnused() {
+        if (!Files.isDirectory(FileSystem.NATIVES_CACHE)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - UNUSED_EXPIRY.toMillis();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(FileSystem.NATIVES_CACHE)) {
+            for (Path directory : stream) {
+                if (Files.isDirectory(directory) && Files.getLastModifiedTime(directory).toMillis() < cutoff) {
+                    LogManager.debug("Removing unused cached natives " + directory);
+                    TrashManager.moveToTrash(directory);
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to prune the natives cache", e, false);
+        }
+    }
+
+    /**
+     * Lists every file in the directory along with its size, so the directory can be checked before it's reused.
+     */
+    private static boolean writeManifest(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<String> lines = files.filter(Files::isRegularFile).map(file -> {
+                try {
+                    return Files.size(file) + "\t" + directory.relativize(file).toString().replace('\\', '/');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+
+            Files.write(directory.resolve(MANIFEST_FILENAME), lines, StandardCharsets.UTF_8);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            LogManager.logStackTrace("Failed to write natives manifest for " + directory, e, false);
+            return false;
+        }
+    }
+
+    private static boolean isIntact(Path directory) {
+        Path manifest = directory.resolve(MANIFEST_FILENAME);
+
+        if (!Files.isRegularFile(manifest)) {
+            return false;
+        }
+
+        try {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t", 2);
+
+                if (parts.length != 2) {
+                    return false;
+                }
+
+                Path file = directory.resolve(parts[1]);
+                if (!Files.isRegularFile(file) || Files.size(file) != Long.parseLong(parts[0])) {
+                    return false;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Bumps the directory's modified time so that it isn't pruned while it's still being used.
+     */
+    private static void markUsed(Path directory) {
+        try {
+            Files.setLastModifiedTime(directory, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to mark " + directory + " as used", e, false);
+        }
+    }
+}
@@ -17,12 +17,15 @@
  */
 package com.atlauncher.managers;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import com.atlauncher.Gsons;
+import com.atlauncher.TaskPools;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.technic.TechnicModpack;
 import com.atlauncher.data.technic.TechnicSolderModpack;
@@ -127,36 +130,38 @@ public class TechnicModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Technic Modpack instances");
 
-        InstanceManager.getInstances().parallelStream()
-            .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates).forEach(i -> {
-                TechnicModpack technicModpack = null;
-
-                try {
-                    technicModpack = TechnicApi.getModpackBySlugWithThrow(i.launcher.technicModpack.name);
-                } catch (DownloadException e) {
-                    if (e.response != null) {
-                        LogManager.debug(Gsons.DEFAULT.toJson(e.response));
-                    }
-
-                    if (e.statusCode == 404) {
-                        LogManager.error(String.format(
-                            "Technic pack with name of %s no longer exists, disabling update checks.",
-                            i.launcher.technicModpack.displayName));
-                        i.launcher.checkForUpdates = false;
-                        i.save();
-                    }
-                }
+        List<Instance> instances = InstanceManager.getInstances().stream()
+            .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates).collect(Collectors.toList());
+
+        TaskPools.forEach(TaskPools.NETWORK, instances, i -> {
+            TechnicModpack technicModpack = null;
 
-                if (technicModpack != null && i.isTechnicSolderPack() && technicModpack.solder != null) {
-                    TechnicSolderModpack technicSolderModpack = TechnicApi.getSolderModpackBySlug(
-                        technicModpack.solder,
-                        technicModpack.name);
+            try {
+                technicModpack = TechnicApi.getModpackBySlugWithThrow(i.launcher.technicModpack.name);
+            } catch (DownloadException e) {
+                if (e.response != null) {
+                    LogManager.debug(Gsons.DEFAULT.toJson(e.response));
+                }
 
-                    getSolderSubject(i).onNext(Optional.ofNullable(technicSolderModpack));
-                } else {
-                    getSubject(i).onNext(Optional.ofNullable(technicModpack));
+                if (e.statusCode == 404) {
+                    LogManager.error(String.format(
+                        "Technic pack with name of %s no longer exists, disabling update checks.",
+                        i.launcher.technicModpack.displayName));
+                    i.launcher.checkForUpdates = false;
+                    i.save();
                 }
-            });
+            }
+
+            if (technicModpack != null && i.isTechnicSolderPack() && technicModpack.solder != null) {
+                TechnicSolderModpack technicSolderModpack = TechnicApi.getSolderModpackBySlug(
+                    technicModpack.solder,
+                    technicModpack.name);
+
+                getSolderSubject(i).onNext(Optional.ofNullable(technicSolderModpack));
+            } else {
+                getSubject(i).onNext(Optional.ofNullable(technicModpack));
+            }
+        });
 
         PerformanceManager.end();
     }
@@ -0,0 +1,116 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * Deletes files and directories without making the caller wait for it.
+ *
+ * Anything to delete is first renamed into {@link FileSystem#TRASH}, which is a single atomic rename no matter how
+ * large it is, and then deleted on a low priority background thread. Whatever is left in the trash when the launcher
+ * exits is deleted on the next start.
+ */
+public class TrashManager {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "trash-emptier");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public static boolean moveToTrash(Path path) {
+        return moveToTrash(path, null);
+    }
+
+    /**
+     * Moves the given path into the trash to be deleted in the background. If it can't be moved (such as when it's on
+     * a different drive, or files in it are locked on Windows) it's deleted straight away instead.
+     *
+     * @param path      the file or directory to delete
+     * @param onDeleted optional callback to run once it's been deleted
+     * @return true, if the path no longer exists at its original location
+     */
+    public static boolean moveToTrash(Path path, Runnable onDeleted) {
+        if (!Files.exists(path) || Files.isSymbolicLink(path)) {
+            return FileUtils.delete(path);
+        }
+
+        Path trashed = FileSystem.TRASH.resolve(UUID.randomUUID().toString());
+
+        try {
+            Files.createDirectories(FileSystem.TRASH);
+            Files.move(path, trashed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogManager.debug("Couldn't move " + path + " to the trash, deleting it in place: " + e.getMessage());
+
+            boolean deleted = FileUtils.delete(path);
+            if (deleted && onDeleted != null) {
+                onDeleted.run();
+            }
+            return deleted;
+        }
+
+        EXECUTOR.execute(() -> {
+            delete(trashed);
+
+            if (onDeleted != null) {
+                onDeleted.run();
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Queues up deleting anything left in the trash from a previous run.
+     */
+    public static void emptyTrash() {
+        if (!Files.isDirectory(FileSystem.TRASH)) {
+            return;
+        }
+
+        try (Stream<Path> stream = Files.list(FileSystem.TRASH)) {
+            stream.forEach(path -> EXECUTOR.execute(() -> delete(path)));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to list files in the trash", e, false);
+        }
+    }
+
+    private static void delete(Path path) {
+        long started = System.currentTimeMillis();
+
+        boolean deleted = Files.isDirectory(path) ? FileUtils.deleteDirectoryQuietly(path) : FileUtils.delete(path);
+        if (deleted) {
+            LogManager.debug("Deleted " + path + " from the trash in " + (System.currentTimeMillis() - started) + "ms");
+        } else {
+            // left for the next run to have another go at
+            LogManager.warn("Couldn't fully delete " + path + " from the trash");
+        }
+    }
+}
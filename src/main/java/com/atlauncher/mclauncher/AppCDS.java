@@ -0,0 +1,136 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.data.Instance;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.Java;
+import com.atlauncher.utils.javafinder.JavaInstallation;
+import com.atlauncher.utils.javafinder.JavaInstallations;
+
+/**
+ * Handles the dynamic AppCDS (Application Class Data Sharing) archive for an instance.
+ *
+ * On the first launch of a given instance, Java runtime and classpath, Minecraft is started with
+ * -XX:ArchiveClassesAtExit so that when it exits, the JVM writes out an archive of all the classes it loaded from the
+ * classpath. Subsequent launches pass that archive with -XX:SharedArchiveFile, which skips loading, parsing and
+ * verifying those classes again. If the classpath or runtime changes, the old archive is deleted and a new one
+ * recorded.
+ *
+ * Dynamic archives need Java 13 or newer, so this is only used with the Java runtimes provided by Minecraft, which we
+ * know the version and vendor of.
+ */
+public class AppCDS {
+    private static final int MINIMUM_JAVA_VERSION = 13;
+
+    /**
+     * Gets the JVM arguments needed to use or record the class data sharing archive for the instance.
+     *
+     * @param instance       the instance being launched
+     * @param javaPath       the root of the Java install being used to launch
+     * @param classpath      the classpath being launched with
+     * @param javaArguments  the users custom Java arguments
+     * @return the arguments to add, which is empty if it shouldn't be used
+     */
+    public static List<String> getArguments(Instance instance, String javaPath, String classpath,
+        String javaArguments) {
+        if (!App.settings.useClassDataSharing) {
+            return Collections.emptyList();
+        }
+
+        if (!Paths.get(javaPath).toAbsolutePath().startsWith(FileSystem.MINECRAFT_RUNTIMES.toAbsolutePath())) {
+            LogManager.debug("Not using class data sharing as the Java runtime isn't provided by Minecraft");
+            return Collections.emptyList();
+        }
+
+        // the custom minecraft.jar is recreated every launch, which would invalidate the archive every time
+        if (instance.usesCustomMinecraftJar()) {
+            return Collections.emptyList();
+        }
+
+        // don't fight with the user if they're already setting this up themselves
+        if (javaArguments.contains("-Xshare") || javaArguments.contains("SharedArchiveFile")
+            || javaArguments.contains("ArchiveClassesAtExit")) {
+            return Collections.emptyList();
+        }
+
+        JavaInstallation installation = JavaInstallations.get(Java.getPathToJavaExecutable(Paths.get(javaPath)));
+        if (!installation.hasVersion() || Java.parseJavaVersionNumber(installation.version) < MINIMUM_JAVA_VERSION) {
+            LogManager.debug("Not using class data sharing as Java " + installation.version + " doesn't support it");
+            return Collections.emptyList();
+        }
+
+        String key = Hashing.sha1(String.join("\n", installation.executablePath, installation.version,
+            String.valueOf(installation.executableLastModified), classpath)).toString();
+
+        Path archiveDirectory = FileSystem.CDS_ARCHIVES.resolve(instance.getUUID().toString());
+        Path archive = archiveDirectory.resolve(key + ".jsa");
+        FileUtils.createDirectory(archiveDirectory);
+        deleteOtherArchives(archiveDirectory, archive);
+
+        List<String> arguments = new ArrayList<>();
+
+        if (Files.exists(archive)) {
+            LogManager.info("Using class data sharing archive " + archive.getFileName());
+            arguments.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        } else {
+            LogManager.info("Recording class data sharing archive for this instance, which is saved when Minecraft"
+                + " is closed");
+            arguments.add("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath());
+        }
+
+        return arguments;
+    }
+
+    private static void deleteOtherArchives(Path archiveDirectory, Path archive) {
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            files.filter(file -> !file.equals(archive) && file.getFileName().toString().endsWith(".jsa"))
+                .forEach(file -> {
+                    LogManager.debug("Removing outdated class data sharing archive " + file.getFileName());
+                    FileUtils.delete(file);
+                });
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to clean up old class data sharing archives", e, false);
+        }
+    }
+
+    /**
+     * Removes all the class data sharing archives for the given instance.
+     *
+     * @param instance the instance to remove the archives for
+     */
+    public static void deleteArchives(Instance instance) {
+        Path archiveDirectory = FileSystem.CDS_ARCHIVES.resolve(instance.getUUID().toString());
+
+        if (Files.isDirectory(archiveDirectory)) {
+            FileUtils.deleteDirectoryQuietly(archiveDirectory);
+        }
+    }
+}
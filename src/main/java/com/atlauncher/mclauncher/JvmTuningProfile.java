@@ -0,0 +1,179 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.Type;
+import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+import com.atlauncher.utils.Java;
+import com.atlauncher.utils.OS;
+import com.atlauncher.utils.javafinder.JavaInstallation;
+import com.atlauncher.utils.javafinder.JavaInstallations;
+
+/**
+ * The "auto" JVM tuning profile, which works out the heap size and garbage collector settings to launch an instance
+ * with from the system it's running on (RAM and CPU count), the Java version it's launching with and how heavy the
+ * instance is (required memory, loader and number of mods).
+ */
+public class JvmTuningProfile {
+    public static final String AUTO = "auto";
+
+    private static final int MINIMUM_HEAP = 1024;
+    private static final int MAXIMUM_HEAP = 16384;
+
+    public int maximumMemory;
+    public int minimumMemory;
+    public List<String> heapArguments = new ArrayList<>();
+    public List<String> gcArguments = new ArrayList<>();
+
+    /**
+     * A description of what the profile was worked out from, for logging.
+     */
+    public String inputs;
+
+    public static boolean isEnabled(Instance instance) {
+        return AUTO.equals(instance.launcher.jvmTuningProfile);
+    }
+
+    /**
+     * Works out the tuning profile for the given instance.
+     *
+     * @param instance the instance to work out the profile for
+     * @return the profile
+     */
+    public static JvmTuningProfile compute(Instance instance) {
+        int requiredMemory = instance.launcher.requiredMemory == null ? 0 : instance.launcher.requiredMemory;
+        long modCount = instance.launcher.mods.stream().filter(m -> m.type == Type.mods && !m.disabled).count();
+
+        JavaInstallation java = JavaInstallations
+            .get(Java.getPathToJavaExecutable(Paths.get(instance.getJavaPath())));
+        int javaVersion = java.hasVersion() ? Java.parseJavaVersionNumber(java.version) : 8;
+
+        return compute(OS.getSystemRam(), OS.getSafeMaximumRam(), OS.getLogicalProcessorCount(), javaVersion,
+            java.implementor, instance.launcher.loaderVersion, modCount, requiredMemory);
+    }
+
+    /**
+     * Works out the tuning profile from the given inputs.
+     *
+     * @param systemRam       the total system RAM in MB
+     * @param safeMaximumRam  the most RAM in MB that's safe to give to the game
+     * @param processors      the number of logical processors
+     * @param javaVersion     the major version of Java being launched with
+     * @param javaImplementor the vendor of the Java being launched with, if known
+     * @param loaderVersion   the loader the instance uses, or null for vanilla
+     * @param modCount        the number of enabled mods
+     * @param requiredMemory  the memory in MB the pack says it needs, or 0 if it doesn't say
+     * @return the profile
+     */
+    static JvmTuningProfile compute(int systemRam, int safeMaximumRam, int processors, int javaVersion,
+        String javaImplementor, LoaderVersion loaderVersion, long modCount, int requiredMemory) {
+        JvmTuningProfile profile = new JvmTuningProfile();
+        profile.inputs = String.format(Locale.ENGLISH,
+            "%d MB system RAM, %d logical processors, Java %d%s, %s, %d mods, %d MB required", systemRam,
+            processors, javaVersion, javaImplementor == null ? "" : " (" + javaImplementor + ")",
+            loaderVersion == null ? "Vanilla" : loaderVersion.type, modCount, requiredMemory);
+
+        // heap size scales with how many mods there are, with Forge based loaders needing a bit more on top
+        int heap;
+        if (modCount == 0) {
+            heap = 2048;
+        } else if (modCount < 50) {
+            heap = 3072;
+        } else if (modCount < 150) {
+            heap = 4096;
+        } else if (modCount < 250) {
+            heap = 6144;
+        } else {
+            heap = 8192;
+        }
+
+        if (loaderVersion != null && (loaderVersion.isForge() || loaderVersion.isNeoForge()) && modCount != 0) {
+            heap += 1024;
+        }
+
+        // never go above half the system RAM, but always give the pack at least what it asks for
+        heap = Math.min(Math.min(heap, MAXIMUM_HEAP), Math.max(safeMaximumRam, MINIMUM_HEAP));
+        heap = Math.max(heap, Math.max(requiredMemory, MINIMUM_HEAP));
+
+        profile.maximumMemory = heap;
+        profile.minimumMemory = Math.max(MINIMUM_HEAP / 2, heap / 2);
+        profile.heapArguments.add("-Xms" + profile.minimumMemory + "M");
+        profile.heapArguments.add("-Xmx" + profile.maximumMemory + "M");
+
+        // leave a core for the render thread
+        int parallelGcThreads = Math.max(1, Math.min(processors - 1, 8));
+        int concurrentGcThreads = Math.max(1, parallelGcThreads / 4);
+
+        if (javaVersion >= 21 && heap >= 8192 && processors >= 8) {
+            profile.gcArguments.add("-XX:+UseZGC");
+
+            // generational mode is opt in for 21 and 22, and the default after that
+            if (javaVersion < 23) {
+                profile.gcArguments.add("-XX:+ZGenerational");
+            }
+        } else if (javaVersion >= 17 && heap >= 6144 && processors >= 6 && supportsShenandoah(javaImplementor)) {
+            profile.gcArguments.add("-XX:+UseShenandoahGC");
+        } else {
+            profile.gcArguments.add("-XX:+UseG1GC");
+            profile.gcArguments.add("-XX:MaxGCPauseMillis=50");
+            profile.gcArguments.add("-XX:G1HeapRegionSize=" + (heap >= 12288 ? 32 : 16) + "M");
+            profile.gcArguments.add("-XX:+ParallelRefProcEnabled");
+        }
+
+        profile.gcArguments.add("-XX:ParallelGCThreads=" + parallelGcThreads);
+        profile.gcArguments.add("-XX:ConcGCThreads=" + concurrentGcThreads);
+
+        return profile;
+    }
+
+    /**
+     * Shenandoah isn't included in Oracle's builds of Java, so only use it when we know the vendor includes it.
+     */
+    private static boolean supportsShenandoah(String javaImplementor) {
+        return javaImplementor != null && !javaImplementor.toLowerCase(Locale.ENGLISH).contains("oracle");
+    }
+
+    /**
+     * Checks if the given Java argument is one that the tuning profile sets, and so should be replaced by it.
+     *
+     * @param argument the argument to check
+     * @return if the argument is replaced by the profile
+     */
+    public static boolean isTuningArgument(String argument) {
+        return argument.startsWith("-Xmx") || argument.startsWith("-Xms")
+            || (argument.startsWith("-XX:+Use") && argument.endsWith("GC"))
+            || (argument.startsWith("-XX:-Use") && argument.endsWith("GC"))
+            || argument.startsWith("-XX:G1") || argument.startsWith("-XX:MaxGCPauseMillis")
+            || argument.startsWith("-XX:ParallelGCThreads") || argument.startsWith("-XX:ConcGCThreads")
+            || argument.startsWith("-XX:+ParallelRefProcEnabled") || argument.contains("ZGenerational")
+            || argument.startsWith("-XX:Shenandoah");
+    }
+
+    public List<String> getArguments() {
+        List<String> arguments = new ArrayList<>(heapArguments);
+        arguments.addAll(gcArguments);
+
+        return arguments;
+    }
+}
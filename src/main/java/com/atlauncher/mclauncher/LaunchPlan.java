@@ -0,0 +1,356 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.constants.Constants;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.minecraft.Library;
+import com.atlauncher.managers.LWJGLManager;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.Pair;
+import com.atlauncher.utils.Utils;
+
+/**
+ * The parts of the launch command for an instance which only change when the instance itself changes: the resolved
+ * classpath and the jvm/game arguments, split up into tokens so that placeholders can be filled in quickly at launch.
+ *
+ * Plans are cached in memory and saved to the cache folder (which is also handy for seeing exactly what an instance
+ * launches with), and are thrown away whenever the location, Minecraft version, pack version, loader, libraries,
+ * arguments, jar mods or custom libraries of the instance change. Only the names and paths of the libraries and the
+ * raw argument strings go into the key, which is much cheaper than compiling the plan.
+ */
+public class LaunchPlan {
+    private static final Map<UUID, LaunchPlan> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Hash of everything the plan was compiled from.
+     */
+    public String key;
+
+    public String classpath;
+    public boolean hasCustomJarMods;
+    public List<String> customLibraries = new ArrayList<>();
+    public List<ArgumentTemplate> jvmArguments = new ArrayList<>();
+    public List<ArgumentTemplate> gameArguments = new ArrayList<>();
+
+    /**
+     * Gets the launch plan for the given instance, compiling it if there isn't an up to date one cached.
+     *
+     * @param instance the instance to get the launch plan for
+     * @return the launch plan
+     */
+    public static LaunchPlan forInstance(Instance instance) {
+        String key = getKey(instance);
+
+        LaunchPlan plan = PLANS.get(instance.getUUID());
+        if (plan == null) {
+            plan = read(instance);
+        }
+
+        if (plan != null && key.equals(plan.key)) {
+            LogManager.debug("Using cached launch plan for " + instance.getName());
+            return plan;
+        }
+
+        plan = compile(instance, key);
+        PLANS.put(instance.getUUID(), plan);
+        save(instance, plan);
+
+        return plan;
+    }
+
+    private static String getKey(Instance instance) {
+        List<String> parts = new ArrayList<>();
+
+        parts.add(Constants.VERSION.toString());
+        parts.add(FileSystem.LIBRARIES.toAbsolutePath().toString());
+        parts.add(instance.getRootDirectory().getAbsolutePath());
+        parts.add(instance.id);
+        parts.add(instance.getMainClass());
+        parts.add(instance.downloads == null || instance.downloads.client == null ? ""
+            : instance.downloads.client.sha1);
+        parts.add(instance.launcher.version);
+        parts.add(instance.launcher.hash);
+        parts.add(instance.launcher.loaderVersion == null ? ""
+            : instance.launcher.loaderVersion.type + ":" + instance.launcher.loaderVersion.version);
+        parts.add(String.valueOf(LWJGLManager.shouldReplaceLWJGL3(instance)));
+        parts.add(String.valueOf(instance.usesCustomMinecraftJar()));
+        parts.add(String.valueOf(instance.usesLegacyLaunch()));
+
+        // adding or removing a file changes the folders modified time, so this is enough to know if it's changed
+        parts.add(String.valueOf(instance.getJarModsDirectory().lastModified()));
+        parts.add(String.valueOf(instance.getBinDirectory().lastModified()));
+
+        // the libraries and arguments can change without any of the above changing, such as when instance.json is
+        // edited or a library is overridden, so their names, paths and raw strings are part of the key too
+        boolean replaceLWJGL3 = LWJGLManager.shouldReplaceLWJGL3(instance);
+        for (Library library : instance.libraries) {
+            Library launchedLibrary = replaceLWJGL3 ? LWJGLManager.getReplacementLWJGL3Library(instance, library)
+                : library;
+
+            parts.add(getLibraryKey(launchedLibrary));
+        }
+
+        if (instance.arguments != null) {
+            parts.add(String.join(" ", instance.arguments.jvmAsStringList()));
+            parts.add(String.join(" ", instance.arguments.gameAsStringList()));
+        }
+
+        return Hashing.sha1(String.join("\n", parts)).toString();
+    }
+
+    private static String getLibraryKey(Library library) {
+        StringBuilder sb = new StringBuilder(library.name);
+
+        if (library.downloads != null && library.downloads.artifact != null) {
+            sb.append('|').append(library.downloads.artifact.path);
+        }
+
+        if (library.hasNativeForOS()) {
+            sb.append('|').append(library.getNativeDownloadForOS().path);
+        }
+
+        return sb.toString();
+    }
+
+    private static LaunchPlan compile(Instance instance, String key) {
+        LaunchPlan plan = new LaunchPlan();
+        plan.key = key;
+
+        StringBuilder cpb = new StringBuilder();
+
+        File jarMods = instance.getJarModsDirectory();
+        File[] jarModFiles = jarMods.listFiles();
+        if (jarMods.exists() && jarModFiles != null) {
+            for (File file : jarModFiles) {
+                plan.hasCustomJarMods = true;
+                cpb.append(file.getAbsolutePath());
+                cpb.append(File.pathSeparator);
+            }
+        }
+
+        Map<String, Library> dedupedLibraries = new LinkedHashMap<>();
+        instance.libraries.stream().filter(
+                library -> library.shouldInstall() && library.downloads.artifact != null && !library.hasNativeForOS())
+            .filter(library -> library.downloads.artifact != null && library.downloads.artifact.path != null)
+            .map(l -> LWJGLManager.shouldReplaceLWJGL3(instance)
+                ? LWJGLManager.getReplacementLWJGL3Library(instance, l)
+                : l)
+            .forEach(library -> {
+                try {
+                    Pair<String, String> libraryName = Utils.convertMavenIdentifierToNameAndVersion(library.name);
+
+                    if (dedupedLibraries.containsKey(libraryName.left())) {
+                        Library existingLibrary = dedupedLibraries.get(libraryName.left());
+
+                        String existingVersion = Utils.convertMavenIdentifierToNameAndVersion(existingLibrary.name)
+                            .right();
+                        String libraryVersion = Utils.convertMavenIdentifierToNameAndVersion(library.name).right();
+
+                        if (Utils.compareVersions(libraryVersion, existingVersion) == 1) {
+                            dedupedLibraries.put(libraryName.left(), library);
+                        }
+                    } else {
+                        dedupedLibraries.put(libraryName.left(), library);
+                    }
+                } catch (Throwable throwable) {
+                    LogManager.logStackTrace("Failed to dedupe library " + library.name + ". Adding regardless.",
+                        throwable);
+
+                    // worse case scenario, just add it to the list
+                    dedupedLibraries.put(library.name, library);
+                }
+            });
+
+        dedupedLibraries.values().stream()
+            .forEach(library -> {
+                String path = FileSystem.LIBRARIES.resolve(library.downloads.artifact.path).toFile()
+                    .getAbsolutePath();
+
+                if (cpb.indexOf(path) == -1) {
+                    cpb.append(path);
+                    cpb.append(File.pathSeparator);
+                }
+            });
+
+        instance.libraries.stream().filter(Library::hasNativeForOS)
+            .map(l -> LWJGLManager.shouldReplaceLWJGL3(instance)
+                ? LWJGLManager.getReplacementLWJGL3Library(instance, l)
+                : l)
+            .forEach(library -> {
+                com.atlauncher.data.minecraft.Download download = library.getNativeDownloadForOS();
+
+                cpb.append(FileSystem.LIBRARIES.resolve(download.path).toFile().getAbsolutePath());
+                cpb.append(File.pathSeparator);
+            });
+
+        File binFolder = instance.getBinDirectory();
+        File[] libraryFiles = binFolder.listFiles();
+        if (binFolder.exists() && libraryFiles != null) {
+            for (File file : libraryFiles) {
+                if (!file.getName().equalsIgnoreCase("minecraft.jar")
+                    && !file.getName().equalsIgnoreCase("modpack.jar")
+                    && (file.getName().endsWith(".jar") || file.getName().endsWith(".zip"))) {
+                    plan.customLibraries.add(file.getName());
+
+                    cpb.append(file);
+                    cpb.append(File.pathSeparator);
+                }
+            }
+        }
+
+        // add minecraft client jar last
+        if (instance.usesCustomMinecraftJar()) {
+            cpb.append(instance.getCustomMinecraftJar().getAbsolutePath());
+        } else {
+            cpb.append(instance.getMinecraftJar().getAbsolutePath());
+        }
+
+        if (instance.usesLegacyLaunch()) {
+            cpb.append(File.pathSeparator);
+            cpb.append(FileSystem.LIBRARIES.resolve("launcher/legacy-launch.jar").toAbsolutePath().toString());
+        }
+
+        plan.classpath = cpb.toString();
+
+        for (String argument : instance.arguments.jvmAsStringList()) {
+            if (!MCLauncher.IGNORED_ARGUMENTS.contains(argument)) {
+                plan.jvmArguments.add(ArgumentTemplate.compile(argument));
+            }
+        }
+
+        for (String argument : instance.arguments.gameAsStringList()) {
+            if (!MCLauncher.IGNORED_ARGUMENTS.contains(argument)) {
+                plan.gameArguments.add(ArgumentTemplate.compile(argument));
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Removes the cached launch plan for the given instance, such as when the instance is deleted.
+     *
+     * @param instance the instance to remove the launch plan for
+     */
+    public static void delete(Instance instance) {
+        PLANS.remove(instance.getUUID());
+
+        try {
+            Files.deleteIfExists(getPath(instance));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception deleting launch plan", e, false);
+        }
+    }
+
+    private static Path getPath(Instance instance) {
+        return FileSystem.LAUNCH_PLANS.resolve(instance.getUUID().toString() + ".json");
+    }
+
+    private static LaunchPlan read(Instance instance) {
+        Path path = getPath(instance);
+
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (InputStreamReader fileReader = new InputStreamReader(Files.newInputStream(path),
+            StandardCharsets.UTF_8)) {
+            return Gsons.DEFAULT.fromJson(fileReader, LaunchPlan.class);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception reading launch plan", e, false);
+            return null;
+        }
+    }
+
+    private static void save(Instance instance, LaunchPlan plan) {
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(Files.newOutputStream(getPath(instance)),
+            StandardCharsets.UTF_8)) {
+            Gsons.DEFAULT.toJson(plan, fileWriter);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception saving launch plan", e, false);
+        }
+    }
+
+    /**
+     * An argument split up into literal text and ${placeholder} tokens.
+     */
+    public static class ArgumentTemplate {
+        public List<String> tokens = new ArrayList<>();
+
+        public static ArgumentTemplate compile(String argument) {
+            ArgumentTemplate template = new ArgumentTemplate();
+
+            int position = 0;
+            while (position < argument.length()) {
+                int start = argument.indexOf("${", position);
+                int end = start == -1 ? -1 : argument.indexOf('}', start);
+
+                if (start == -1 || end == -1) {
+                    template.tokens.add(argument.substring(position));
+                    break;
+                }
+
+                if (start > position) {
+                    template.tokens.add(argument.substring(position, start));
+                }
+
+                template.tokens.add(argument.substring(start, end + 1));
+                position = end + 1;
+            }
+
+            return template;
+        }
+
+        /**
+         * Fills in the placeholders with the given values. Placeholders without a value are left as is.
+         *
+         * @param values map of placeholder (including the ${}) to the value to replace it with
+         * @return the argument
+         */
+        public String render(Map<String, String> values) {
+            if (tokens.size() == 1) {
+                return values.getOrDefault(tokens.get(0), tokens.get(0));
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (String token : tokens) {
+                sb.append(values.getOrDefault(token, token));
+            }
+
+            return sb.toString();
+        }
+    }
+}
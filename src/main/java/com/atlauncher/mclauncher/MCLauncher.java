@@ -24,10 +24,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.atlauncher.App;
@@ -38,14 +39,11 @@ import com.atlauncher.data.Instance;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.QuickPlayOption;
 import com.atlauncher.data.json.QuickPlay;
-import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.LoggingClient;
-import com.atlauncher.managers.LWJGLManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
-import com.atlauncher.utils.Pair;
 import com.atlauncher.utils.Utils;
 
 public class MCLauncher {
@@ -107,7 +105,7 @@ public class MCLauncher {
                             && (file.toString().endsWith(".jar") || file.toString().endsWith(".zip")))
                         .forEach(file -> {
                             String filename = file.toString().replace(modsFolder.toString(), "");
-                            DisableableMod mod = instance.launcher.mods.parallelStream()
+                            DisableableMod mod = instance.launcher.mods.stream()
                                 .filter(m -> filename.contains(m.file)).findFirst().orElse(null);
 
                             boolean isCustomAdded = filename.lastIndexOf(File.separator) == 0
@@ -164,9 +162,6 @@ public class MCLauncher {
 
     private static List<String> getArguments(MicrosoftAccount account, Instance instance, String props,
         String nativesDir, Path lwjglNativesTempDir, String username) {
-        StringBuilder cpb = new StringBuilder();
-        boolean hasCustomJarMods = false;
-
         ErrorReporting.recordInstancePlay(instance.getPackName(), instance.getVersion(), instance.getLoaderVersion(),
             2);
 
@@ -175,92 +170,8 @@ public class MCLauncher {
         String javaArguments = Optional.ofNullable(instance.launcher.javaArguments).orElse(App.settings.javaParameters);
         String javaPath = instance.getJavaPath();
 
-        File jarMods = instance.getJarModsDirectory();
-        File[] jarModFiles = jarMods.listFiles();
-        if (jarMods.exists() && jarModFiles != null) {
-            for (File file : jarModFiles) {
-                hasCustomJarMods = true;
-                cpb.append(file.getAbsolutePath());
-                cpb.append(File.pathSeparator);
-            }
-        }
-
-        Map<String, Library> dedupedLibraries = new LinkedHashMap<>();
-        instance.libraries.stream().filter(
-                library -> library.shouldInstall() && library.downloads.artifact != null && !library.hasNativeForOS())
-            .filter(library -> library.downloads.artifact != null && library.downloads.artifact.path != null)
-            .map(l -> LWJGLManager.shouldReplaceLWJGL3(instance)
-                ? LWJGLManager.getReplacementLWJGL3Library(instance, l)
-                : l)
-            .forEach(library -> {
-                try {
-                    Pair<String, String> libraryName = Utils.convertMavenIdentifierToNameAndVersion(library.name);
-
-                    if (dedupedLibraries.containsKey(libraryName.left())) {
-                        Library existingLibrary = dedupedLibraries.get(libraryName.left());
-
-                        String existingVersion = Utils.convertMavenIdentifierToNameAndVersion(existingLibrary.name)
-                            .right();
-                        String libraryVersion = Utils.convertMavenIdentifierToNameAndVersion(library.name).right();
-
-                        if (Utils.compareVersions(libraryVersion, existingVersion) == 1) {
-                            dedupedLibraries.put(libraryName.left(), library);
-                        }
-                    } else {
-                        dedupedLibraries.put(libraryName.left(), library);
-                    }
-                } catch (Throwable throwable) {
-                    LogManager.logStackTrace("Failed to dedupe library " + library.name + ". Adding regardless.",
-                        throwable);
-
-                    // worse case scenario, just add it to the list
-                    dedupedLibraries.put(library.name, library);
-                }
-            });
-
-        dedupedLibraries.values().stream()
-            .forEach(library -> {
-                String path = FileSystem.LIBRARIES.resolve(library.downloads.artifact.path).toFile()
-                    .getAbsolutePath();
-
-                if (cpb.indexOf(path) == -1) {
-                    cpb.append(path);
-                    cpb.append(File.pathSeparator);
-                }
-            });
-
-        instance.libraries.stream().filter(Library::hasNativeForOS)
-            .map(l -> LWJGLManager.shouldReplaceLWJGL3(instance)
-                ? LWJGLManager.getReplacementLWJGL3Library(instance, l)
-                : l)
-            .forEach(library -> {
-                com.atlauncher.data.minecraft.Download download = library.getNativeDownloadForOS();
-
-                cpb.append(FileSystem.LIBRARIES.resolve(download.path).toFile().getAbsolutePath());
-                cpb.append(File.pathSeparator);
-            });
-
-        File binFolder = instance.getBinDirectory();
-        File[] libraryFiles = binFolder.listFiles();
-        if (binFolder.exists() && libraryFiles != null) {
-            for (File file : libraryFiles) {
-                if (!file.getName().equalsIgnoreCase("minecraft.jar")
-                    && !file.getName().equalsIgnoreCase("modpack.jar")
-                    && (file.getName().endsWith(".jar") || file.getName().endsWith(".zip"))) {
-                    LogManager.info("Added in custom library " + file.getName());
-
-                    cpb.append(file);
-                    cpb.append(File.pathSeparator);
-                }
-            }
-        }
-
-        // add minecraft client jar last
-        if (instance.usesCustomMinecraftJar()) {
-            cpb.append(instance.getCustomMinecraftJar().getAbsolutePath());
-        } else {
-            cpb.append(instance.getMinecraftJar().getAbsolutePath());
-        }
+        LaunchPlan launchPlan = LaunchPlan.forInstance(instance);
+        launchPlan.customLibraries.forEach(name -> LogManager.info("Added in custom library " + name));
 
         if (instance.usesLegacyLaunch()) {
             Path legacyLaunchJarPath = FileSystem.LIBRARIES.resolve("launcher/legacy-launch.jar");
@@ -272,9 +183,6 @@ public class MCLauncher {
             } catch (IOException e) {
                 LogManager.logStackTrace("Failed to copy legacy-launch.jar to libraries folder", e);
             }
-
-            cpb.append(File.pathSeparator);
-            cpb.append(legacyLaunchJarPath.toAbsolutePath().toString());
         }
 
         List<String> arguments = new ArrayList<>();
@@ -289,14 +197,30 @@ public class MCLauncher {
         }
         arguments.add(path);
 
+        String manualMaximumMemoryArgument;
         if (OS.getMaximumRam() != 0 && maximumMemory < instance.getMemory()) {
             if ((OS.getMaximumRam() / 2) < instance.getMemory()) {
-                arguments.add("-Xmx" + maximumMemory + "M");
+                manualMaximumMemoryArgument = "-Xmx" + maximumMemory + "M";
             } else {
-                arguments.add("-Xmx" + instance.getMemory() + "M");
+                manualMaximumMemoryArgument = "-Xmx" + instance.getMemory() + "M";
             }
         } else {
-            arguments.add("-Xmx" + maximumMemory + "M");
+            manualMaximumMemoryArgument = "-Xmx" + maximumMemory + "M";
+        }
+
+        JvmTuningProfile tuningProfile = null;
+        if (JvmTuningProfile.isEnabled(instance)) {
+            tuningProfile = JvmTuningProfile.compute(instance);
+
+            LogManager.info("Using auto JVM tuning profile based on " + tuningProfile.inputs);
+            LogManager.info("Auto JVM tuning profile flags: " + String.join(" ", tuningProfile.getArguments()));
+            LogManager.info("Flags from settings that were replaced: " + manualMaximumMemoryArgument + " "
+                + Arrays.stream(javaArguments.split(" ")).filter(JvmTuningProfile::isTuningArgument)
+                    .collect(Collectors.joining(" ")));
+
+            arguments.addAll(tuningProfile.heapArguments);
+        } else {
+            arguments.add(manualMaximumMemoryArgument);
         }
 
         if (OS.getMaximumRam() != 0 && permGen < instance.getPermGen()
@@ -317,7 +241,7 @@ public class MCLauncher {
         arguments.add("-Duser.language=en");
         arguments.add("-Duser.country=US");
 
-        if (hasCustomJarMods) {
+        if (launchPlan.hasCustomJarMods) {
             System.out.println("OH NOES! Avert your eyes!");
             arguments.add("-Dfml.ignorePatchDiscrepancies=true");
             arguments.add("-Dfml.ignoreInvalidMinecraftCertificates=true");
@@ -346,20 +270,23 @@ public class MCLauncher {
 
         if (!javaArguments.isEmpty()) {
             for (String arg : javaArguments.split(" ")) {
-                if (!arg.isEmpty()) {
+                if (!arg.isEmpty() && (tuningProfile == null || !JvmTuningProfile.isTuningArgument(arg))) {
                     arguments.add(arg);
                 }
             }
         }
 
-        String classpath = cpb.toString();
+        if (tuningProfile != null) {
+            arguments.addAll(tuningProfile.gcArguments);
+        }
 
-        for (String argument : instance.arguments.jvmAsStringList()) {
-            if (IGNORED_ARGUMENTS.contains(argument)) {
-                continue;
-            }
+        arguments.addAll(AppCDS.getArguments(instance, javaPath, launchPlan.classpath, javaArguments));
 
-            arguments.add(replaceArgument(argument, instance, account, props, nativesDir, classpath, username));
+        Map<String, String> argumentValues = getArgumentValues(instance, account, props, nativesDir,
+            launchPlan.classpath, username);
+
+        for (LaunchPlan.ArgumentTemplate argument : launchPlan.jvmArguments) {
+            arguments.add(argument.render(argumentValues));
         }
 
         if (OS.isWindows() && !arguments
@@ -380,7 +307,7 @@ public class MCLauncher {
         // if there's no classpath already, then add it (for older versions)
         if (!arguments.contains("-cp")) {
             arguments.add("-cp");
-            arguments.add(cpb.toString());
+            arguments.add(launchPlan.classpath);
         }
 
         if (instance.usesLegacyLaunch()) {
@@ -402,12 +329,8 @@ public class MCLauncher {
         }
 
         if (!instance.usesLegacyLaunch()) {
-            for (String argument : instance.arguments.gameAsStringList()) {
-                if (IGNORED_ARGUMENTS.contains(argument)) {
-                    continue;
-                }
-
-                arguments.add(replaceArgument(argument, instance, account, props, nativesDir, classpath, username));
+            for (LaunchPlan.ArgumentTemplate argument : launchPlan.gameArguments) {
+                arguments.add(argument.render(argumentValues));
             }
 
             if (App.settings.maximiseMinecraft) {
@@ -463,31 +386,31 @@ public class MCLauncher {
         return arguments;
     }
 
-    private static String replaceArgument(String incomingArgument, Instance instance, MicrosoftAccount account,
-        String props, String nativesDir, String classpath, String username) {
-        String argument = incomingArgument;
-
-        argument = argument.replace("${auth_player_name}", username);
-        argument = argument.replace("${profile_name}", instance.getName());
-        argument = argument.replace("${user_properties}", Optional.ofNullable(props).orElse("[]"));
-        argument = argument.replace("${version_name}", instance.getMinecraftVersion());
-        argument = argument.replace("${game_directory}", instance.getRootDirectory().getAbsolutePath());
-        argument = argument.replace("${game_assets}", instance.getAssetsDir().getAbsolutePath());
-        argument = argument.replace("${assets_root}", FileSystem.ASSETS.toAbsolutePath().toString());
-        argument = argument.replace("${assets_index_name}", instance.getAssets());
-        argument = argument.replace("${auth_uuid}", account.getRealUUID().toString());
-        argument = argument.replace("${auth_access_token}", account.getAccessToken());
-        argument = argument.replace("${version_type}", instance.type.getValue());
-        argument = argument.replace("${launcher_name}", Constants.LAUNCHER_NAME);
-        argument = argument.replace("${launcher_version}", Constants.VERSION.toStringForLogging());
-        argument = argument.replace("${natives_directory}", nativesDir);
-        argument = argument.replace("${user_type}", account.getUserType());
-        argument = argument.replace("${auth_session}", account.getSessionToken());
-        argument = argument.replace("${library_directory}", FileSystem.LIBRARIES.toAbsolutePath().toString());
-        argument = argument.replace("${classpath}", classpath);
-        argument = argument.replace("${classpath_separator}", File.pathSeparator);
-
-        return argument;
+    private static Map<String, String> getArgumentValues(Instance instance, MicrosoftAccount account, String props,
+        String nativesDir, String classpath, String username) {
+        Map<String, String> values = new HashMap<>();
+
+        values.put("${auth_player_name}", username);
+        values.put("${profile_name}", instance.getName());
+        values.put("${user_properties}", Optional.ofNullable(props).orElse("[]"));
+        values.put("${version_name}", instance.getMinecraftVersion());
+        values.put("${game_directory}", instance.getRootDirectory().getAbsolutePath());
+        values.put("${game_assets}", instance.getAssetsDir().getAbsolutePath());
+        values.put("${assets_root}", FileSystem.ASSETS.toAbsolutePath().toString());
+        values.put("${assets_index_name}", instance.getAssets());
+        values.put("${auth_uuid}", account.getRealUUID().toString());
+        values.put("${auth_access_token}", account.getAccessToken());
+        values.put("${version_type}", instance.type.getValue());
+        values.put("${launcher_name}", Constants.LAUNCHER_NAME);
+        values.put("${launcher_version}", Constants.VERSION.toStringForLogging());
+        values.put("${natives_directory}", nativesDir);
+        values.put("${user_type}", account.getUserType());
+        values.put("${auth_session}", account.getSessionToken());
+        values.put("${library_directory}", FileSystem.LIBRARIES.toAbsolutePath().toString());
+        values.put("${classpath}", classpath);
+        values.put("${classpath_separator}", File.pathSeparator);
+
+        return values;
     }
 
     private static String censorArguments(List<String> arguments, MicrosoftAccount account, String props,
@@ -35,6 +35,7 @@ import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
@@ -63,6 +64,7 @@ public final class Download {
     private boolean forceDownload = false;
     private boolean ignoreFailures = false;
     private boolean deleteAfterExtract = false;
+    private boolean useModStore = false;
     private String hash;
     private Long fingerprint = null;
     public long size = -1L;
@@ -216,6 +218,16 @@ public final class Download {
         return this;
     }
 
+    /**
+     * Places the file at the copyTo path by linking it from the shared mod store (if it's enabled) rather than
+     * copying it.
+     */
+    public Download useModStore() {
+        this.useModStore = true;
+
+        return this;
+    }
+
     public Download setUrl(String url) {
         this.url = url;
         return this;
@@ -512,7 +524,11 @@ public final class Download {
                 FileUtils.createDirectory(this.copyTo.getParent());
             }
 
-            FileUtils.copyFile(this.to, this.copyTo, true);
+            if (this.useModStore) {
+                ModStoreManager.installFile(this.to, this.copyTo);
+            } else {
+                FileUtils.copyFile(this.to, this.copyTo, true);
+            }
         }
     }
 
@@ -19,13 +19,19 @@ package com.atlauncher.network;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
 
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
 import com.atlauncher.managers.LogManager;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import okhttp3.CacheControl;
 import okhttp3.Headers;
@@ -132,6 +138,33 @@ public class NetworkClient {
         return makeRequest(url, null, null, type, cacheControl);
     }
 
+    /**
+     * Makes a request for a {@link ResponseCache} loader, which needs to tell things that don't exist apart from
+     * requests that failed.
+     *
+     * @return the parsed response, or null if the request failed
+     * @throws ResponseCache.NotFoundException if the response was a 404
+     */
+    @Nullable
+    public static <T> T getCachedOrNotFound(String url, @Nullable Headers headers, Class<T> tClass,
+        @Nullable CacheControl cacheControl) throws ResponseCache.NotFoundException {
+        return getCachedOrNotFound(url, headers, TypeToken.get(tClass).getType(), cacheControl);
+    }
+
+    @Nullable
+    public static <T> T getCachedOrNotFound(String url, @Nullable Headers headers, Type type,
+        @Nullable CacheControl cacheControl) throws ResponseCache.NotFoundException {
+        try {
+            return makeRequest(url, headers, null, type, cacheControl);
+        } catch (DownloadException e) {
+            if (e.statusCode != null && e.statusCode == 404) {
+                throw new ResponseCache.NotFoundException(url + " wasn't found");
+            }
+
+            return null;
+        }
+    }
+
     @Nullable
     public static <T> T post(String url, RequestBody body, Class<T> tClass) {
         try {
@@ -180,6 +213,71 @@ public class NetworkClient {
         return makeRequest(url, headers, body, type, null);
     }
 
+    /**
+     * Gets a list of elements from a json response, keeping only the elements which match the given filter. The
+     * response is parsed as it's read, one element at a time, so elements which don't match are discarded straight
+     * away rather than the whole list being held in memory first.
+     *
+     * @param url          the url to get
+     * @param headers      the headers to send
+     * @param arrayField   the field in the top level object that holds the array, or null if the response is an array
+     * @param elementType  the type of each element in the array
+     * @param filter       the filter to apply to each element
+     * @param cacheControl the cache control to use, if any
+     * @return the matching elements, or null if the request failed
+     */
+    @Nullable
+    public static <T> List<T> getFilteredList(String url, @Nullable Headers headers, @Nullable String arrayField,
+        Class<T> elementType, Predicate<T> filter, @Nullable CacheControl cacheControl) {
+        try {
+            return executeRequest(url, headers, null, cacheControl, reader -> {
+                if (arrayField != null && !moveToField(reader, arrayField)) {
+                    return null;
+                }
+
+                if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    return null;
+                }
+
+                List<T> elements = new ArrayList<>();
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    T element = Gsons.DEFAULT.fromJson(reader, elementType);
+
+                    if (element != null && filter.test(element)) {
+                        elements.add(element);
+                    }
+                }
+                reader.endArray();
+
+                return elements;
+            });
+        } catch (DownloadException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Moves the reader to the value of the given field in the object it's at, skipping over any other fields.
+     */
+    private static boolean moveToField(JsonReader reader, String field) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return false;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(field)) {
+                return true;
+            }
+
+            reader.skipValue();
+        }
+
+        return false;
+    }
+
     @Nullable
     private static <T> T makeRequest(String url, @Nullable Headers headers, @Nullable RequestBody requestBody,
         Class<T> tClass, @Nullable CacheControl cacheControl) throws DownloadException {
@@ -189,6 +287,13 @@ public class NetworkClient {
     @Nullable
     private static <T> T makeRequest(String url, @Nullable Headers headers, @Nullable RequestBody requestBody,
         Type type, @Nullable CacheControl cacheControl) throws DownloadException {
+        return executeRequest(url, headers, requestBody, cacheControl,
+            reader -> Gsons.DEFAULT.fromJson(reader, type));
+    }
+
+    @Nullable
+    private static <T> T executeRequest(String url, @Nullable Headers headers, @Nullable RequestBody requestBody,
+        @Nullable CacheControl cacheControl, ResponseReader<T> responseReader) throws DownloadException {
         Request.Builder builder = new Request.Builder().url(url);
 
         if (headers != null) {
@@ -221,12 +326,20 @@ public class NetworkClient {
                 return null;
             }
 
-            return Gsons.DEFAULT.fromJson(body.string(), type);
+            // decode straight from the response as it's read, rather than buffering the whole body into a string
+            try (JsonReader reader = Gsons.DEFAULT.newJsonReader(body.charStream())) {
+                return responseReader.read(reader);
+            }
         } catch (DownloadException e) {
             throw e; // Re-throw DownloadException
-        } catch (IOException e) {
+        } catch (IOException | JsonIOException e) {
             LogManager.logStackTrace(String.format("Error calling %s", url), e, false);
             return null;
         }
     }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
 }
@@ -0,0 +1,316 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import com.atlauncher.managers.LogManager;
+
+/**
+ * In memory cache for parsed API responses that sits in front of {@link NetworkClient}.
+ * <p>
+ * Entries are keyed by what was requested (project id, file id, hash, etc) rather than by url and expire after a TTL.
+ * Things that don't exist (a 404, or an id left out of a bulk response) are cached for a shorter TTL so that repeatedly
+ * asking for them doesn't hit the network each time, but failed requests aren't cached, so a network error doesn't stop
+ * the next caller from trying again. Concurrent requests for the same key are coalesced so that only one of them
+ * actually makes the request, with the rest waiting on and sharing its result.
+ * <p>
+ * Values are handed out as they're cached and shared between everyone asking for them, so they mustn't be modified.
+ * Callers that need to change what they get back should copy it first.
+ *
+ * @param <K> type of the key the responses are looked up by
+ * @param <V> type of the parsed response
+ */
+public class ResponseCache<K, V> {
+    private static final List<ResponseCache<?, ?>> CACHES = Collections.synchronizedList(new ArrayList<>());
+
+    private static final Duration DEFAULT_NOT_FOUND_TTL = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_ENTRIES = 2000;
+
+    private final String name;
+    private final long ttlMillis;
+    private final long notFoundTtlMillis;
+    private final int maxEntries;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong notFoundHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public ResponseCache(String name, Duration ttl) {
+        this(name, ttl, DEFAULT_NOT_FOUND_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ResponseCache(String name, Duration ttl, Duration notFoundTtl, int maxEntries) {
+        this.name = name;
+        this.ttlMillis = ttl.toMillis();
+        this.notFoundTtlMillis = notFoundTtl.toMillis();
+        this.maxEntries = maxEntries;
+
+        CACHES.add(this);
+    }
+
+    /**
+     * Gets the value for the given key, calling the loader to fetch it if it's not cached or has expired.
+     * <p>
+     * If another thread is already loading the same key, this will wait for it to finish and return its result
+     * instead of calling the loader again. A null result from the loader is a failure and isn't cached, while a loader
+     * throwing {@link NotFoundException} is cached as not found.
+     *
+     * @param key    the key to look up
+     * @param loader the function to call to load the value if it's not cached
+     * @return the cached or loaded value
+     */
+    @Nullable
+    public V get(K key, Loader<V> loader) {
+        while (true) {
+            Entry<V> entry = entries.get(key);
+
+            if (entry != null) {
+                if (!entry.future.isDone()) {
+                    coalesced.incrementAndGet();
+
+                    try {
+                        return entry.future.join();
+                    } catch (CompletionException e) {
+                        return null;
+                    }
+                }
+
+                if (!entry.isExpired()) {
+                    V value = entry.future.getNow(null);
+
+                    if (value == null) {
+                        notFoundHits.incrementAndGet();
+                    } else {
+                        hits.incrementAndGet();
+                    }
+
+                    return value;
+                }
+
+                entries.remove(key, entry);
+            }
+
+            Entry<V> newEntry = new Entry<>();
+            if (entries.putIfAbsent(key, newEntry) != null) {
+                // someone else started loading this key first, so go around again and wait for them
+                continue;
+            }
+
+            misses.incrementAndGet();
+
+            V value;
+            try {
+                value = loader.load();
+
+                if (value == null) {
+                    entries.remove(key, newEntry);
+                    newEntry.future.complete(null);
+                    return null;
+                }
+            } catch (NotFoundException e) {
+                value = null;
+            } catch (RuntimeException e) {
+                entries.remove(key, newEntry);
+                newEntry.future.completeExceptionally(e);
+                throw e;
+            }
+
+            complete(newEntry, value);
+            pruneIfNeeded();
+
+            return value;
+        }
+    }
+
+    /**
+     * Gets the value for the given key if it's cached and hasn't expired, without loading it.
+     *
+     * @param key the key to look up
+     * @return the cached value, or null if not cached (or cached as not found)
+     */
+    @Nullable
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+
+        if (entry == null || !entry.future.isDone() || entry.isExpired()) {
+            return null;
+        }
+
+        V value = entry.future.getNow(null);
+        if (value == null) {
+            notFoundHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * Checks if there is an unexpired result (including not found) cached for the given key.
+     *
+     * @param key the key to check
+     * @return if a result is cached
+     */
+    public boolean contains(K key) {
+        Entry<V> entry = entries.get(key);
+
+        return entry != null && entry.future.isDone() && !entry.isExpired();
+    }
+
+    /**
+     * Puts a value into the cache, such as from a bulk request. A null value is cached as not found, so it should
+     * only be used for things the response said don't exist, not for failed requests.
+     *
+     * @param key   the key to store the value under
+     * @param value the value to store
+     */
+    public void put(K key, @Nullable V value) {
+        Entry<V> entry = new Entry<>();
+        complete(entry, value);
+        entries.put(key, entry);
+
+        pruneIfNeeded();
+    }
+
+    /**
+     * Records a miss for a key that was fetched outside of {@link #get(Object, Loader)}, such as in a bulk request.
+     */
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getNotFoundHits() {
+        return notFoundHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void complete(Entry<V> entry, @Nullable V value) {
+        entry.expiresAt = System.currentTimeMillis() + (value == null ? notFoundTtlMillis : ttlMillis);
+        entry.future.complete(value);
+    }
+
+    private void pruneIfNeeded() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        entries.entrySet().removeIf(e -> e.getValue().future.isDone() && e.getValue().isExpired());
+
+        if (entries.size() > maxEntries) {
+            // still too big, so drop the entries closest to expiring until we're back under the limit
+            entries.entrySet().stream().filter(e -> e.getValue().future.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                .limit(entries.size() - maxEntries).map(Map.Entry::getKey).collect(Collectors.toList())
+                .forEach(entries::remove);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long total = hits.get() + notFoundHits.get() + misses.get() + coalesced.get();
+
+        return String.format(Locale.ENGLISH,
+            "%s: %d entries, %d hits, %d not found hits, %d misses, %d coalesced (%.1f%% hit rate)", name,
+            entries.size(), hits.get(), notFoundHits.get(), misses.get(), coalesced.get(),
+            total == 0 ? 0.0 : ((hits.get() + notFoundHits.get() + coalesced.get()) * 100.0) / total);
+    }
+
+    /**
+     * Logs the hit/miss counters of all the response caches to the debug log.
+     */
+    public static void logStats() {
+        synchronized (CACHES) {
+            CACHES.forEach(cache -> LogManager.debug(cache.toString()));
+        }
+    }
+
+    /**
+     * Loads a value for the cache.
+     *
+     * @param <V> type of the value
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        /**
+         * @return the loaded value, or null if it couldn't be loaded
+         * @throws NotFoundException if what was asked for doesn't exist
+         */
+        @Nullable
+        V load() throws NotFoundException;
+    }
+
+    /**
+     * Thrown by a {@link Loader} when the API says what was asked for doesn't exist, such as with a 404, so that it's
+     * cached as not found rather than treated as a failed request.
+     */
+    public static class NotFoundException extends Exception {
+        public NotFoundException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
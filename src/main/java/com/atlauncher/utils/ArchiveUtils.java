@@ -17,18 +17,35 @@
  */
 package com.atlauncher.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
 
 import javax.annotation.Nullable;
 
@@ -36,14 +53,37 @@ import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.DefaultBackingStoreSupplier;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.utils.IOUtils;
 import org.zeroturnaround.zip.NameMapper;
 import org.zeroturnaround.zip.ZipUtil;
 
+import com.atlauncher.FileSystem;
+import com.atlauncher.TaskPools;
 import com.atlauncher.managers.LogManager;
 
 public class ArchiveUtils {
+    /**
+     * Size of the buffers used when inflating entries in parallel.
+     */
+    private static final int EXTRACT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Archives with less uncompressed data than this aren't worth spinning up threads for.
+     */
+    private static final long PARALLEL_EXTRACT_MIN_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * Files with these extensions are already compressed, so are stored as is when creating zips rather than spending
+     * time deflating them again for little to no gain.
+     */
+    private static final String[] STORED_EXTENSIONS = { ".jar", ".zip", ".png", ".ogg" };
+
     public static boolean archiveContainsFile(Path archivePath, String file) {
         try {
             return ZipUtil.containsEntry(archivePath.toFile(), file);
@@ -138,11 +178,73 @@ public class ArchiveUtils {
         return contents;
     }
 
+    /**
+     * Opens the provided archive as a filesystem so that its entries can be read (and copied out) on demand from the
+     * archive's central directory, rather than extracting the whole archive to disk first.
+     *
+     * The returned path should never be written to or deleted from, as that would modify the archive itself. Once
+     * done with, it should be released with {@link #cleanupExtracted(Path)}.
+     *
+     * @param archivePath Path to the archive to open.
+     * @return the root path of the opened archive if successful, null otherwise
+     */
+    public static @Nullable Path openArchive(Path archivePath) {
+        try {
+            return FileSystems.newFileSystem(archivePath, (ClassLoader) null).getPath("/");
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to open archive " + archivePath.toAbsolutePath(), t, false);
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if the provided path lives inside an archive opened with {@link #openArchive(Path)}.
+     *
+     * @param path Path to check.
+     * @return true if the path is inside an opened archive
+     */
+    public static boolean isArchivePath(Path path) {
+        return path.getFileSystem() != FileSystems.getDefault();
+    }
+
+    /**
+     * Cleans up a path that an archive's contents were made available at. If the path is inside an archive opened
+     * with {@link #openArchive(Path)} then the archive is closed, otherwise it's treated as a temporary directory the
+     * archive was extracted to and is deleted.
+     *
+     * @param path Path the archive's contents were made available at.
+     */
+    public static void cleanupExtracted(Path path) {
+        if (!isArchivePath(path)) {
+            FileUtils.deleteDirectory(path);
+            return;
+        }
+
+        try {
+            path.getFileSystem().close();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to close archive " + path, e, false);
+        }
+    }
+
     public static boolean extract(Path archivePath, Path extractToPath) {
         return extract(archivePath, extractToPath, name -> name);
     }
 
     public static boolean extract(Path archivePath, Path extractToPath, NameMapper nameMapper) {
+        try {
+            extractInParallel(archivePath, extractToPath, nameMapper);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogManager.error("Interrupted while extracting " + archivePath.toAbsolutePath());
+            return false;
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to extracting sequentially
+            LogManager.logStackTrace("Failed to extract " + archivePath.toAbsolutePath() + " in parallel", t, false);
+        }
+
         try {
             ZipUtil.unpack(archivePath.toFile(), extractToPath.toFile(), nameMapper);
             return true;
@@ -159,24 +261,13 @@ public class ArchiveUtils {
                     continue;
                 }
 
-                Path outputPath;
                 String fileName = nameMapper.map(entry.getName());
 
                 if (fileName == null) {
                     continue;
                 }
 
-                try {
-                    outputPath = extractToPath.resolve(fileName);
-                } catch (InvalidPathException e) {
-                    String newFilename = fileName.replaceAll("[:*\\?\"<>|]", "");
-                    LogManager
-                            .warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
-                                    fileName, newFilename));
-                    outputPath = extractToPath.resolve(newFilename);
-                }
-
-                File f = outputPath.toFile();
+                File f = resolveEntryPath(extractToPath, fileName).toFile();
                 if (entry.isDirectory()) {
                     if (!f.isDirectory() && !f.mkdirs()) {
                         throw new IOException("Failed to create directory " + f);
@@ -199,11 +290,150 @@ public class ArchiveUtils {
         return true;
     }
 
+    /**
+     * Extracts an archive by reading its central directory once and then inflating the entries across multiple
+     * threads of the {@link TaskPools#CPU} pool, as each entry can be read independently from the archive. The
+     * directory tree is created upfront so that threads only ever write files, and each thread borrows its buffer from
+     * a pool sized to the thread count.
+     *
+     * Small archives are extracted on the calling thread, as the overhead of handing off to the pool isn't worth it.
+     */
+    private static void extractInParallel(Path archivePath, Path extractToPath, NameMapper nameMapper)
+            throws IOException, InterruptedException {
+        Path targetPath = extractToPath.toAbsolutePath().normalize();
+
+        try (ZipFile zipFile = ZipFile.builder().setPath(archivePath).get()) {
+            Map<Path, ZipArchiveEntry> files = new LinkedHashMap<>();
+            Set<Path> directories = new TreeSet<>();
+            long totalSize = 0;
+
+            directories.add(targetPath);
+
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                if (!zipFile.canReadEntryData(entry)) {
+                    LogManager.warn("Skipping unreadable entry " + entry.getName() + " in " + archivePath);
+                    continue;
+                }
+
+                String fileName = nameMapper.map(entry.getName());
+
+                if (fileName == null) {
+                    continue;
+                }
+
+                Path outputPath = resolveEntryPath(targetPath, fileName).normalize();
+
+                if (!outputPath.startsWith(targetPath)) {
+                    throw new IOException("Entry " + entry.getName() + " would be extracted outside of " + targetPath);
+                }
+
+                if (entry.isDirectory()) {
+                    directories.add(outputPath);
+                } else {
+                    // later entries with the same name win, same as extracting them in order would
+                    files.put(outputPath, entry);
+                    directories.add(outputPath.getParent());
+                    totalSize += Math.max(entry.getSize(), 0);
+                }
+            }
+
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+
+            // do the biggest entries first so that one large entry doesn't hold up the end of the extraction
+            List<Map.Entry<Path, ZipArchiveEntry>> work = new ArrayList<>(files.entrySet());
+            work.sort(Comparator.comparingLong(
+                    (Map.Entry<Path, ZipArchiveEntry> e) -> e.getValue().getSize()).reversed());
+
+            int threads = totalSize < PARALLEL_EXTRACT_MIN_SIZE ? 1
+                    : Math.max(1, Math.min(TaskPools.CPU.getMaxConcurrency(), work.size()));
+
+            BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(threads);
+            for (int i = 0; i < threads; i++) {
+                buffers.add(new byte[EXTRACT_BUFFER_SIZE]);
+            }
+
+            if (threads == 1) {
+                for (Map.Entry<Path, ZipArchiveEntry> file : work) {
+                    extractEntry(zipFile, file.getValue(), file.getKey(), buffers);
+                }
+
+                return;
+            }
+
+            try {
+                TaskPools.forEach(TaskPools.CPU, work, file -> {
+                    try {
+                        extractEntry(zipFile, file.getValue(), file.getKey(), buffers);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw new IOException("Failed to extract entry from " + archivePath, e.getCause());
+            } catch (IllegalStateException e) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted while extracting " + archivePath);
+                }
+
+                throw e;
+            }
+        }
+    }
+
+    private static void extractEntry(ZipFile zipFile, ZipArchiveEntry entry, Path outputPath,
+            BlockingQueue<byte[]> buffers) throws IOException, InterruptedException {
+        byte[] buffer = buffers.take();
+
+        try (InputStream is = zipFile.getInputStream(entry); OutputStream os = Files.newOutputStream(outputPath)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                os.write(buffer, 0, read);
+            }
+        } finally {
+            buffers.add(buffer);
+        }
+
+        // keep scripts in server packs executable
+        int unixMode = entry.getUnixMode();
+        if ((unixMode & 0100) != 0) {
+            outputPath.toFile().setExecutable(true, (unixMode & 011) == 0);
+        }
+    }
+
+    private static Path resolveEntryPath(Path extractToPath, String fileName) {
+        try {
+            return extractToPath.resolve(fileName);
+        } catch (InvalidPathException e) {
+            String newFilename = fileName.replaceAll("[:*\\?\"<>|]", "");
+            LogManager.warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
+                    fileName, newFilename));
+            return extractToPath.resolve(newFilename);
+        }
+    }
+
     public static boolean createZip(Path pathToCompress, Path archivePath) {
         return createZip(pathToCompress, archivePath, name -> name);
     }
 
     public static boolean createZip(Path pathToCompress, Path archivePath, NameMapper nameMapper) {
+        try {
+            createZipInParallel(pathToCompress, archivePath, nameMapper);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogManager.error("Interrupted while creating zip " + archivePath.toAbsolutePath());
+            return false;
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to creating the zip sequentially
+            LogManager.logStackTrace("Failed to create zip " + archivePath.toAbsolutePath() + " in parallel", t,
+                    false);
+        }
+
         try {
             ZipUtil.pack(pathToCompress.toFile(), archivePath.toFile(), nameMapper);
             return true;
@@ -220,6 +450,11 @@ public class ArchiveUtils {
              ArchiveOutputStream aos = new ArchiveStreamFactory().createArchiveOutputStream("ZIP", os)) {
 
             Files.walkFileTree(pathToCompress, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    return PathPrefixFilter.preVisitDirectory(nameMapper, getEntryName(pathToCompress, dir));
+                }
+
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
                     // only copy files, no symbolic links or directories
@@ -261,4 +496,107 @@ public class ArchiveUtils {
 
         return true;
     }
+
+    /**
+     * Creates a zip by deflating entries across the {@link TaskPools#CPU} pool into temporary scatter files, which are
+     * then stitched together into the final archive in the order they were walked. Files which are already compressed
+     * are stored rather than deflated.
+     */
+    private static void createZipInParallel(Path pathToCompress, Path archivePath, NameMapper nameMapper)
+            throws IOException, InterruptedException, ExecutionException {
+        // the creator shuts down the executor it's given once it's written, so give it one that won't stop the pool
+        ExecutorService executor = TaskPools.CPU.newScopedExecutor();
+        ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor,
+                new DefaultBackingStoreSupplier(FileSystem.TEMP));
+
+        try {
+            createZipEntries(creator, pathToCompress, nameMapper);
+
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archivePath)) {
+                creator.writeTo(zos);
+            }
+        } finally {
+            // writing shuts the executor down, but make sure it's stopped if we failed before getting there
+            executor.shutdownNow();
+        }
+
+        LogManager.debug("Created zip " + archivePath + " (" + creator.getStatisticsMessage() + ")");
+    }
+
+    private static void createZipEntries(ParallelScatterZipCreator creator, Path pathToCompress,
+            NameMapper nameMapper) throws IOException {
+        Files.walkFileTree(pathToCompress, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                if (dir.equals(pathToCompress)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                String entryName = getEntryName(pathToCompress, dir);
+                if (PathPrefixFilter.preVisitDirectory(nameMapper, entryName) == FileVisitResult.SKIP_SUBTREE) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                String dirName = nameMapper.map(entryName + "/");
+
+                if (dirName != null) {
+                    ZipArchiveEntry entry = new ZipArchiveEntry(dirName);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setTime(attributes.lastModifiedTime().toMillis());
+                    creator.addArchiveEntry(entry, () -> new ByteArrayInputStream(new byte[0]));
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                // only add files, no symbolic links
+                if (attributes.isSymbolicLink() || attributes.isDirectory()) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                String fileName = nameMapper.map(getEntryName(pathToCompress, file));
+
+                if (fileName == null) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                ZipArchiveEntry entry = new ZipArchiveEntry(fileName);
+                entry.setMethod(shouldStore(fileName) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                entry.setTime(attributes.lastModifiedTime().toMillis());
+                creator.addArchiveEntry(entry, () -> {
+                    try {
+                        return Files.newInputStream(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LogManager.logStackTrace(String.format("Unable to add %s to zip", file), e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String getEntryName(Path root, Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    static boolean shouldStore(String fileName) {
+        String lowerCaseFileName = fileName.toLowerCase(Locale.ENGLISH);
+
+        for (String extension : STORED_EXTENSIONS) {
+            if (lowerCaseFileName.endsWith(extension)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
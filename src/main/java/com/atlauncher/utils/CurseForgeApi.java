@@ -20,6 +20,7 @@ package com.atlauncher.utils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +29,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -42,6 +45,7 @@ import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.NetworkClient;
+import com.atlauncher.network.ResponseCache;
 import com.google.gson.reflect.TypeToken;
 
 import okhttp3.CacheControl;
@@ -55,6 +59,13 @@ import okhttp3.RequestBody;
 public class CurseForgeApi {
     private final static Headers REQUEST_HEADERS = Headers.of("x-api-key", Constants.CURSEFORGE_CORE_API_KEY);
 
+    private static final ResponseCache<String, CurseForgeProject> PROJECT_CACHE = new ResponseCache<>(
+            "CurseForge projects", Duration.ofMinutes(10));
+    private static final ResponseCache<Integer, CurseForgeFile> FILE_CACHE = new ResponseCache<>(
+            "CurseForge files", Duration.ofHours(1));
+    private static final ResponseCache<Integer, List<CurseForgeFile>> PROJECT_FILES_CACHE = new ResponseCache<>(
+            "CurseForge project files", Duration.ofMinutes(10));
+
     public static List<CurseForgeProject> searchCurseForge(int sectionId, String query, int page,
             List<Integer> modLoaderTypes,
             String sort) {
@@ -247,12 +258,40 @@ public class CurseForgeApi {
     }
 
     public static List<CurseForgeFile> getFilesForProject(int projectId) {
+        return PROJECT_FILES_CACHE.get(projectId, () -> fetchFilesForProject(projectId));
+    }
+
+    /**
+     * Gets the files for a project which match the given filter. If the project's files are already cached they're
+     * filtered from there, otherwise the response is filtered as it's parsed so that files which don't match are never
+     * kept around. The filtered response isn't cached, since it's not the full list of files.
+     */
+    public static List<CurseForgeFile> getFilesForProject(int projectId, Predicate<CurseForgeFile> filter) {
+        if (PROJECT_FILES_CACHE.contains(projectId)) {
+            List<CurseForgeFile> cachedFiles = PROJECT_FILES_CACHE.getIfPresent(projectId);
+
+            // cached as not found
+            if (cachedFiles == null) {
+                return null;
+            }
+
+            return cachedFiles.stream().filter(filter).collect(Collectors.toList());
+        }
+
+        String url = String.format(Locale.ENGLISH, "%s/mods/%d/files?pageSize=1000", Constants.CURSEFORGE_CORE_API_URL,
+                projectId);
+
+        return NetworkClient.getFilteredList(url, REQUEST_HEADERS, "data", CurseForgeFile.class, filter,
+                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+    }
+
+    private static List<CurseForgeFile> fetchFilesForProject(int projectId) throws ResponseCache.NotFoundException {
         String url = String.format(Locale.ENGLISH, "%s/mods/%d/files?pageSize=1000", Constants.CURSEFORGE_CORE_API_URL,
                 projectId);
 
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeFile>>>() {}.getType();
 
-        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = NetworkClient.getCached(
+        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = NetworkClient.getCachedOrNotFound(
                 url,
                 REQUEST_HEADERS,
                 type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
@@ -263,19 +302,26 @@ public class CurseForgeApi {
         }
 
         if (response != null) {
-            return response.data;
+            // shared by everyone asking for the project's files, so don't let anyone change it
+            return Collections.unmodifiableList(response.data);
         }
 
         return null;
     }
 
     public static CurseForgeFile getFileForProject(int projectId, int fileId) {
+        // file id's are unique across all projects, so they're enough to key the cache on
+        return FILE_CACHE.get(fileId, () -> fetchFileForProject(projectId, fileId));
+    }
+
+    private static CurseForgeFile fetchFileForProject(int projectId, int fileId)
+            throws ResponseCache.NotFoundException {
         String url = String.format(Locale.ENGLISH, "%s/mods/%d/files/%d", Constants.CURSEFORGE_CORE_API_URL, projectId,
                 fileId);
 
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<CurseForgeFile>>() {}.getType();
 
-        CurseForgeCoreApiResponse<CurseForgeFile> response = NetworkClient.getCached(
+        CurseForgeCoreApiResponse<CurseForgeFile> response = NetworkClient.getCachedOrNotFound(
                 url,
                 REQUEST_HEADERS,
                 type, new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build());
@@ -312,11 +358,15 @@ public class CurseForgeApi {
     }
 
     public static CurseForgeProject getProjectById(String projectId) {
+        return PROJECT_CACHE.get(projectId, () -> fetchProjectById(projectId));
+    }
+
+    private static CurseForgeProject fetchProjectById(String projectId) throws ResponseCache.NotFoundException {
         String url = String.format(Locale.ENGLISH, "%s/mods/%s", Constants.CURSEFORGE_CORE_API_URL, projectId);
 
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<CurseForgeProject>>() {}.getType();
 
-        CurseForgeCoreApiResponse<CurseForgeProject> response = NetworkClient.getCached(
+        CurseForgeCoreApiResponse<CurseForgeProject> response = NetworkClient.getCachedOrNotFound(
                 url,
                 REQUEST_HEADERS,
                 type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
@@ -385,6 +435,32 @@ public class CurseForgeApi {
             return Collections.emptyList();
         }
 
+        // only ask for the projects we don't already have cached
+        int[] uncachedProjectIds = Arrays.stream(projectIds)
+                .filter(id -> !PROJECT_CACHE.contains(Integer.toString(id))).distinct().toArray();
+
+        if (uncachedProjectIds.length != 0) {
+            List<CurseForgeProject> fetchedProjects = fetchProjects(uncachedProjectIds);
+
+            if (fetchedProjects == null) {
+                return null;
+            }
+
+            Map<Integer, CurseForgeProject> fetchedProjectsById = fetchedProjects.stream()
+                    .collect(Collectors.toMap(p -> p.id, p -> p, (existing, replacement) -> existing));
+
+            // projects we asked for but didn't get back are cached as not existing
+            for (int id : uncachedProjectIds) {
+                PROJECT_CACHE.recordMiss();
+                PROJECT_CACHE.put(Integer.toString(id), fetchedProjectsById.get(id));
+            }
+        }
+
+        return Arrays.stream(projectIds).mapToObj(id -> PROJECT_CACHE.getIfPresent(Integer.toString(id)))
+                .filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static List<CurseForgeProject> fetchProjects(int[] projectIds) {
         String url = String.format("%s/mods", Constants.CURSEFORGE_CORE_API_URL);
 
         Map<String, int[]> body = new HashMap<>();
@@ -411,6 +487,50 @@ public class CurseForgeApi {
             return Collections.emptyList();
         }
 
+        // only ask for the files we don't already have cached
+        int[] uncachedFileIds = Arrays.stream(fileIds).filter(id -> !FILE_CACHE.contains(id)).distinct().toArray();
+
+        if (uncachedFileIds.length != 0) {
+            List<CurseForgeFile> fetchedFiles = fetchFiles(uncachedFileIds);
+
+            if (fetchedFiles == null) {
+                return null;
+            }
+
+            Map<Integer, CurseForgeFile> fetchedFilesById = fetchedFiles.stream()
+                    .collect(Collectors.toMap(f -> f.id, f -> f, (existing, replacement) -> existing));
+
+            // same as with projects, files we asked for but didn't get back are cached as not existing
+            for (int id : uncachedFileIds) {
+                FILE_CACHE.recordMiss();
+                FILE_CACHE.put(id, fetchedFilesById.get(id));
+            }
+        }
+
+        return Arrays.stream(fileIds).mapToObj(FILE_CACHE::getIfPresent).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public static Map<Integer, CurseForgeFile> getFilesAsMap(int[] fileIds) {
+        if (fileIds == null || fileIds.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            List<CurseForgeFile> files = getFiles(fileIds);
+
+            if (files != null) {
+                return files.stream()
+                        .collect(Collectors.toMap(f -> f.id, f -> f, (existing, replacement) -> existing));
+            }
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Error trying to get CurseForge files as map", t);
+        }
+
+        return null;
+    }
+
+    private static List<CurseForgeFile> fetchFiles(int[] fileIds) {
         Map<String, int[]> body = new HashMap<>();
         body.put("fileIds", fileIds);
 
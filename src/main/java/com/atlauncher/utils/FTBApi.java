@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.atlauncher.TaskPools;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.ftb.FTBPackList;
 import com.atlauncher.data.ftb.FTBPackManifest;
@@ -52,9 +53,8 @@ public class FTBApi {
         List<Integer> packsToShow = packList.packs.stream().skip((page - 1) * Constants.FTB_PAGINATION_SIZE)
                 .limit(Constants.FTB_PAGINATION_SIZE).collect(Collectors.toList());
 
-        List<FTBPackManifest> packs = packsToShow.parallelStream()
-                .map(packId -> getModpackManifest(packId))
-                .filter(p -> p.versions != null).collect(Collectors.toList());
+        List<FTBPackManifest> packs = TaskPools.map(TaskPools.NETWORK, packsToShow, FTBApi::getModpackManifest)
+                .stream().filter(p -> p.versions != null).collect(Collectors.toList());
 
         return packs;
     }
@@ -71,9 +71,8 @@ public class FTBApi {
         List<Integer> packsToShow = packList.packs.stream().skip((page - 1) * Constants.FTB_PAGINATION_SIZE)
                 .limit(Constants.FTB_PAGINATION_SIZE).collect(Collectors.toList());
 
-        List<FTBPackManifest> packs = packsToShow.parallelStream()
-                .map(packId -> getModpackManifest(packId))
-                .filter(p -> p != null && p.versions != null).collect(Collectors.toList());
+        List<FTBPackManifest> packs = TaskPools.map(TaskPools.NETWORK, packsToShow, FTBApi::getModpackManifest)
+                .stream().filter(p -> p != null && p.versions != null).collect(Collectors.toList());
 
         return packs;
     }
@@ -0,0 +1,301 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.TaskPools;
+import com.atlauncher.managers.LogManager;
+
+/**
+ * Copies files and directories as cheaply as the filesystem allows.
+ *
+ * On filesystems that support copy on write (btrfs, XFS with reflink, bcachefs and APFS) files are cloned with
+ * {@code cp}, which shares the data with the original until either is written to, so copying even a large instance is
+ * close to instant. Support is checked once per filesystem by cloning a throwaway file. Everywhere else, and if
+ * cloning fails, directories are copied in parallel on the disk pool with small files batched together. Timestamps
+ * are kept either way.
+ */
+public final class FileCopier {
+    private static final long CLONE_FILE_THRESHOLD = 16L * 1024 * 1024;
+    private static final long BATCH_BYTES = 8L * 1024 * 1024;
+    private static final int BATCH_FILES = 64;
+
+    private static final Map<FileStore, Boolean> CLONE_SUPPORT = new ConcurrentHashMap<>();
+
+    /**
+     * Copies a single file, replacing the target if it exists. Large files are cloned when the filesystem supports it,
+     * since starting a process isn't worth it for small ones. The clone is made next to the target and moved over it,
+     * so the target is only replaced once the clone has succeeded. Copying a file onto itself (including through a
+     * hard link) does nothing.
+     *
+     * @param from the file to copy
+     * @param to   the path to copy it to
+     * @throws IOException if the file couldn't be copied
+     */
+    public static void copyFile(Path from, Path to) throws IOException {
+        if (Files.exists(to) && Files.isSameFile(from, to)) {
+            return;
+        }
+
+        if (to.getParent() != null) {
+            Files.createDirectories(to.getParent());
+        }
+
+        if (Files.size(from) >= CLONE_FILE_THRESHOLD && supportsCloning(from, to.getParent())) {
+            Path clone = to.resolveSibling(".clone-" + UUID.randomUUID() + "-" + to.getFileName());
+
+            try {
+                if (runCopyCommand(from, clone, false)) {
+                    moveOver(clone, to);
+                    return;
+                }
+            } finally {
+                Files.deleteIfExists(clone);
+            }
+        }
+
+        Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    private static void moveOver(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Copies the contents of a directory into another directory, merging with and replacing anything already there.
+     *
+     * @param from the directory to copy the contents of
+     * @param to   the directory to copy the contents into
+     * @return true, if everything was copied
+     */
+    public static boolean copyDirectory(Path from, Path to) {
+        try {
+            Files.createDirectories(to);
+
+            if (supportsCloning(from, to) && runCopyCommand(from, to, true)) {
+                return true;
+            }
+
+            return copyDirectoryInParallel(from, to);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to copy directory " + from + " to " + to, e);
+            return false;
+        }
+    }
+
+    private static boolean copyDirectoryInParallel(Path from, Path to) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        List<List<Path>> batches = new ArrayList<>();
+        List<Path> batch = new ArrayList<>();
+        long[] batchBytes = { 0L };
+
+        Files.walkFileTree(from, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                            throws IOException {
+                        Files.createDirectories(to.resolve(from.relativize(dir)));
+                        directories.add(dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        // big files go in a batch on their own, small ones are grouped so there's a task per
+                        // handful of megabytes rather than per file
+                        if (!batch.isEmpty() && (batchBytes[0] + attrs.size() > BATCH_BYTES
+                                || batch.size() >= BATCH_FILES)) {
+                            batches.add(new ArrayList<>(batch));
+                            batch.clear();
+                            batchBytes[0] = 0L;
+                        }
+
+                        batch.add(file);
+                        batchBytes[0] += attrs.size();
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        LogManager.logStackTrace("Failed to copy " + file, e, false);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        List<Boolean> results = TaskPools.map(TaskPools.DISK, batches, files -> {
+            boolean copied = true;
+
+            for (Path file : files) {
+                Path target = to.resolve(from.relativize(file));
+
+                try {
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Failed to copy " + file + " to " + target, e, false);
+                    copied = false;
+                }
+            }
+
+            return copied;
+        });
+
+        // copying files into a directory changes its modified time, so set them once everything is in place
+        Collections.reverse(directories);
+        for (Path dir : directories) {
+            try {
+                Files.setLastModifiedTime(to.resolve(from.relativize(dir)), Files.getLastModifiedTime(dir));
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to copy the modified time of " + dir, e, false);
+            }
+        }
+
+        return !results.contains(false);
+    }
+
+    /**
+     * Checks if files can be cloned from the given directory to the other. This needs both to be on the same
+     * filesystem, which must support it.
+     */
+    private static boolean supportsCloning(Path from, Path to) {
+        if ((!OS.isLinux() && !OS.isMac()) || from.getFileSystem() != FileSystems.getDefault() || to == null) {
+            return false;
+        }
+
+        try {
+            FileStore fileStore = Files.getFileStore(to);
+            if (!fileStore.equals(Files.getFileStore(from))) {
+                return false;
+            }
+
+            // APFS is the only filesystem with clone support on macOS, and cp doesn't always fail when it can't clone
+            if (OS.isMac() && !fileStore.type().toLowerCase(Locale.ENGLISH).equals("apfs")) {
+                return false;
+            }
+
+            return CLONE_SUPPORT.computeIfAbsent(fileStore, fs -> probeCloning(to));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to check if " + to + " supports cloning files", e, false);
+            return false;
+        }
+    }
+
+    private static boolean probeCloning(Path directory) {
+        Path source = directory.resolve(".clone-probe-" + UUID.randomUUID());
+        Path target = directory.resolve(source.getFileName() + ".clone");
+
+        try {
+            Files.write(source, new byte[] { 0 });
+
+            boolean supported = runCopyCommand(source, target, false);
+            LogManager.debug((supported ? "Cloning is" : "Cloning isn't") + " supported on the filesystem for "
+                    + directory);
+            return supported;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(target);
+                Files.deleteIfExists(source);
+            } catch (IOException ignored) {
+                // nothing to clean up
+            }
+        }
+    }
+
+    private static boolean runCopyCommand(Path from, Path to, boolean directoryContents) {
+        List<String> command = new ArrayList<>();
+        command.add("cp");
+
+        if (OS.isMac()) {
+            command.add("-c");
+            command.add("-p");
+        } else {
+            command.add("--reflink=always");
+            command.add("--preserve=mode,timestamps");
+        }
+
+        if (directoryContents) {
+            command.add("-R");
+            command.add("-L");
+            // copy the contents of the directory rather than the directory itself
+            command.add(from.toAbsolutePath() + "/.");
+        } else {
+            command.add(from.toAbsolutePath().toString());
+        }
+
+        command.add(to.toAbsolutePath().toString());
+
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader br = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+
+                while ((line = br.readLine()) != null) {
+                    output.append(line).append("\n");
+                }
+            }
+
+            if (process.waitFor() != 0) {
+                LogManager.debug("Couldn't clone " + from + " to " + to + ": " + output.toString().trim());
+                return false;
+            }
+
+            return true;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clone " + from + " to " + to, e, false);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
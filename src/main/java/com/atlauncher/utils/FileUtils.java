@@ -18,9 +18,14 @@
 package com.atlauncher.utils;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import com.atlauncher.App;
@@ -160,11 +165,14 @@ public class FileUtils {
         }
 
         // If they're the same file, but different cases, then rename it using old File
-        // types
+        // types. Otherwise it's the same path or a link to the same file, so there's nothing to copy
         try {
-            if (Files.exists(to) && Files.isSameFile(from, to)
-                && !from.getFileName().toString().equals(to.getFileName().toString())) {
-                return from.toFile().renameTo(to.toFile());
+            if (Files.exists(to) && Files.isSameFile(from, to)) {
+                if (!from.toString().equals(to.toString()) && from.toString().equalsIgnoreCase(to.toString())) {
+                    return from.toFile().renameTo(to.toFile());
+                }
+
+                return true;
             }
         } catch (IOException e) {
             LogManager.logStackTrace("Failed to copy file " + from + " to " + to, e);
@@ -172,7 +180,7 @@ public class FileUtils {
         }
 
         try {
-            Files.copy(from, to, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            FileCopier.copyFile(from, to);
         } catch (IOException e) {
             LogManager.logStackTrace("Failed to copy file " + from + " to " + to, e);
             return false;
@@ -181,6 +189,188 @@ public class FileUtils {
         return true;
     }
 
+    /**
+     * Copies the contents of a directory into another directory, streaming each file across. Unlike
+     * {@link Utils#copyDirectory(java.io.File, java.io.File)} the source doesn't need to be on the default filesystem,
+     * so this can copy straight out of an archive opened with {@link ArchiveUtils#openArchive(Path)}. Directories on
+     * the default filesystem are handed off to {@link FileCopier#copyDirectory(Path, Path)}.
+     *
+     * @param from the directory to copy the contents of
+     * @param to   the directory to copy the contents into
+     * @return true, if successful
+     */
+    public static boolean copyDirectory(Path from, Path to) {
+        LogManager.debug("Copying directory from " + from + " to " + to);
+
+        if (from.getFileSystem() == FileSystems.getDefault()) {
+            return FileCopier.copyDirectory(from, to);
+        }
+
+        Path normalizedTo = to.toAbsolutePath().normalize();
+
+        try (Stream<Path> stream = Files.walk(from)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                // resolve from the string, as paths from different filesystems can't be resolved against each other
+                String relativePath = from.relativize(path).toString();
+                Path target;
+
+                try {
+                    target = to.resolve(relativePath);
+                } catch (InvalidPathException e) {
+                    String newRelativePath = relativePath.replaceAll("[:*\\?\"<>|]", "");
+                    LogManager.warn(String.format("InvalidPath when copying file with name of '%s'. Renaming to '%s'",
+                            relativePath, newRelativePath));
+                    target = to.resolve(newRelativePath);
+                }
+
+                // entries in an archive can contain ../ to try and write outside of where they're being copied to
+                if (!target.toAbsolutePath().normalize().startsWith(normalizedTo)) {
+                    LogManager.warn("Not copying " + relativePath + " as it would be placed outside of " + to);
+                    continue;
+                }
+
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    if (target.getParent() != null) {
+                        Files.createDirectories(target.getParent());
+                    }
+
+                    Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to copy directory " + from + " to " + to, e);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Places the file at the given path by hard linking it to the source, falling back to a plain copy when the
+     * filesystem doesn't support hard links (or the paths are on different volumes). If the target is already a hard
+     * link to the source, or a previous copy with the expected hash, it's left as is.
+     *
+     * @param from the file to link to
+     * @param to   the path to place the file at
+     * @param sha1 the SHA-1 hash of the source, used to check a previous copy is still the same file
+     * @return true, if the file is in place
+     */
+    public static boolean linkOrCopyFile(Path from, Path to, String sha1) {
+        return linkOrCopyFile(from, to, sha1, false);
+    }
+
+    /**
+     * Places the file at the given path by hard linking it to the source, falling back to a symbolic link (if allowed)
+     * and then a plain copy when the filesystem doesn't support links (or the paths are on different volumes). If the
+     * target is already a link to the source it's left as is. A previous copy is checked by size and modified time,
+     * only hashing it if the size matches but the time doesn't, and when it's the same file it's swapped for a link so
+     * it doesn't need checking again.
+     *
+     * Symbolic links are absolute, so they should only be allowed for paths the launcher owns. Anything in an instance
+     * should be a real file, so that the instance still works after being moved or exported.
+     *
+     * @param from              the file to link to
+     * @param to                the path to place the file at
+     * @param sha1              the SHA-1 hash of the source, used to check a previous copy is still the same file
+     * @param allowSymbolicLink if a symbolic link can be used when a hard link can't
+     * @return true, if the file is in place
+     */
+    public static boolean linkOrCopyFile(Path from, Path to, String sha1, boolean allowSymbolicLink) {
+        if (!Files.isRegularFile(from)) {
+            LogManager.error("File " + from + " cannot be linked to " + to + " as it isn't a file!");
+            return false;
+        }
+
+        try {
+            if (Files.isSymbolicLink(to)) {
+                // either dangling from a moved or deleted source, or a symbolic link where one isn't wanted
+                if (allowSymbolicLink && Files.exists(to) && Files.isSameFile(from, to)) {
+                    return true;
+                }
+
+                Files.delete(to);
+            } else if (Files.exists(to)) {
+                if (Files.isSameFile(from, to)) {
+                    return true;
+                }
+
+                // a copy from a previous launch, which is kept (and relinked if possible) if it's still the same file
+                if (isSameContent(from, to, sha1)) {
+                    relink(from, to);
+                    return true;
+                }
+
+                Files.delete(to);
+            }
+
+            if (to.getParent() != null && !Files.exists(to.getParent())) {
+                Files.createDirectories(to.getParent());
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to prepare " + to + " for linking to " + from, e);
+            return false;
+        }
+
+        try {
+            Files.createLink(to, from);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException ignored) {
+            // different volumes or no hard link support, so try a symbolic link
+        }
+
+        if (allowSymbolicLink) {
+            try {
+                Files.createSymbolicLink(to, from.toAbsolutePath());
+                return true;
+            } catch (IOException | UnsupportedOperationException | SecurityException ignored) {
+                // symbolic links generally need elevated privileges on Windows, so fall back to copying
+            }
+        }
+
+        return copyFile(from, to, true);
+    }
+
+    private static boolean isSameContent(Path from, Path to, String sha1) throws IOException {
+        if (Files.size(from) != Files.size(to)) {
+            return false;
+        }
+
+        // copies keep the modified time of the source, so if that matches there's no need to read the file
+        if (Files.getLastModifiedTime(from).equals(Files.getLastModifiedTime(to))) {
+            return true;
+        }
+
+        return sha1 != null && sha1.equalsIgnoreCase(Hashing.sha1(to).toString());
+    }
+
+    /**
+     * Replaces a copy of a file with a hard link to it. The link is made next to the copy and renamed over it, so the
+     * copy is left in place if linking isn't possible.
+     */
+    private static void relink(Path from, Path to) {
+        Path link = to.resolveSibling(".link-" + UUID.randomUUID() + "-" + to.getFileName());
+
+        try {
+            Files.createLink(link, from);
+
+            try {
+                Files.move(link, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(link, to, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | UnsupportedOperationException | SecurityException ignored) {
+            // different volumes or no hard link support, so keep using the copy
+        } finally {
+            try {
+                Files.deleteIfExists(link);
+            } catch (IOException ignored) {
+                // nothing to clean up
+            }
+        }
+    }
+
     public static boolean moveFile(Path from, Path to) {
         return moveFile(from, to, false);
     }
@@ -203,6 +393,29 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Formats a number of bytes as a human readable size, such as "1.5 GB".
+     *
+     * @param bytes the number of bytes
+     * @return the formatted size
+     */
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+
+        String[] units = { "KB", "MB", "GB", "TB" };
+        double size = bytes;
+        int unit = -1;
+
+        while (size >= 1024 && unit < units.length - 1) {
+            size /= 1024;
+            unit++;
+        }
+
+        return String.format(Locale.ENGLISH, "%.1f %s", size, units[unit]);
+    }
+
     public static boolean directoryIsEmpty(Path path) throws IOException {
         if (Files.isDirectory(path)) {
             try (Stream<Path> entries = Files.list(path)) {
@@ -20,12 +20,15 @@ package com.atlauncher.utils;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.atlauncher.managers.LogManager;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.sangupta.murmur.Murmur2;
 
 public final class Hashing {
@@ -39,6 +42,14 @@ public final class Hashing {
         return com.google.common.hash.Hashing.md5().hashString(str, StandardCharsets.UTF_8);
     }
 
+    public static HashCode sha1(String str) {
+        if (str == null || str.isEmpty()) {
+            return EMPTY_HASH_CODE;
+        }
+
+        return com.google.common.hash.Hashing.sha1().hashString(str, StandardCharsets.UTF_8);
+    }
+
     public static HashCode md5(Path file) {
         if (!Files.exists(file)) {
             return EMPTY_HASH_CODE;
@@ -91,6 +102,37 @@ public final class Hashing {
         }
     }
 
+    /**
+     * Hashes the file with each of the given hash functions, only reading through the file once.
+     *
+     * @param file          the file to hash
+     * @param hashFunctions the hash functions to use
+     * @return the hashes, in the same order as the hash functions
+     */
+    public static HashCode[] hash(Path file, HashFunction... hashFunctions) throws IOException {
+        Hasher[] hashers = new Hasher[hashFunctions.length];
+        for (int i = 0; i < hashFunctions.length; i++) {
+            hashers[i] = hashFunctions[i].newHasher();
+        }
+
+        try (InputStream is = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                for (Hasher hasher : hashers) {
+                    hasher.putBytes(buffer, 0, read);
+                }
+            }
+        }
+
+        HashCode[] hashes = new HashCode[hashers.length];
+        for (int i = 0; i < hashers.length; i++) {
+            hashes[i] = hashers[i].hash();
+        }
+
+        return hashes;
+    }
+
     public static long murmur(Path file) throws IOException {
         if (!Files.exists(file)) {
             return -1L;
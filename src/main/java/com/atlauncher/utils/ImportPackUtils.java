@@ -23,11 +23,14 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -258,22 +261,12 @@ public class ImportPackUtils {
 
     public static boolean loadFromFile(File file) {
         try {
-            Path tmpDir = FileSystem.TEMP
-                    .resolve("multimcimport" + file.getName().toLowerCase(Locale.ENGLISH));
+            Path multiMCPath = getMultiMCPath(file);
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
-
-            if (ArchiveUtils.archiveContainsFile(file.toPath(), "mmc-pack.json")) {
-                return loadMultiMCFormat(tmpDir);
-            }
-
-            if (tmpDir.toFile().list().length == 1
-                    && ArchiveUtils.archiveContainsFile(file.toPath(), tmpDir.toFile().list()[0] + "/mmc-pack.json")) {
-                return loadMultiMCFormat(tmpDir.resolve(tmpDir.toFile().list()[0]));
+            if (multiMCPath != null) {
+                return loadMultiMCFormat(multiMCPath);
             }
 
-            FileUtils.deleteDirectory(tmpDir);
-
             if (ArchiveUtils.archiveContainsFile(file.toPath(), "manifest.json")) {
                 return loadCurseForgeFormat(file, null, null);
             }
@@ -290,14 +283,46 @@ public class ImportPackUtils {
         return false;
     }
 
+    /**
+     * Finds where the MultiMC instance is within the given archive, either at the root or inside a single top level
+     * folder. This is checked by reading the archive in place, and only extracted if the archive cannot be opened.
+     *
+     * @param file the archive to check
+     * @return the path to the MultiMC instance, or null if the archive isn't a MultiMC instance
+     */
+    private static Path getMultiMCPath(File file) throws IOException {
+        Path root = ArchiveUtils.openArchive(file.toPath());
+
+        if (root == null) {
+            root = FileSystem.TEMP.resolve("multimcimport" + file.getName().toLowerCase(Locale.ENGLISH));
+            ArchiveUtils.extract(file.toPath(), root);
+        }
+
+        if (Files.exists(root.resolve("mmc-pack.json"))) {
+            return root;
+        }
+
+        List<Path> children;
+        try (Stream<Path> list = Files.list(root)) {
+            children = list.collect(Collectors.toList());
+        }
+
+        if (children.size() == 1 && Files.exists(children.get(0).resolve("mmc-pack.json"))) {
+            return children.get(0);
+        }
+
+        ArchiveUtils.cleanupExtracted(root);
+
+        return null;
+    }
+
     public static boolean loadCurseForgeFormat(File file, Integer projectId, Integer fileId) {
         if (!file.getName().endsWith(".zip")) {
             LogManager.error("Cannot install as the file was not a zip file");
             return false;
         }
 
-        Path tmpDir = FileSystem.TEMP
-                .resolve("curseforgeimport" + file.getName().toLowerCase(Locale.ENGLISH));
+        Path tmpDir = null;
 
         try {
             CurseForgeManifest manifest = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "manifest.json"),
@@ -320,13 +345,15 @@ public class ImportPackUtils {
                 LogManager.warn("Manifest is version " + manifest.manifestVersion + " which may be an issue!");
             }
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
+            tmpDir = openOrExtract(file, "curseforgeimport");
 
             InstanceInstallerDialog instanceInstallerDialog = new InstanceInstallerDialog(manifest, tmpDir);
             instanceInstallerDialog.setVisible(true);
         } catch (JsonSyntaxException e) {
             LogManager.logStackTrace("Failed to install CurseForge pack", e);
-            FileUtils.deleteDirectory(tmpDir);
+            if (tmpDir != null) {
+                ArchiveUtils.cleanupExtracted(tmpDir);
+            }
             return false;
         }
 
@@ -356,7 +383,7 @@ public class ImportPackUtils {
             }
         }
 
-        Path tmpDir = FileSystem.TEMP.resolve("modrinthimport" + file.getName().toLowerCase(Locale.ENGLISH));
+        Path tmpDir = null;
 
         try {
             ModrinthModpackManifest manifest = Gsons.DEFAULT
@@ -378,19 +405,36 @@ public class ImportPackUtils {
                 LogManager.warn("Manifest is version " + manifest.formatVersion + " which may be an issue!");
             }
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
+            tmpDir = openOrExtract(file, "modrinthimport");
 
             InstanceInstallerDialog instanceInstallerDialog = new InstanceInstallerDialog(manifest, tmpDir);
             instanceInstallerDialog.setVisible(true);
         } catch (JsonSyntaxException e) {
             LogManager.logStackTrace("Failed to install Modrinth pack", e);
-            FileUtils.deleteDirectory(tmpDir);
+            if (tmpDir != null) {
+                ArchiveUtils.cleanupExtracted(tmpDir);
+            }
             return false;
         }
 
         return true;
     }
 
+    /**
+     * Opens the given archive so the installer can copy overrides straight out of it, falling back to extracting it
+     * to a temporary directory if it cannot be opened.
+     */
+    private static Path openOrExtract(File file, String tempPrefix) {
+        Path root = ArchiveUtils.openArchive(file.toPath());
+
+        if (root == null) {
+            root = FileSystem.TEMP.resolve(tempPrefix + file.getName().toLowerCase(Locale.ENGLISH));
+            ArchiveUtils.extract(file.toPath(), root);
+        }
+
+        return root;
+    }
+
     public static boolean loadMultiMCFormat(Path extractedPath) {
         try (InputStreamReader fileReader = new InputStreamReader(
                 Files.newInputStream(extractedPath.resolve("mmc-pack.json")),
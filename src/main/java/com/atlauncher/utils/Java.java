@@ -17,12 +17,9 @@
  */
 package com.atlauncher.utils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -51,6 +48,8 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.utils.javafinder.JavaFinder;
 import com.atlauncher.utils.javafinder.JavaInfo;
+import com.atlauncher.utils.javafinder.JavaInstallation;
+import com.atlauncher.utils.javafinder.JavaInstallations;
 
 import okhttp3.tls.Certificates;
 
@@ -71,42 +70,22 @@ public class Java {
         return System.getProperty("sun.arch.data.model").contains("64");
     }
 
+    /**
+     * Gets the version of the Java installed in the given folder. This is read from the installs release file, or
+     * cached from a previous check, so it will only run Java if neither of those are available.
+     *
+     * @param folder the root folder of the Java install
+     * @return the version of Java, or "Unknown" if it couldn't be found
+     */
     public static String getVersionForJavaPath(File folder) {
         String executablePath = Java.getPathToJavaExecutable(folder.toPath());
-        ProcessBuilder processBuilder = new ProcessBuilder(executablePath, "-version");
-        processBuilder.directory(folder.getAbsoluteFile());
-        processBuilder.redirectErrorStream(true);
+        JavaInstallation installation = JavaInstallations.get(executablePath);
 
-        String version = "Unknown";
-
-        try {
-            Process process = processBuilder.start();
-            try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                Pattern p = Pattern.compile("(java|openjdk) version \"([^\"]*)\"");
-
-                while ((line = br.readLine()) != null) {
-                    // Extract version information
-                    Matcher m = p.matcher(line);
-
-                    if (m.find()) {
-                        version = m.group(2);
-                        break;
-                    }
-                }
-            }
-        } catch (IOException e) {
-            LogManager.logStackTrace(e);
-        }
-
-        LogManager.debug(String.format("Got version \"%s\" for Java at path \"%s\"", version, executablePath));
-
-        if (version.equals("Unknown")) {
+        if (!installation.hasVersion()) {
             LogManager.warn("Cannot get Java version from the output of \"" + folder.getAbsolutePath() + " -version\"");
         }
 
-        return version;
+        return installation.version;
     }
 
     /**
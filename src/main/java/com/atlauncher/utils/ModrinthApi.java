@@ -20,6 +20,7 @@ package com.atlauncher.utils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -47,6 +49,7 @@ import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.NetworkClient;
+import com.atlauncher.network.ResponseCache;
 import com.google.gson.reflect.TypeToken;
 
 import okhttp3.CacheControl;
@@ -58,6 +61,13 @@ import okhttp3.RequestBody;
  * Various utility methods for interacting with the Modrinth API.
  */
 public class ModrinthApi {
+    private static final ResponseCache<String, ModrinthProject> PROJECT_CACHE = new ResponseCache<>(
+        "Modrinth projects", Duration.ofMinutes(10));
+    private static final ResponseCache<String, List<ModrinthVersion>> PROJECT_VERSIONS_CACHE = new ResponseCache<>(
+        "Modrinth project versions", Duration.ofMinutes(2));
+    private static final ResponseCache<String, ModrinthVersion> VERSION_FROM_HASH_CACHE = new ResponseCache<>(
+        "Modrinth versions from hash", Duration.ofMinutes(10));
+
     private static Headers getHeaders() {
         if (App.settings.modrinthApiKey == null || App.settings.modrinthApiKey.isEmpty()) {
             return null;
@@ -234,10 +244,12 @@ public class ModrinthApi {
     }
 
     public static @Nullable ModrinthProject getProject(String projectId) {
-        return NetworkClient.getCached(
-            String.format("%s/project/%s", Constants.MODRINTH_API_URL, projectId.replace("local-", "")),
+        String id = projectId.replace("local-", "");
+
+        return PROJECT_CACHE.get(id, () -> NetworkClient.getCachedOrNotFound(
+            String.format("%s/project/%s", Constants.MODRINTH_API_URL, id),
             getHeaders(), ModrinthProject.class,
-            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build()));
     }
 
     public static @Nullable List<ModrinthVersion> getVersions(String projectId) {
@@ -289,10 +301,15 @@ public class ModrinthApi {
         java.lang.reflect.Type type = new TypeToken<List<ModrinthVersion>>() {
         }.getType();
 
-        return NetworkClient.get(
-            String.format("%s/project/%s/version%s", Constants.MODRINTH_API_URL, projectId, queryParamsString),
-            getHeaders(),
-            type);
+        String url = String.format("%s/project/%s/version%s", Constants.MODRINTH_API_URL, projectId,
+            queryParamsString);
+
+        return PROJECT_VERSIONS_CACHE.get(url, () -> {
+            List<ModrinthVersion> versions = NetworkClient.getCachedOrNotFound(url, getHeaders(), type, null);
+
+            // shared by everyone asking for the project's versions, so don't let anyone change it
+            return versions == null ? null : Collections.unmodifiableList(versions);
+        });
     }
 
     public static @Nonnull List<ModrinthCategory> getCategories() {
@@ -356,11 +373,11 @@ public class ModrinthApi {
     }
 
     private static ModrinthVersion getVersionFromHash(String hash, String algorithm) {
-        return NetworkClient.getCached(
+        return VERSION_FROM_HASH_CACHE.get(algorithm + ":" + hash, () -> NetworkClient.getCachedOrNotFound(
             String.format("%s/version_file/%s?algorithm=%s", Constants.MODRINTH_API_URL, hash,
                 algorithm),
             getHeaders(), ModrinthVersion.class,
-            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build()));
     }
 
     public static Map<String, ModrinthVersion> getVersionsFromSha1Hashes(String[] hashes) {
@@ -376,6 +393,38 @@ public class ModrinthApi {
             return new HashMap<>();
         }
 
+        // only ask for the hashes we don't already have cached
+        String[] uncachedHashes = Arrays.stream(hashes)
+            .filter(hash -> !VERSION_FROM_HASH_CACHE.contains(algorithm + ":" + hash)).distinct()
+            .toArray(String[]::new);
+
+        if (uncachedHashes.length != 0) {
+            Map<String, ModrinthVersion> fetchedVersions = fetchVersionsFromHashes(uncachedHashes, algorithm);
+
+            // hashes that Modrinth doesn't know about are cached as such, since they're usually local mods, but if the
+            // request failed nothing is cached so they're asked for again next time
+            if (fetchedVersions != null) {
+                for (String hash : uncachedHashes) {
+                    VERSION_FROM_HASH_CACHE.recordMiss();
+                    VERSION_FROM_HASH_CACHE.put(algorithm + ":" + hash, fetchedVersions.get(hash));
+                }
+            }
+        }
+
+        Map<String, ModrinthVersion> versions = new HashMap<>();
+        for (String hash : hashes) {
+            ModrinthVersion version = VERSION_FROM_HASH_CACHE.getIfPresent(algorithm + ":" + hash);
+
+            if (version != null) {
+                versions.put(hash, version);
+            }
+        }
+
+        return versions;
+    }
+
+    @Nullable
+    private static Map<String, ModrinthVersion> fetchVersionsFromHashes(String[] hashes, String algorithm) {
         Map<String, Object> body = new HashMap<>();
         body.put("hashes", hashes);
         body.put("algorithm", algorithm);
@@ -383,11 +432,33 @@ public class ModrinthApi {
         java.lang.reflect.Type type = new TypeToken<Map<String, ModrinthVersion>>() {
         }.getType();
 
-        Map<String, ModrinthVersion> versions = NetworkClient.post(
+        return NetworkClient.post(
             String.format("%s/version_files", Constants.MODRINTH_API_URL),
             getHeaders(), RequestBody.create(Gsons.DEFAULT_SLIM.toJson(body),
                 MediaType.get("application/json; charset=utf-8")),
             type);
+    }
+
+    public static Map<String, ModrinthVersion> getLatestVersionsFromSha1Hashes(String[] hashes, List<String> loaders,
+        List<String> gameVersions) {
+        if (hashes.length == 0) {
+            return new HashMap<>();
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("hashes", hashes);
+        body.put("algorithm", "sha1");
+        body.put("loaders", loaders);
+        body.put("game_versions", gameVersions);
+
+        java.lang.reflect.Type type = new TypeToken<Map<String, ModrinthVersion>>() {
+        }.getType();
+
+        Map<String, ModrinthVersion> versions = NetworkClient.post(
+            String.format("%s/version_files/update", Constants.MODRINTH_API_URL),
+            getHeaders(), RequestBody.create(Gsons.DEFAULT_SLIM.toJson(body),
+                MediaType.get("application/json; charset=utf-8")),
+            type);
 
         if (versions == null) {
             return new HashMap<>();
@@ -397,6 +468,32 @@ public class ModrinthApi {
     }
 
     public static List<ModrinthProject> getProjects(String[] projectIds) {
+        // only ask for the projects we don't already have cached
+        String[] uncachedProjectIds = Arrays.stream(projectIds).filter(id -> !PROJECT_CACHE.contains(id)).distinct()
+            .toArray(String[]::new);
+
+        if (uncachedProjectIds.length != 0) {
+            List<ModrinthProject> fetchedProjects = fetchProjects(uncachedProjectIds);
+
+            if (fetchedProjects == null) {
+                return null;
+            }
+
+            Map<String, ModrinthProject> fetchedProjectsById = fetchedProjects.stream()
+                .collect(Collectors.toMap(p -> p.id, p -> p, (existing, replacement) -> existing));
+
+            // projects we asked for but didn't get back are cached as not existing
+            for (String id : uncachedProjectIds) {
+                PROJECT_CACHE.recordMiss();
+                PROJECT_CACHE.put(id, fetchedProjectsById.get(id));
+            }
+        }
+
+        return Arrays.stream(projectIds).map(PROJECT_CACHE::getIfPresent).filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private static List<ModrinthProject> fetchProjects(String[] projectIds) {
         java.lang.reflect.Type type = new TypeToken<List<ModrinthProject>>() {
         }.getType();
 
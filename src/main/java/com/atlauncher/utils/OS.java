@@ -69,6 +69,7 @@ public enum OS {
     LINUX, WINDOWS, OSX;
 
     private static int memory = 0;
+    private static int logicalProcessors = 0;
     private static SystemInfo systemInfo = null;
     private static List<OSProcess> antivirusProcesses = null;
 
@@ -438,6 +439,25 @@ public enum OS {
         return memory;
     }
 
+    /**
+     * Returns the number of logical processors in the users system.
+     */
+    public static int getLogicalProcessorCount() {
+        if (logicalProcessors == 0) {
+            try {
+                logicalProcessors = getSystemInfo().getHardware().getProcessor().getLogicalProcessorCount();
+            } catch (Throwable t) {
+                LogManager.logStackTrace(t);
+            }
+
+            if (logicalProcessors <= 0) {
+                logicalProcessors = Runtime.getRuntime().availableProcessors();
+            }
+        }
+
+        return logicalProcessors;
+    }
+
     /**
      * Returns the maximum RAM available to Java. If on a 64 Bit system, then its
      * all of the System RAM otherwise its limited to 1GB or less due to allocations
@@ -0,0 +1,171 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.nio.file.FileVisitResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.zeroturnaround.zip.NameMapper;
+
+/**
+ * Selects paths (relative to some root and using / as the separator) by a set of include and exclude prefixes. As well
+ * as mapping names like any other {@link NameMapper}, it can tell a tree walk which directories can't contain anything
+ * it would include, so that they can be skipped without walking through everything inside of them.
+ */
+public class PathPrefixFilter implements NameMapper {
+    public static final PathPrefixFilter ALL = new PathPrefixFilter(null, Collections.emptyList(),
+            Collections.emptyList());
+
+    /**
+     * Prefixes of paths to include, or null to include everything not excluded.
+     */
+    private final List<String> includePrefixes;
+
+    /**
+     * Paths of files to include, compared case insensitively.
+     */
+    private final List<String> includeFiles;
+
+    private final List<String> excludePrefixes;
+
+    private PathPrefixFilter(List<String> includePrefixes, List<String> includeFiles, List<String> excludePrefixes) {
+        this.includePrefixes = includePrefixes;
+        this.includeFiles = includeFiles;
+        this.excludePrefixes = excludePrefixes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String map(String name) {
+        return includes(name) ? name : null;
+    }
+
+    public boolean includes(String name) {
+        for (String prefix : excludePrefixes) {
+            if (name.startsWith(prefix)) {
+                return false;
+            }
+        }
+
+        if (includePrefixes == null) {
+            return true;
+        }
+
+        for (String file : includeFiles) {
+            if (name.equalsIgnoreCase(file)) {
+                return true;
+            }
+        }
+
+        for (String prefix : includePrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if anything inside the given directory could be included.
+     *
+     * @param directoryName the path of the directory, without a trailing /
+     * @return if the directory needs to be walked
+     */
+    public boolean shouldVisitDirectory(String directoryName) {
+        String directoryPrefix = directoryName + "/";
+
+        // everything in the directory starts with its path, so if that's excluded then so is everything in it
+        for (String prefix : excludePrefixes) {
+            if (directoryPrefix.startsWith(prefix)) {
+                return false;
+            }
+        }
+
+        if (includePrefixes == null) {
+            return true;
+        }
+
+        for (String prefix : includePrefixes) {
+            // either everything in the directory is included, or something further down it is
+            if (directoryPrefix.startsWith(prefix) || prefix.startsWith(directoryPrefix)) {
+                return true;
+            }
+        }
+
+        for (String file : includeFiles) {
+            if (file.regionMatches(true, 0, directoryPrefix, 0, directoryPrefix.length())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the result for a tree walk visiting the given directory, skipping it if nothing inside it can be included.
+     *
+     * @param nameMapper    the mapper deciding what to include
+     * @param directoryName the path of the directory relative to the root of the walk, without a trailing /
+     * @return the result for the walk
+     */
+    public static FileVisitResult preVisitDirectory(NameMapper nameMapper, String directoryName) {
+        if (directoryName.isEmpty() || !(nameMapper instanceof PathPrefixFilter)) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        return ((PathPrefixFilter) nameMapper).shouldVisitDirectory(directoryName) ? FileVisitResult.CONTINUE
+                : FileVisitResult.SKIP_SUBTREE;
+    }
+
+    public static class Builder {
+        private List<String> includePrefixes = null;
+        private final List<String> includeFiles = new ArrayList<>();
+        private final List<String> excludePrefixes = new ArrayList<>();
+
+        public Builder include(String... prefixes) {
+            if (includePrefixes == null) {
+                includePrefixes = new ArrayList<>();
+            }
+
+            includePrefixes.addAll(Arrays.asList(prefixes));
+            return this;
+        }
+
+        public Builder includeFile(String... files) {
+            include();
+            includeFiles.addAll(Arrays.asList(files));
+            return this;
+        }
+
+        public Builder exclude(String... prefixes) {
+            excludePrefixes.addAll(Arrays.asList(prefixes));
+            return this;
+        }
+
+        public PathPrefixFilter build() {
+            return new PathPrefixFilter(includePrefixes, includeFiles, excludePrefixes);
+        }
+    }
+}
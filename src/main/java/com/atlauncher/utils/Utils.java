@@ -40,7 +40,6 @@ import java.net.NetworkInterface;
 import java.net.Proxy;
 import java.net.URI;
 import java.net.URL;
-import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -285,9 +284,6 @@ public class Utils {
             return false;
         }
 
-        FileChannel source = null;
-        FileChannel destination = null;
-
         InputStream sourceStream = null;
         OutputStream destinationStream = null;
 
@@ -295,9 +291,7 @@ public class Utils {
 
         try {
             if (!isURI) {
-                source = new FileInputStream(from).getChannel();
-                destination = new FileOutputStream(to).getChannel();
-                destination.transferFrom(source, 0, source.size());
+                FileCopier.copyFile(from.toPath(), to.toPath());
             } else {
                 sourceStream = ArchiveUtils.createInputStream(from.toPath());
                 destinationStream = new FileOutputStream(to);
@@ -308,16 +302,10 @@ public class Utils {
             return false;
         } finally {
             try {
-                if (source != null) {
-                    source.close();
-                }
                 if (sourceStream != null) {
                     sourceStream.close();
                 }
 
-                if (destination != null) {
-                    destination.close();
-                }
                 if (destinationStream != null) {
                     destinationStream.close();
                 }
@@ -387,29 +375,13 @@ public class Utils {
         if (copyFolder) {
             targetLocation = new File(targetLocation, sourceLocation.getName());
         }
-        try {
-            if (sourceLocation.isDirectory()) {
-                if (!targetLocation.exists()) {
-                    targetLocation.mkdirs();
-                }
-
-                String[] children = sourceLocation.list();
-                for (String child : children) {
-                    copyDirectory(new File(sourceLocation, child), new File(targetLocation, child));
-                }
-            } else {
 
-                InputStream in = new FileInputStream(sourceLocation);
-                OutputStream out = new FileOutputStream(targetLocation);
+        if (sourceLocation.isDirectory()) {
+            return FileCopier.copyDirectory(sourceLocation.toPath(), targetLocation.toPath());
+        }
 
-                byte[] buf = new byte[1024];
-                int len;
-                while ((len = in.read(buf)) > 0) {
-                    out.write(buf, 0, len);
-                }
-                in.close();
-                out.close();
-            }
+        try {
+            FileCopier.copyFile(sourceLocation.toPath(), targetLocation.toPath());
         } catch (IOException e) {
             LogManager.logStackTrace(e);
             return false;
@@ -1464,11 +1436,15 @@ public class Utils {
     }
 
     public static MCMod getMCModForFile(File file) {
+        return getMCModForFile(file.toPath());
+    }
+
+    public static MCMod getMCModForFile(Path file) {
         try {
             java.lang.reflect.Type type = new TypeToken<List<MCMod>>() {
             }.getType();
 
-            List<MCMod> mods = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "mcmod.info"), type);
+            List<MCMod> mods = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file, "mcmod.info"), type);
 
             if (!mods.isEmpty() && mods.get(0) != null) {
                 return mods.get(0);
@@ -1481,8 +1457,12 @@ public class Utils {
     }
 
     public static FabricMod getFabricModForFile(File file) {
+        return getFabricModForFile(file.toPath());
+    }
+
+    public static FabricMod getFabricModForFile(Path file) {
         try {
-            FabricMod mod = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "fabric.mod.json"),
+            FabricMod mod = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file, "fabric.mod.json"),
                 FabricMod.class);
 
             if (mod != null) {
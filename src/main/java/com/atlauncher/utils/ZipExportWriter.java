@@ -0,0 +1,298 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.compress.utils.IOUtils;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.TaskPools;
+
+/**
+ * Writes an export straight into a zip file, with files streamed from where they are on disk under whatever name they
+ * need in the archive, and generated files (such as manifests) written from memory. This means exporting doesn't need
+ * to copy everything into a temporary directory first.
+ *
+ * Entries that are stored rather than compressed (such as mod jars, which make up most of an export) are streamed into
+ * the archive as they're added. Entries that are compressed are deflated across the {@link TaskPools#CPU} pool into
+ * memory, and are written after the stored entries when the writer is closed.
+ */
+public class ZipExportWriter implements Closeable {
+    /**
+     * How much compressed data each thread keeps in memory before moving it into a temporary file.
+     */
+    private static final int MAX_IN_MEMORY_BYTES = 32 * 1024 * 1024;
+
+    private final Path archivePath;
+    private final ZipArchiveOutputStream zos;
+    private final ExecutorService executor;
+    private final ParallelScatterZipCreator creator;
+    private final Set<String> directories = new HashSet<>();
+    private final List<String> fileNames = new ArrayList<>();
+
+    public ZipExportWriter(Path archivePath) throws IOException {
+        this.archivePath = archivePath;
+        this.zos = new ZipArchiveOutputStream(archivePath);
+
+        // the creator shuts down the executor it's given once it's written, so give it one that won't stop the pool
+        this.executor = TaskPools.CPU.newScopedExecutor();
+        this.creator = new ParallelScatterZipCreator(executor, MemoryBackingStore::new);
+    }
+
+    /**
+     * Adds an entry with the given contents.
+     *
+     * @param name    the name of the entry in the zip
+     * @param content the contents of the entry
+     */
+    public void addEntry(String name, byte[] content) throws IOException {
+        addParentDirectories(name);
+
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        addEntry(entry, () -> new ByteArrayInputStream(content));
+
+        fileNames.add(name);
+    }
+
+    /**
+     * Adds an entry with the given object serialised to JSON.
+     *
+     * @param name   the name of the entry in the zip
+     * @param object the object to serialise
+     */
+    public void addJson(String name, Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (OutputStreamWriter writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            Gsons.DEFAULT.toJson(object, writer);
+        }
+
+        addEntry(name, bytes.toByteArray());
+    }
+
+    /**
+     * Adds the given file from disk.
+     *
+     * @param name the name of the entry in the zip
+     * @param file the file to add
+     */
+    public void addFile(String name, Path file) throws IOException {
+        addParentDirectories(name);
+
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setTime(Files.getLastModifiedTime(file).toMillis());
+        addEntry(entry, () -> {
+            try {
+                return Files.newInputStream(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        fileNames.add(name);
+    }
+
+    private void addEntry(ZipArchiveEntry entry, InputStreamSupplier supplier) throws IOException {
+        if (!ArchiveUtils.shouldStore(entry.getName())) {
+            entry.setMethod(ZipEntry.DEFLATED);
+            creator.addArchiveEntry(entry, supplier);
+            return;
+        }
+
+        // there's nothing to gain from doing stored entries in parallel, so write them straight into the archive
+        entry.setMethod(ZipEntry.STORED);
+        zos.putArchiveEntry(entry);
+
+        try (InputStream is = supplier.get()) {
+            IOUtils.copy(is, zos);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        zos.closeArchiveEntry();
+    }
+
+    /**
+     * Adds all the files in the given directory, under the given prefix. Symbolic links and .DS_Store files are
+     * skipped.
+     *
+     * @param prefix    the prefix to add to the path of each file relative to the directory, ending with /
+     * @param directory the directory to add
+     * @param filter    which files to add
+     */
+    public void addDirectory(String prefix, Path directory, Predicate<Path> filter) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isSymbolicLink() || attributes.isDirectory()
+                        || file.getFileName().toString().equals(".DS_Store") || !filter.test(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                addFile(prefix + directory.relativize(file).toString().replace(File.separatorChar, '/'), file);
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Adds a directory entry. Directories containing files are added automatically, so this is only needed for empty
+     * directories.
+     *
+     * @param name the name of the directory, ending with /
+     */
+    public void addDirectoryEntry(String name) throws IOException {
+        if (directories.contains(name)) {
+            return;
+        }
+
+        addParentDirectories(name.substring(0, name.length() - 1));
+
+        directories.add(name);
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        zos.putArchiveEntry(entry);
+        zos.closeArchiveEntry();
+    }
+
+    private void addParentDirectories(String name) throws IOException {
+        int index = name.lastIndexOf('/');
+
+        if (index > 0) {
+            addDirectoryEntry(name.substring(0, index + 1));
+        }
+    }
+
+    /**
+     * Gets the names of all the files added so far.
+     */
+    public List<String> getFileNames() {
+        return Collections.unmodifiableList(fileNames);
+    }
+
+    /**
+     * Waits for all the compressed entries to be deflated, then writes them into the archive after the stored ones.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            creator.writeTo(zos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing " + archivePath);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress entries for " + archivePath, e.getCause());
+        } finally {
+            // writing shuts the executor down, but make sure it's stopped if we failed before getting there
+            executor.shutdownNow();
+            zos.close();
+        }
+    }
+
+    /**
+     * Holds the entries deflated by a thread in memory, moving them into a temporary file if they grow past
+     * {@link #MAX_IN_MEMORY_BYTES} so that memory use stays bounded however large the export is.
+     */
+    private static class MemoryBackingStore implements ScatterGatherBackingStore {
+        private ExposedByteArrayOutputStream memory = new ExposedByteArrayOutputStream();
+        private Path file;
+        private OutputStream fileOutputStream;
+
+        @Override
+        public void writeOut(byte[] data, int offset, int length) throws IOException {
+            if (file == null && memory.size() + length > MAX_IN_MEMORY_BYTES) {
+                file = Files.createTempFile(FileSystem.TEMP, "export", ".scatter");
+                fileOutputStream = Files.newOutputStream(file);
+                memory.writeTo(fileOutputStream);
+                memory = null;
+            }
+
+            if (file == null) {
+                memory.write(data, offset, length);
+            } else {
+                fileOutputStream.write(data, offset, length);
+            }
+        }
+
+        @Override
+        public void closeForWriting() throws IOException {
+            if (fileOutputStream != null) {
+                fileOutputStream.close();
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return file == null ? memory.toInputStream() : Files.newInputStream(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                closeForWriting();
+            } finally {
+                memory = null;
+
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        /**
+         * Reads back what's been written, without copying the buffer.
+         */
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
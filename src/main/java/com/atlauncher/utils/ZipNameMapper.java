@@ -17,31 +17,18 @@
  */
 package com.atlauncher.utils;
 
-import org.zeroturnaround.zip.NameMapper;
-
 import com.atlauncher.data.BackupMode;
 
 public class ZipNameMapper {
-    public static final NameMapper NORMAL_BACKUP = name -> {
-        if (name.equalsIgnoreCase("options.txt") || name.startsWith("saves") || name.startsWith("config")) {
-            return name;
-        }
-
-        return null;
-    };
-
-    public static final NameMapper NORMAL_PLUS_MODS_BACKUP = name -> {
-        if (name.equalsIgnoreCase("options.txt") || name.startsWith("saves") || name.startsWith("config")
-                || name.startsWith("mods") || name.startsWith("jarmods") || name.startsWith("coremods")) {
-            return name;
-        }
+    public static final PathPrefixFilter NORMAL_BACKUP = PathPrefixFilter.builder().includeFile("options.txt")
+            .include("saves", "config").build();
 
-        return null;
-    };
+    public static final PathPrefixFilter NORMAL_PLUS_MODS_BACKUP = PathPrefixFilter.builder()
+            .includeFile("options.txt").include("saves", "config", "mods", "jarmods", "coremods").build();
 
-    public static final NameMapper FULL_BACKUP = name -> name;
+    public static final PathPrefixFilter FULL_BACKUP = PathPrefixFilter.ALL;
 
-    public static NameMapper getMapperForBackupMode(BackupMode backupMode) {
+    public static PathPrefixFilter getMapperForBackupMode(BackupMode backupMode) {
         if (backupMode == BackupMode.NORMAL) {
             return NORMAL_BACKUP;
         }
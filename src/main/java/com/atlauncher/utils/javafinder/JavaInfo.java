@@ -20,13 +20,9 @@ package com.atlauncher.utils.javafinder;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
 
 import com.atlauncher.FileSystem;
 import com.atlauncher.utils.Java;
-import com.atlauncher.utils.Utils;
 
 public class JavaInfo {
     public String path;
@@ -37,27 +33,16 @@ public class JavaInfo {
     public boolean is64bits;
     public boolean isRuntime;
 
-    private static final Map<String, String> versionInfos = new HashMap<>();
-
     public JavaInfo(String javaPath) {
-        String versionInfo = versionInfos.get(javaPath);
-
-        if (versionInfo == null) {
-            versionInfo = Utils.runProcess(javaPath, "-version");
-            JavaInfo.versionInfos.put(javaPath, versionInfo);
-        }
-
-        String[] tokens = versionInfo.split("\"");
+        JavaInstallation installation = JavaInstallations.get(javaPath);
 
-        if (tokens.length < 2) {
-            this.version = "Unknown";
-        } else {
-            this.version = tokens[1];
+        this.version = installation.version;
+        if (installation.hasVersion()) {
             this.majorVersion = Java.parseJavaVersionNumber(this.version);
             this.minorVersion = Java.parseJavaBuildVersion(this.version);
         }
 
-        this.is64bits = versionInfo.toUpperCase(Locale.ENGLISH).contains("64-BIT");
+        this.is64bits = installation.is64bits;
         this.path = javaPath;
         this.rootPath = new File(javaPath).getParentFile().getParentFile().getAbsolutePath();
 
@@ -0,0 +1,48 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.javafinder;
+
+/**
+ * What we know about a Java installation, as probed from its release file or by running it.
+ */
+public class JavaInstallation {
+    public static final String SOURCE_RELEASE_FILE = "release";
+    public static final String SOURCE_PROCESS = "process";
+
+    public String executablePath;
+    public String version = "Unknown";
+    public String implementor;
+    public String osArch;
+    public boolean is64bits;
+
+    /**
+     * Where the information came from, either {@link #SOURCE_RELEASE_FILE} or {@link #SOURCE_PROCESS}.
+     */
+    public String source;
+
+    /**
+     * The size and modified time of the Java executable when this was probed. If either changes, the installation has
+     * been updated or replaced and needs probing again.
+     */
+    public long executableSize;
+    public long executableLastModified;
+
+    public boolean hasVersion() {
+        return version != null && !version.equals("Unknown");
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.javafinder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Utils;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * A registry of the Java installations we've probed, saved to disk so that we don't need to run Java just to find out
+ * its version again.
+ *
+ * Installations are probed by reading the release file in the root of the install (which every JDK and JRE from Java
+ * 8 onwards has), only falling back to running {@code java -version} when there isn't one. Results are keyed by the
+ * path to the Java executable, and are thrown away when the executable's size or modified time changes.
+ */
+public class JavaInstallations {
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(java|openjdk) version \"([^\"]*)\"");
+    private static final Pattern RELEASE_LINE_PATTERN = Pattern.compile("^([A-Z_]+)=\"?(.*?)\"?$");
+
+    private static final Map<String, JavaInstallation> INSTALLATIONS = new ConcurrentHashMap<>();
+    private static boolean hasLoaded = false;
+
+    /**
+     * Gets the information for the Java installation with the given executable, probing it if we haven't already.
+     *
+     * @param executablePath the path to the java/javaw executable
+     * @return the information about the installation
+     */
+    public static JavaInstallation get(String executablePath) {
+        loadIfNeeded();
+
+        Path executable = Paths.get(executablePath).toAbsolutePath();
+        String key = executable.toString();
+
+        long size = -1L;
+        long lastModified = -1L;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(executable, BasicFileAttributes.class);
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        } catch (IOException ignored) {
+            // doesn't exist, so probing below will come back as unknown
+        }
+
+        JavaInstallation cached = INSTALLATIONS.get(key);
+        if (cached != null && cached.executableSize == size && cached.executableLastModified == lastModified) {
+            return cached;
+        }
+
+        JavaInstallation installation = probe(executable);
+        installation.executableSize = size;
+        installation.executableLastModified = lastModified;
+
+        // don't remember failures, since the executable might not have finished being installed yet
+        if (installation.hasVersion()) {
+            INSTALLATIONS.put(key, installation);
+            save();
+        }
+
+        return installation;
+    }
+
+    private static JavaInstallation probe(Path executable) {
+        JavaInstallation installation = new JavaInstallation();
+        installation.executablePath = executable.toString();
+
+        // executable is in <root>/bin/java
+        Path root = executable.getParent() == null ? null : executable.getParent().getParent();
+        Path releaseFile = root == null ? null : root.resolve("release");
+
+        if (releaseFile != null && Files.isRegularFile(releaseFile)) {
+            try {
+                Map<String, String> release = parseReleaseFile(
+                    Files.readAllLines(releaseFile, StandardCharsets.ISO_8859_1));
+
+                if (release.containsKey("JAVA_VERSION")) {
+                    installation.version = release.get("JAVA_VERSION");
+                    installation.implementor = release.get("IMPLEMENTOR");
+                    installation.osArch = release.get("OS_ARCH");
+                    installation.is64bits = isArch64Bit(installation.osArch);
+                    installation.source = JavaInstallation.SOURCE_RELEASE_FILE;
+
+                    LogManager.debug(String.format("Got version \"%s\" for Java at path \"%s\" from release file",
+                        installation.version, executable));
+
+                    return installation;
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to read Java release file " + releaseFile, e, false);
+            }
+        }
+
+        String output = Utils.runProcess(executable.toString(), "-version");
+        Matcher matcher = VERSION_PATTERN.matcher(output);
+
+        if (matcher.find()) {
+            installation.version = matcher.group(2);
+        }
+
+        installation.is64bits = output.toUpperCase(Locale.ENGLISH).contains("64-BIT");
+        installation.source = JavaInstallation.SOURCE_PROCESS;
+
+        LogManager.debug(String.format("Got version \"%s\" for Java at path \"%s\"", installation.version, executable));
+
+        return installation;
+    }
+
+    /**
+     * Parses the lines of a Java release file, which are in the form of {@code KEY="value"}.
+     *
+     * @param lines the lines of the release file
+     * @return a map of the keys to their values
+     */
+    public static Map<String, String> parseReleaseFile(List<String> lines) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String line : lines) {
+            Matcher matcher = RELEASE_LINE_PATTERN.matcher(line.trim());
+
+            if (matcher.matches()) {
+                values.put(matcher.group(1), matcher.group(2));
+            }
+        }
+
+        return values;
+    }
+
+    private static boolean isArch64Bit(String osArch) {
+        if (osArch == null) {
+            return false;
+        }
+
+        String arch = osArch.toLowerCase(Locale.ENGLISH);
+        return arch.contains("64") || arch.equals("s390x");
+    }
+
+    private static synchronized void loadIfNeeded() {
+        if (hasLoaded) {
+            return;
+        }
+
+        hasLoaded = true;
+
+        if (!Files.exists(FileSystem.JAVA_INSTALLATIONS)) {
+            return;
+        }
+
+        try (InputStreamReader fileReader = new InputStreamReader(
+            Files.newInputStream(FileSystem.JAVA_INSTALLATIONS), StandardCharsets.UTF_8)) {
+            Type installationsType = new TypeToken<Map<String, JavaInstallation>>() {
+            }.getType();
+            Map<String, JavaInstallation> installations = Gsons.DEFAULT.fromJson(fileReader, installationsType);
+
+            if (installations != null) {
+                INSTALLATIONS.putAll(installations);
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading Java installations", e, false);
+        }
+    }
+
+    private static synchronized void save() {
+        if (!Files.isDirectory(FileSystem.JAVA_INSTALLATIONS.getParent())) {
+            return;
+        }
+
+        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
+            Files.newOutputStream(FileSystem.JAVA_INSTALLATIONS), StandardCharsets.UTF_8)) {
+            Type installationsType = new TypeToken<Map<String, JavaInstallation>>() {
+            }.getType();
+            Gsons.DEFAULT.toJson(new HashMap<>(INSTALLATIONS), installationsType, fileWriter);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception saving Java installations", e, false);
+        }
+    }
+}
@@ -44,6 +44,10 @@ public class BackupsSettingsViewModel implements SettingsListener {
 
     private final BehaviorSubject<String> backupsPath = BehaviorSubject.create();
 
+    private final BehaviorSubject<Boolean> enableIncrementalBackups = BehaviorSubject.create();
+
+    private final BehaviorSubject<Integer> incrementalBackupsToKeep = BehaviorSubject.create();
+
     private final BehaviorSubject<CheckState> backupsPathChecker = BehaviorSubject.create();
 
     public BackupsSettingsViewModel() {
@@ -58,6 +62,8 @@ public class BackupsSettingsViewModel implements SettingsListener {
         enableAutomaticBackupAfterLaunch.onNext(App.settings.enableAutomaticBackupAfterLaunch);
         backupsPath.onNext(Optional.ofNullable(App.settings.backupsPath)
                 .orElse(FileSystem.BACKUPS.toAbsolutePath().toString()));
+        enableIncrementalBackups.onNext(App.settings.enableIncrementalBackups);
+        incrementalBackupsToKeep.onNext(App.settings.incrementalBackupsToKeep);
     }
 
     /**
@@ -92,6 +98,36 @@ public class BackupsSettingsViewModel implements SettingsListener {
         SettingsManager.post();
     }
 
+    /**
+     * Listen to incremental backup changes
+     */
+    public Observable<Boolean> getEnableIncrementalBackups() {
+        return enableIncrementalBackups.observeOn(SwingSchedulers.edt());
+    }
+
+    /**
+     * Set if backups should be incremental
+     */
+    public void setEnableIncrementalBackups(boolean enabled) {
+        App.settings.enableIncrementalBackups = enabled;
+        SettingsManager.post();
+    }
+
+    /**
+     * Listen to changes in the number of incremental backups to keep
+     */
+    public Observable<Integer> getIncrementalBackupsToKeep() {
+        return incrementalBackupsToKeep.observeOn(SwingSchedulers.edt());
+    }
+
+    /**
+     * Set the number of incremental backups to keep per instance
+     */
+    public void setIncrementalBackupsToKeep(int backupsToKeep) {
+        App.settings.incrementalBackupsToKeep = backupsToKeep;
+        SettingsManager.post();
+    }
+
     /**
      * Listen to backups path changes
      */
@@ -67,7 +67,8 @@ public class JavaSettingsViewModel implements SettingsListener {
         _useJavaProvidedByMinecraft = BehaviorSubject.create(),
         _disableLegacyLaunching = BehaviorSubject.create(),
         _useSystemGlfw = BehaviorSubject.create(),
-        _useSystemOpenAl = BehaviorSubject.create();
+        _useSystemOpenAl = BehaviorSubject.create(),
+        _useClassDataSharing = BehaviorSubject.create();
 
     private final BehaviorSubject<CheckState> javaPathCheckState = BehaviorSubject.create(),
         javaInstallLocationCheckState = BehaviorSubject.create(),
@@ -212,6 +213,7 @@ public class JavaSettingsViewModel implements SettingsListener {
         _disableLegacyLaunching.onNext(App.settings.disableLegacyLaunching);
         _useSystemGlfw.onNext(App.settings.useSystemGlfw);
         _useSystemOpenAl.onNext(App.settings.useSystemOpenAl);
+        _useClassDataSharing.onNext(App.settings.useClassDataSharing);
     }
 
     /**
@@ -460,6 +462,15 @@ public class JavaSettingsViewModel implements SettingsListener {
         SettingsManager.post();
     }
 
+    public Observable<Boolean> getClassDataSharing() {
+        return _useClassDataSharing.observeOn(SwingSchedulers.edt());
+    }
+
+    public void setClassDataSharing(Boolean b) {
+        App.settings.useClassDataSharing = b;
+        SettingsManager.post();
+    }
+
     public void setJavaInstallLocationPending() {
         SettingsValidityManager.setValidity("javaInstallLocation", false);
     }
@@ -24,6 +24,7 @@ import com.atlauncher.data.ModPlatform;
 import com.atlauncher.evnt.listener.SettingsListener;
 import com.atlauncher.evnt.manager.SettingsManager;
 import com.atlauncher.gui.tabs.settings.ModsSettingsTab;
+import com.atlauncher.managers.ModUpdateManager;
 import com.atlauncher.repository.base.IModReloadRequiredRepository;
 import com.atlauncher.repository.impl.ModReloadRequiredRepository;
 import com.gitlab.doomsdayrs.lib.rxswing.schedulers.SwingSchedulers;
@@ -46,7 +47,9 @@ public class ModsSettingsViewModel implements SettingsListener {
             _doNotCheckModsOnCurseForge = BehaviorSubject.create(),
             _doNotCheckModsOnModrinth = BehaviorSubject.create(),
             allowCurseForgeAlphaBetaFiles = BehaviorSubject.create(),
-            scanModsOnLaunch = BehaviorSubject.create();
+            scanModsOnLaunch = BehaviorSubject.create(),
+            useSharedModStore = BehaviorSubject.create(),
+            enableBackgroundModUpdateScanning = BehaviorSubject.create();
 
     public ModsSettingsViewModel() {
         onSettingsSaved();
@@ -65,6 +68,8 @@ public class ModsSettingsViewModel implements SettingsListener {
         _doNotCheckModsOnCurseForge.onNext(App.settings.dontCheckModsOnCurseForge);
         _doNotCheckModsOnModrinth.onNext(App.settings.dontCheckModsOnModrinth);
         allowCurseForgeAlphaBetaFiles.onNext(App.settings.allowCurseForgeAlphaBetaFiles);
+        useSharedModStore.onNext(App.settings.useSharedModStore);
+        enableBackgroundModUpdateScanning.onNext(App.settings.enableBackgroundModUpdateScanning);
     }
 
     public Observable<Integer> getDefaultModPlatform() {
@@ -151,4 +156,28 @@ public class ModsSettingsViewModel implements SettingsListener {
         App.settings.scanModsOnLaunch = b;
         SettingsManager.post();
     }
+
+    public Observable<Boolean> getUseSharedModStore() {
+        return useSharedModStore.observeOn(SwingSchedulers.edt());
+    }
+
+    public void setUseSharedModStore(boolean b) {
+        App.settings.useSharedModStore = b;
+        SettingsManager.post();
+    }
+
+    public Observable<Boolean> getEnableBackgroundModUpdateScanning() {
+        return enableBackgroundModUpdateScanning.observeOn(SwingSchedulers.edt());
+    }
+
+    public void setEnableBackgroundModUpdateScanning(boolean b) {
+        App.settings.enableBackgroundModUpdateScanning = b;
+        SettingsManager.post();
+
+        if (b) {
+            ModUpdateManager.startScanning();
+        } else {
+            ModUpdateManager.stopScanning();
+        }
+    }
 }
\ No newline at end of file
@@ -27,7 +27,6 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +50,7 @@ import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
+import com.atlauncher.TaskPools;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.DisableableMod;
@@ -128,6 +128,7 @@ import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.ServerManager;
+import com.atlauncher.managers.TrashManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.ErrorReporting;
@@ -175,6 +176,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     public final TechnicModpack technicModpack;
     public TechnicSolderModpackManifest technicSolderModpackManifest;
     public Path technicModpackExtractedPath;
+
+    /**
+     * The modpack archive downloaded by this installer, and the path its contents were opened or extracted to, which
+     * are both released once the install finishes.
+     */
+    private Path downloadedArchive = null;
+    private Path downloadedArchiveContents = null;
     public List<Mod> technicSolderModsToDownload = new ArrayList<>();
     private List<String> overridePaths = new ArrayList<>();
 
@@ -410,11 +418,33 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             success(false);
             cancel(true);
             LogManager.logStackTrace(e);
+        } finally {
+            releaseDownloadedArchive();
         }
 
         return success(false);
     }
 
+    /**
+     * Closes (or deletes the extracted copy of) the modpack archive downloaded by this installer, so that it doesn't
+     * hold a handle open on the archive (which on Windows stops it, and the temp directory, from being deleted).
+     */
+    private void releaseDownloadedArchive() {
+        if (downloadedArchiveContents != null) {
+            ArchiveUtils.cleanupExtracted(downloadedArchiveContents);
+            downloadedArchiveContents = null;
+        }
+
+        if (downloadedArchive != null) {
+            try {
+                Files.deleteIfExists(downloadedArchive);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to delete " + downloadedArchive, e, false);
+            }
+            downloadedArchive = null;
+        }
+    }
+
     private void downloadCurseForgeServerPack() throws Exception {
         addPercent(5);
 
@@ -747,31 +777,24 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             }
         }
 
-        int[] projectIdsFound = curseForgeManifest.files.stream().mapToInt(file -> file.projectID).toArray();
-
-        Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(projectIdsFound);
+        Pair<Map<Integer, CurseForgeProject>, Map<Integer, CurseForgeFile>> resolved = resolveCurseForgeProjectsAndFiles(
+            curseForgeManifest.files.stream().map(file -> new Pair<>(file.projectID, file.fileID))
+                .collect(Collectors.toList()));
+        Map<Integer, CurseForgeProject> foundProjects = resolved.left();
+        Map<Integer, CurseForgeFile> filesFound = resolved.right();
 
-        List<CurseForgeFile> filesFound = CurseForgeApi
-            .getFiles(curseForgeManifest.files.stream().mapToInt(file -> file.fileID).toArray());
-
-        List<Pair<CurseForgeProject, CurseForgeFile>> manualDownloadMods = Collections
-            .synchronizedList(new ArrayList<>());
-
-        List<CurseForgeFile> filesForManualDownload = curseForgeManifest.files.parallelStream()
-            .filter(file -> {
-                Optional<CurseForgeFile> curseForgeFile = filesFound.stream().filter(f -> f.id == file.fileID)
-                    .findFirst();
+        List<Pair<CurseForgeProject, CurseForgeFile>> manualDownloadMods = new ArrayList<>();
 
-                return curseForgeFile.filter(forgeFile -> forgeFile.downloadUrl == null).isPresent();
-            }).map(file -> filesFound.stream().filter(f -> f.id == file.fileID)
-                .findFirst().get())
+        List<CurseForgeFile> filesForManualDownload = curseForgeManifest.files.stream()
+            .map(file -> filesFound.get(file.fileID))
+            .filter(file -> file.downloadUrl == null)
             .collect(Collectors.toList());
 
         Map<String, ModrinthVersion> modrinthVersions = new HashMap<>();
         Map<String, ModrinthProject> modrinthProjects = new HashMap<>();
 
         if (!filesForManualDownload.isEmpty()) {
-            String[] sha1Hashes = filesForManualDownload.parallelStream()
+            String[] sha1Hashes = filesForManualDownload.stream()
                 .map(file -> file.hashes.stream().filter(CurseForgeFileHash::isSha1).findFirst().orElse(null))
                 .filter(Objects::nonNull)
                 .map(hash -> hash.value)
@@ -781,17 +804,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
             if (!modrinthVersions.isEmpty()) {
                 modrinthProjects.putAll(ModrinthApi.getProjectsAsMap(
-                    modrinthVersions.values().parallelStream().map(mv -> mv.projectId).toArray(String[]::new)));
+                    modrinthVersions.values().stream().map(mv -> mv.projectId).toArray(String[]::new)));
             }
         }
 
-        packVersion.mods = curseForgeManifest.files.parallelStream().map(file -> {
-            CurseForgeProject curseForgeProject = Optional.ofNullable(foundProjects.get(file.projectID))
-                .orElseGet(() -> CurseForgeApi.getProjectById(file.projectID));
-
-            CurseForgeFile curseForgeFile = filesFound.stream().filter(f -> f.id == file.fileID).findFirst()
-                .orElseGet(() -> CurseForgeApi
-                    .getFileForProject(file.projectID, file.fileID));
+        packVersion.mods = curseForgeManifest.files.stream().map(file -> {
+            CurseForgeProject curseForgeProject = foundProjects.get(file.projectID);
+            CurseForgeFile curseForgeFile = filesFound.get(file.fileID);
 
             if (curseForgeFile.downloadUrl == null) {
                 LogManager.debug(String.format(Locale.ENGLISH,
@@ -971,10 +990,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         curseForgeManifest = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(manifestFile, "manifest.json"),
             CurseForgeManifest.class);
-        curseForgeExtractedPath = this.temp.resolve("curseforgeimport");
 
-        ArchiveUtils.extract(manifestFile, curseForgeExtractedPath);
-        Files.delete(manifestFile);
+        // overrides are copied straight out of the downloaded zip when installing configs, so keep it open until the
+        // install finishes and only extract it if it can't be opened
+        downloadedArchive = manifestFile;
+        curseForgeExtractedPath = ArchiveUtils.openArchive(manifestFile);
+        if (curseForgeExtractedPath == null) {
+            curseForgeExtractedPath = this.temp.resolve("curseforgeimport");
+
+            ArchiveUtils.extract(manifestFile, curseForgeExtractedPath);
+        }
+        downloadedArchiveContents = curseForgeExtractedPath;
 
         generatePackVersionFromCurseForgeManifest();
 
@@ -1013,8 +1039,15 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Extracting Manifest"));
         fireSubProgressUnknown();
 
-        modrinthExtractedPath = this.temp.resolve("modrinthimport");
-        ArchiveUtils.extract(manifestFile, modrinthExtractedPath);
+        // overrides are copied straight out of the downloaded mrpack when installing configs, so keep it open until
+        // the install finishes and only extract it if it can't be opened
+        downloadedArchive = manifestFile;
+        modrinthExtractedPath = ArchiveUtils.openArchive(manifestFile);
+        if (modrinthExtractedPath == null) {
+            modrinthExtractedPath = this.temp.resolve("modrinthimport");
+            ArchiveUtils.extract(manifestFile, modrinthExtractedPath);
+        }
+        downloadedArchiveContents = modrinthExtractedPath;
 
         try (InputStreamReader fileReader = new InputStreamReader(
             Files.newInputStream(modrinthExtractedPath.resolve("modrinth.index.json")),
@@ -1022,13 +1055,9 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             modrinthManifest = Gsons.DEFAULT.fromJson(fileReader, ModrinthModpackManifest.class);
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to read modrinth.index.json file", e);
-            Files.delete(manifestFile);
-            Files.delete(modrinthExtractedPath);
             throw e;
         }
 
-        Files.delete(manifestFile);
-
         generatePackVersionFromModrinthManifest();
 
         hideSubProgressBar();
@@ -1159,9 +1188,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         FTBPackVersionModsManifest modsManifest = FTBApi.getModsManifest(ftbPackManifest.id,
             this.version._ftbId);
+        Map<String, FTBPackVersionManifestMod> modsByFilename = indexFTBModsByFilename(modsManifest);
 
         // find the mods with no url provided
-        long nonDownloadableMods = ftbPackVersionManifest.files.parallelStream()
+        long nonDownloadableMods = ftbPackVersionManifest.files.stream()
             .filter(f -> {
                 if (f.type != FTBPackVersionManifestFileType.MOD) {
                     return false;
@@ -1181,11 +1211,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     return true;
                 }
 
-                Optional<FTBPackVersionManifestMod> modInfo = modsManifest.mods.parallelStream()
-                    .filter(m -> m.filename != null && (m.filename.equalsIgnoreCase(f.name)
-                        || m.filename.equalsIgnoreCase(f.name.replace("_", ""))
-                        || m.filename.replace("_", " ").equalsIgnoreCase(f.name)))
-                    .findFirst();
+                Optional<FTBPackVersionManifestMod> modInfo = findFTBMod(modsByFilename, f.name);
 
                 if (!modInfo.isPresent()) {
                     LogManager
@@ -1209,7 +1235,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         }
 
         // mods with CurseForge information
-        List<Pair<Integer, Integer>> curseForgeMods = ftbPackVersionManifest.files.parallelStream()
+        List<Pair<Integer, Integer>> curseForgeMods = ftbPackVersionManifest.files.stream()
             .filter(f -> f.type == FTBPackVersionManifestFileType.MOD && (f.url == null || f.url.isEmpty()))
             .map(f -> {
                 if (f.curseforge != null && f.curseforge.file != null && f.curseforge.project != null) {
@@ -1220,11 +1246,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     return null;
                 }
 
-                Optional<FTBPackVersionManifestMod> modInfo = modsManifest.mods.parallelStream()
-                    .filter(m -> m.filename != null && (m.filename.equalsIgnoreCase(f.name)
-                        || m.filename.equalsIgnoreCase(f.name.replace("_", ""))
-                        || m.filename.replace("_", " ").equalsIgnoreCase(f.name)))
-                    .findFirst();
+                Optional<FTBPackVersionManifestMod> modInfo = findFTBMod(modsByFilename, f.name);
 
                 if (!modInfo.isPresent()) {
                     return null;
@@ -1233,11 +1255,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 return new Pair<Integer, Integer>(modInfo.get().curseProject, modInfo.get().curseFile);
             }).filter(m -> m != null).collect(Collectors.toList());
 
-        Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi
-            .getProjectsAsMap(curseForgeMods.stream().mapToInt(file -> file.left()).toArray());
-
-        List<CurseForgeFile> filesFound = CurseForgeApi
-            .getFiles(curseForgeMods.stream().mapToInt(file -> file.right()).toArray());
+        Pair<Map<Integer, CurseForgeProject>, Map<Integer, CurseForgeFile>> resolved = resolveCurseForgeProjectsAndFiles(
+            curseForgeMods);
+        Map<Integer, CurseForgeProject> foundProjects = resolved.left();
+        Map<Integer, CurseForgeFile> filesFound = resolved.right();
 
         List<Pair<CurseForgeProject, CurseForgeFile>> manualDownloadMods = new ArrayList<>();
 
@@ -1247,26 +1268,20 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     return null;
                 }
 
-                Optional<FTBPackVersionManifestMod> modInfo = modsManifest == null ? Optional.empty()
-                    : modsManifest.mods.parallelStream()
-                        .filter(m -> m.filename != null && (m.filename.equalsIgnoreCase(file.name)
-                            || m.filename.equalsIgnoreCase(file.name.replace("_", ""))
-                            || m.filename.replace("_", " ").equalsIgnoreCase(file.name)))
-                        .findFirst();
+                Optional<FTBPackVersionManifestMod> modInfo = findFTBMod(modsByFilename, file.name);
 
                 int curseFileId = (modInfo.isPresent()
                     && modInfo.get().curseFile != null)
                     ? modInfo.get().curseFile
                     : file.curseforge.file;
 
-                Optional<CurseForgeFile> curseForgeFile = filesFound.stream().filter(f -> f.id == curseFileId)
-                    .findFirst();
+                CurseForgeFile curseForgeFile = filesFound.get(curseFileId);
 
-                if (!curseForgeFile.isPresent() || curseForgeFile.get().downloadUrl != null) {
+                if (curseForgeFile == null || curseForgeFile.downloadUrl != null) {
                     return null;
                 }
 
-                return curseForgeFile.get();
+                return curseForgeFile;
             })
             .filter(m -> m != null)
             .collect(Collectors.toList());
@@ -1275,7 +1290,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         Map<String, ModrinthProject> modrinthProjects = new HashMap<>();
 
         if (filesForManualDownload.size() != 0) {
-            String[] sha1Hashes = filesForManualDownload.parallelStream()
+            String[] sha1Hashes = filesForManualDownload.stream()
                 .map(file -> file.hashes.stream().filter(h -> h.isSha1()).findFirst().orElse(null))
                 .filter(f -> f != null)
                 .map(hash -> hash.value)
@@ -1285,7 +1300,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
             if (modrinthVersions.size() != 0) {
                 modrinthProjects.putAll(ModrinthApi.getProjectsAsMap(
-                    modrinthVersions.values().parallelStream().map(mv -> mv.projectId).toArray(String[]::new)));
+                    modrinthVersions.values().stream().map(mv -> mv.projectId).toArray(String[]::new)));
             }
         }
 
@@ -1295,14 +1310,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     return file.convertToMod();
                 }
 
-                Optional<FTBPackVersionManifestMod> modInfo = modsManifest == null ? Optional.empty()
-                    : modsManifest.mods.parallelStream()
-                        .filter(m -> {
-                            return m.filename != null && (m.filename.equalsIgnoreCase(file.name)
-                                || m.filename.equalsIgnoreCase(file.name.replace("_", ""))
-                                || m.filename.replace("_", " ").equalsIgnoreCase(file.name));
-                        })
-                        .findFirst();
+                Optional<FTBPackVersionManifestMod> modInfo = findFTBMod(modsByFilename, file.name);
 
                 int curseProjectId = ((file.curseforge == null || file.curseforge.project == null
                     || file.curseforge.file == null) && modInfo.isPresent()
@@ -1312,14 +1320,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     || file.curseforge.file == null) && modInfo.isPresent()
                     && modInfo.get().curseFile != null) ? modInfo.get().curseFile : file.curseforge.file;
 
-                CurseForgeProject curseForgeProject = Optional
-                    .ofNullable(foundProjects.get(curseProjectId))
-                    .orElseGet(() -> CurseForgeApi.getProjectById(curseProjectId));
-
-                CurseForgeFile curseForgeFile = filesFound.stream().filter(f -> f.id == curseFileId)
-                    .findFirst()
-                    .orElseGet(() -> CurseForgeApi
-                        .getFileForProject(curseProjectId, curseFileId));
+                CurseForgeProject curseForgeProject = foundProjects.get(curseProjectId);
+                CurseForgeFile curseForgeFile = filesFound.get(curseFileId);
 
                 if (curseForgeFile.downloadUrl == null) {
                     LogManager.debug(String.format(Locale.ENGLISH,
@@ -1377,6 +1379,97 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         hideSubProgressBar();
     }
 
+    /**
+     * Resolves the CurseForge projects and files for the given project/file id pairs into maps keyed by their ids.
+     * Everything is asked for in bulk, then anything the bulk endpoints left out is asked for again in one more bulk
+     * request, with only what's still missing after that being looked up one by one.
+     */
+    private Pair<Map<Integer, CurseForgeProject>, Map<Integer, CurseForgeFile>> resolveCurseForgeProjectsAndFiles(
+        List<Pair<Integer, Integer>> projectAndFileIds) throws Exception {
+        int[] projectIds = projectAndFileIds.stream().mapToInt(Pair::left).distinct().toArray();
+        int[] fileIds = projectAndFileIds.stream().mapToInt(Pair::right).distinct().toArray();
+
+        Map<Integer, CurseForgeProject> projects = new HashMap<>();
+        Map<Integer, CurseForgeFile> files = new HashMap<>();
+
+        Optional.ofNullable(CurseForgeApi.getProjectsAsMap(projectIds)).ifPresent(projects::putAll);
+        Optional.ofNullable(CurseForgeApi.getFilesAsMap(fileIds)).ifPresent(files::putAll);
+
+        int[] missingProjectIds = Arrays.stream(projectIds).filter(id -> !projects.containsKey(id)).toArray();
+        int[] missingFileIds = Arrays.stream(fileIds).filter(id -> !files.containsKey(id)).toArray();
+
+        if (missingProjectIds.length != 0 || missingFileIds.length != 0) {
+            LogManager.debug(String.format(Locale.ENGLISH,
+                "CurseForge didn't return %d projects and %d files, asking for them again", missingProjectIds.length,
+                missingFileIds.length));
+
+            Optional.ofNullable(CurseForgeApi.getProjectsAsMap(missingProjectIds)).ifPresent(projects::putAll);
+            Optional.ofNullable(CurseForgeApi.getFilesAsMap(missingFileIds)).ifPresent(files::putAll);
+        }
+
+        for (Pair<Integer, Integer> ids : projectAndFileIds) {
+            if (!projects.containsKey(ids.left())) {
+                CurseForgeProject project = CurseForgeApi.getProjectById(ids.left());
+
+                if (project == null) {
+                    throw new Exception("Failed to find CurseForge project with id " + ids.left());
+                }
+
+                projects.put(ids.left(), project);
+            }
+
+            if (!files.containsKey(ids.right())) {
+                CurseForgeFile file = CurseForgeApi.getFileForProject(ids.left(), ids.right());
+
+                if (file == null) {
+                    throw new Exception("Failed to find CurseForge file with id " + ids.right() + " for project "
+                        + ids.left());
+                }
+
+                files.put(ids.right(), file);
+            }
+        }
+
+        return new Pair<>(projects, files);
+    }
+
+    /**
+     * Indexes the mods in an FTB mods manifest by their lowercased file name, along with the same name with
+     * underscores swapped for spaces, so that mods can be matched to the pack's files without scanning the list.
+     */
+    private Map<String, FTBPackVersionManifestMod> indexFTBModsByFilename(FTBPackVersionModsManifest modsManifest) {
+        Map<String, FTBPackVersionManifestMod> modsByFilename = new HashMap<>();
+
+        if (modsManifest == null) {
+            return modsByFilename;
+        }
+
+        for (FTBPackVersionManifestMod mod : modsManifest.mods) {
+            if (mod.filename != null) {
+                modsByFilename.putIfAbsent(mod.filename.toLowerCase(Locale.ENGLISH), mod);
+            }
+        }
+
+        for (FTBPackVersionManifestMod mod : modsManifest.mods) {
+            if (mod.filename != null) {
+                modsByFilename.putIfAbsent(mod.filename.replace("_", " ").toLowerCase(Locale.ENGLISH), mod);
+            }
+        }
+
+        return modsByFilename;
+    }
+
+    private Optional<FTBPackVersionManifestMod> findFTBMod(Map<String, FTBPackVersionManifestMod> modsByFilename,
+        String filename) {
+        FTBPackVersionManifestMod mod = modsByFilename.get(filename.toLowerCase(Locale.ENGLISH));
+
+        if (mod == null) {
+            mod = modsByFilename.get(filename.replace("_", "").toLowerCase(Locale.ENGLISH));
+        }
+
+        return Optional.ofNullable(mod);
+    }
+
     private void generatePackVersionFromTechnicSolder() throws Exception {
         addPercent(5);
         // #. {0} is the platform the modpack is from
@@ -1412,7 +1505,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         this.version.minecraftVersion = MinecraftManager.getMinecraftVersion(packVersion.minecraft);
 
-        technicSolderModsToDownload.addAll(technicSolderModpackManifest.mods.parallelStream()
+        technicSolderModsToDownload.addAll(technicSolderModpackManifest.mods.stream()
             .map(TechnicModpackManifestMod::convertToMod).collect(Collectors.toList()));
 
         hideSubProgressBar();
@@ -1701,7 +1794,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             }
         }
 
-        packVersion.mods = modrinthManifest.files.parallelStream().map(file -> file.convertToMod(isServer))
+        packVersion.mods = modrinthManifest.files.stream().map(file -> file.convertToMod(isServer))
             .collect(Collectors.toList());
 
         hideSubProgressBar();
@@ -2230,13 +2323,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         mod.version = "Unknown";
         mod.description = null;
 
-        MCMod mcMod = Utils.getMCModForFile(p.toFile());
+        MCMod mcMod = Utils.getMCModForFile(p);
         if (mcMod != null) {
             mod.name = Optional.ofNullable(mcMod.name).orElse(p.getFileName().toString());
             mod.version = Optional.ofNullable(mcMod.version).orElse("Unknown");
             mod.description = mcMod.description;
         } else {
-            FabricMod fabricMod = Utils.getFabricModForFile(p.toFile());
+            FabricMod fabricMod = Utils.getFabricModForFile(p);
             if (fabricMod != null) {
                 mod.name = Optional.ofNullable(fabricMod.name).orElse(p.getFileName().toString());
                 mod.version = Optional.ofNullable(fabricMod.version).orElse("Unknown");
@@ -2738,9 +2831,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 Path assetPath = index.mapToResources ? this.root.resolve("resources/" + key)
                     : FileSystem.RESOURCES_VIRTUAL_LEGACY.resolve(key);
 
-                if (!Files.exists(assetPath)) {
-                    FileUtils.copyFile(downloadedFile, assetPath, true);
-                }
+                // the legacy virtual folder belongs to the launcher, but resources are in the instance itself
+                FileUtils.linkOrCopyFile(downloadedFile, assetPath, object.hash, !index.mapToResources);
             });
         }
 
@@ -3218,7 +3310,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         double subPercentPerMod = 100.0 / this.selectedMods.size();
 
-        this.selectedMods.parallelStream().forEach(mod -> {
+        TaskPools.forEach(TaskPools.NETWORK, this.selectedMods, mod -> {
             mod.install(this);
             addSubPercent(subPercentPerMod);
         });
@@ -3390,9 +3482,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     LogManager.logStackTrace(e);
                 }
 
-                Utils.copyDirectory(this.curseForgeExtractedPath
-                        .resolve(Optional.ofNullable(curseForgeManifest.overrides).orElse("overrides")).toFile(),
-                    this.root.toFile(), false);
+                FileUtils.copyDirectory(this.curseForgeExtractedPath
+                    .resolve(Optional.ofNullable(curseForgeManifest.overrides).orElse("overrides")), this.root);
             }
         } else if (modrinthManifest != null) {
             if (Files.exists(this.modrinthExtractedPath.resolve("overrides"))) {
@@ -3407,24 +3498,19 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     LogManager.logStackTrace(e);
                 }
 
-                Utils.copyDirectory(this.modrinthExtractedPath.resolve("overrides").toFile(), this.root.toFile(),
-                    false);
+                FileUtils.copyDirectory(this.modrinthExtractedPath.resolve("overrides"), this.root);
 
                 if (isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("server-overrides"))) {
-                    Utils.copyDirectory(this.modrinthExtractedPath.resolve("server-overrides").toFile(),
-                        this.root.toFile(),
-                        false);
+                    FileUtils.copyDirectory(this.modrinthExtractedPath.resolve("server-overrides"), this.root);
                 } else if (!isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("client-overrides"))) {
-                    Utils.copyDirectory(this.modrinthExtractedPath.resolve("client-overrides").toFile(),
-                        this.root.toFile(),
-                        false);
+                    FileUtils.copyDirectory(this.modrinthExtractedPath.resolve("client-overrides"), this.root);
                 }
             }
         } else if (ftbPackManifest != null) {
             fireSubProgressUnknown();
             fireTask(GetText.tr("Calculating Files To Download"));
 
-            List<com.atlauncher.network.Download> filesToDownload = ftbPackVersionManifest.files.parallelStream()
+            List<com.atlauncher.network.Download> filesToDownload = ftbPackVersionManifest.files.stream()
                 .filter(f -> f.type != FTBPackVersionManifestFileType.MOD).map(file -> {
                     overridePaths.add(file.getPath() + file.name);
 
@@ -3468,8 +3554,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 : "minecraft";
 
             fireTask(GetText.tr("Copying minecraft folder"));
-            Utils.copyDirectory(this.multiMCExtractedPath.resolve(minecraftFolder + "/").toFile(), this.root.toFile(),
-                false);
+            FileUtils.copyDirectory(this.multiMCExtractedPath.resolve(minecraftFolder), this.root);
         } else if (technicModpack != null) {
             if (technicModpackExtractedPath != null) {
                 fireSubProgressUnknown();
@@ -3859,14 +3944,14 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     protected void prepareFilesystem() throws Exception {
         if (isReinstall || isServer) {
             if (Files.isDirectory(this.root.resolve("bin"))) {
-                FileUtils.deleteDirectory(this.root.resolve("bin"));
+                TrashManager.moveToTrash(this.root.resolve("bin"));
             }
 
             // only delete the config folder if the overridePaths list is empty
             if (Files.isDirectory(this.root.resolve("config")) && (instance == null
                 || this.instance.launcher.overridePaths == null
                 || this.instance.launcher.overridePaths.isEmpty())) {
-                FileUtils.deleteDirectory(this.root.resolve("config"));
+                TrashManager.moveToTrash(this.root.resolve("config"));
             }
 
             if (isReinstall) {
@@ -3921,11 +4006,11 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 }
             } else {
                 if (Files.isDirectory(this.root.resolve("mods"))) {
-                    FileUtils.deleteDirectory(this.root.resolve("mods"));
+                    TrashManager.moveToTrash(this.root.resolve("mods"));
                 }
 
                 if (isReinstall && Files.isDirectory(this.root.resolve("jarmods"))) {
-                    FileUtils.deleteDirectory(this.root.resolve("jarmods"));
+                    TrashManager.moveToTrash(this.root.resolve("jarmods"));
                 }
             }
 
@@ -0,0 +1,49 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class StartupTimingsTest {
+    @Test
+    public void testThatAFirstLineFromTheLoaderReachesBothMilestones() {
+        StartupTimings.Launch launch = new StartupTimings.Launch("1.0.0");
+
+        assertEquals(Arrays.asList(StartupMilestone.JVM_STARTED, StartupMilestone.LOADER_STARTED),
+            launch.check("[12:00:00] [main/INFO]: Loading Minecraft 1.20.1 with Fabric Loader 0.15.0"));
+        assertNotNull(launch.get(StartupMilestone.JVM_STARTED));
+        assertNotNull(launch.get(StartupMilestone.LOADER_STARTED));
+    }
+
+    @Test
+    public void testThatMilestonesAreOnlyReachedOnce() {
+        StartupTimings.Launch launch = new StartupTimings.Launch("1.0.0");
+
+        assertEquals(Arrays.asList(StartupMilestone.JVM_STARTED),
+            launch.check("[12:00:00] [main/INFO]: Setting user: Player"));
+        assertTrue(launch.check("[12:00:01] [main/INFO]: Setting user: Player").isEmpty());
+        assertEquals(Arrays.asList(StartupMilestone.MAIN_MENU),
+            launch.check("[12:00:10] [Render thread/INFO]: Sound engine started"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.hash.Hashing;
+
+public class BackupManagerTest {
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(12345).nextBytes(bytes);
+
+        return bytes;
+    }
+
+    private static List<byte[]> chunk(byte[] content) throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        byte[] buffer = new byte[BackupManager.MAX_CHUNK_SIZE];
+
+        try (BackupManager.Chunker chunker = new BackupManager.Chunker(new ByteArrayInputStream(content))) {
+            int length;
+            while ((length = chunker.next(buffer)) > 0) {
+                chunks.add(Arrays.copyOf(buffer, length));
+            }
+        }
+
+        return chunks;
+    }
+
+    @Test
+    public void testThatEmptyStreamHasNoChunks() throws IOException {
+        assertTrue(chunk(new byte[0]).isEmpty());
+    }
+
+    @Test
+    public void testThatSmallStreamIsASingleChunk() throws IOException {
+        byte[] content = randomBytes(1000);
+        List<byte[]> chunks = chunk(content);
+
+        assertEquals(1, chunks.size());
+        assertArrayEquals(content, chunks.get(0));
+    }
+
+    @Test
+    public void testThatChunksJoinBackToTheOriginalContent() throws IOException {
+        byte[] content = randomBytes(12 * 1024 * 1024);
+        List<byte[]> chunks = chunk(content);
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (byte[] chunk : chunks) {
+            joined.write(chunk);
+        }
+
+        assertTrue(chunks.size() > 1);
+        assertArrayEquals(content, joined.toByteArray());
+    }
+
+    @Test
+    public void testThatChunksAreWithinTheSizeLimits() throws IOException {
+        List<byte[]> chunks = chunk(randomBytes(12 * 1024 * 1024));
+
+        for (int i = 0; i < chunks.size(); i++) {
+            assertTrue(chunks.get(i).length <= BackupManager.MAX_CHUNK_SIZE);
+
+            // only the last chunk can be cut short by the end of the stream
+            if (i != chunks.size() - 1) {
+                assertTrue(chunks.get(i).length >= BackupManager.MIN_CHUNK_SIZE);
+            }
+        }
+    }
+
+    @Test
+    public void testThatChunkingIsDeterministic() throws IOException {
+        byte[] content = randomBytes(8 * 1024 * 1024);
+
+        List<byte[]> first = chunk(content);
+        List<byte[]> second = chunk(content);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    public void testThatInsertingDataOnlyChangesNearbyChunks() throws IOException {
+        byte[] content = randomBytes(12 * 1024 * 1024);
+        byte[] inserted = new byte[content.length + 100];
+        System.arraycopy(content, 0, inserted, 100, content.length);
+
+        Set<String> originalChunks = new HashSet<>();
+        for (byte[] chunk : chunk(content)) {
+            originalChunks.add(Hashing.sha256().hashBytes(chunk).toString());
+        }
+
+        List<byte[]> newChunks = chunk(inserted);
+        long reused = newChunks.stream()
+            .filter(c -> originalChunks.contains(Hashing.sha256().hashBytes(c).toString())).count();
+
+        // the boundaries resync after the insert, so everything after the first chunk or two is the same
+        assertTrue(reused >= newChunks.size() - 2);
+    }
+
+    @Test
+    public void testThatChunksAreCutAtTheBufferLength() throws IOException {
+        byte[] content = randomBytes(1000);
+        byte[] buffer = new byte[400];
+
+        try (BackupManager.Chunker chunker = new BackupManager.Chunker(new ByteArrayInputStream(content))) {
+            assertEquals(400, chunker.next(buffer));
+            assertEquals(400, chunker.next(buffer));
+            assertEquals(200, chunker.next(buffer));
+            assertEquals(0, chunker.next(buffer));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+
+public class JvmTuningProfileTest {
+    private static final String ADOPTIUM = "Eclipse Adoptium";
+    private static final String ORACLE = "Oracle Corporation";
+
+    @Test
+    public void testThatVanillaInstanceGetsSmallG1Heap() {
+        JvmTuningProfile profile = JvmTuningProfile.compute(16384, 8192, 8, 17, ADOPTIUM, null, 0, 0);
+
+        assertEquals(2048, profile.maximumMemory);
+        assertEquals(1024, profile.minimumMemory);
+        assertEquals(Arrays.asList("-Xms1024M", "-Xmx2048M", "-XX:+UseG1GC", "-XX:MaxGCPauseMillis=50",
+            "-XX:G1HeapRegionSize=16M", "-XX:+ParallelRefProcEnabled", "-XX:ParallelGCThreads=7",
+            "-XX:ConcGCThreads=1"), profile.getArguments());
+    }
+
+    @Test
+    public void testThatForgeInstanceGetsExtraHeap() {
+        JvmTuningProfile fabric = JvmTuningProfile.compute(32768, 16384, 4, 17, ADOPTIUM,
+            new LoaderVersion("0.15.0", false, "Fabric"), 100, 0);
+        JvmTuningProfile forge = JvmTuningProfile.compute(32768, 16384, 4, 17, ADOPTIUM,
+            new LoaderVersion("47.2.0", false, "Forge"), 100, 0);
+
+        assertEquals(4096, fabric.maximumMemory);
+        assertEquals(5120, forge.maximumMemory);
+    }
+
+    @Test
+    public void testThatShenandoahIsOnlyUsedWhenTheVendorIncludesIt() {
+        LoaderVersion forge = new LoaderVersion("47.2.0", false, "Forge");
+
+        JvmTuningProfile adoptium = JvmTuningProfile.compute(32768, 16384, 16, 21, ADOPTIUM, forge, 200, 0);
+        JvmTuningProfile oracle = JvmTuningProfile.compute(32768, 16384, 16, 21, ORACLE, forge, 200, 0);
+        JvmTuningProfile unknown = JvmTuningProfile.compute(32768, 16384, 16, 21, null, forge, 200, 0);
+
+        assertEquals(7168, adoptium.maximumMemory);
+        assertTrue(adoptium.gcArguments.contains("-XX:+UseShenandoahGC"));
+        assertTrue(oracle.gcArguments.contains("-XX:+UseG1GC"));
+        assertTrue(unknown.gcArguments.contains("-XX:+UseG1GC"));
+    }
+
+    @Test
+    public void testThatLargeHeapsOnNewerJavaUseZgc() {
+        LoaderVersion neoForge = new LoaderVersion("21.1.0", false, "NeoForge");
+
+        JvmTuningProfile java21 = JvmTuningProfile.compute(65536, 32768, 16, 21, ADOPTIUM, neoForge, 300, 0);
+        JvmTuningProfile java23 = JvmTuningProfile.compute(65536, 32768, 16, 23, ADOPTIUM, neoForge, 300, 0);
+
+        assertEquals(9216, java21.maximumMemory);
+        assertEquals(Arrays.asList("-XX:+UseZGC", "-XX:+ZGenerational", "-XX:ParallelGCThreads=8",
+            "-XX:ConcGCThreads=2"), java21.gcArguments);
+        assertEquals(Arrays.asList("-XX:+UseZGC", "-XX:ParallelGCThreads=8", "-XX:ConcGCThreads=2"),
+            java23.gcArguments);
+    }
+
+    @Test
+    public void testThatHeapIsLimitedBySafeMaximumRam() {
+        JvmTuningProfile profile = JvmTuningProfile.compute(8192, 4096, 8, 17, ADOPTIUM,
+            new LoaderVersion("0.15.0", false, "Fabric"), 300, 0);
+
+        assertEquals(4096, profile.maximumMemory);
+        assertEquals(2048, profile.minimumMemory);
+    }
+
+    @Test
+    public void testThatHeapIsAtLeastTheRequiredMemory() {
+        JvmTuningProfile profile = JvmTuningProfile.compute(8192, 4096, 8, 17, ADOPTIUM, null, 0, 6144);
+
+        assertEquals(6144, profile.maximumMemory);
+    }
+
+    @Test
+    public void testThatHeapIsNeverBelowTheMinimum() {
+        JvmTuningProfile profile = JvmTuningProfile.compute(1024, 512, 1, 8, null, null, 0, 0);
+
+        assertEquals(1024, profile.maximumMemory);
+        assertEquals(512, profile.minimumMemory);
+        assertTrue(profile.gcArguments.contains("-XX:ParallelGCThreads=1"));
+        assertTrue(profile.gcArguments.contains("-XX:ConcGCThreads=1"));
+    }
+
+    @Test
+    public void testThatTuningArgumentsAreDetected() {
+        assertTrue(JvmTuningProfile.isTuningArgument("-Xmx4G"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-Xms1024M"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:+UseG1GC"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:-UseConcMarkSweepGC"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:G1NewSizePercent=20"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:MaxGCPauseMillis=200"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:+ZGenerational"));
+        assertTrue(JvmTuningProfile.isTuningArgument("-XX:ShenandoahGCHeuristics=compact"));
+    }
+
+    @Test
+    public void testThatOtherArgumentsAreNotTuningArguments() {
+        assertFalse(JvmTuningProfile.isTuningArgument("-Dfml.ignorePatchDiscrepancies=true"));
+        assertFalse(JvmTuningProfile.isTuningArgument("-XX:+UnlockExperimentalVMOptions"));
+        assertFalse(JvmTuningProfile.isTuningArgument("-XX:+UseStringDeduplication"));
+        assertFalse(JvmTuningProfile.isTuningArgument("-XX:+UseLargePages"));
+    }
+
+    @Test
+    public void testThatEveryComputedArgumentIsATuningArgument() {
+        LoaderVersion forge = new LoaderVersion("47.2.0", false, "Forge");
+
+        for (JvmTuningProfile profile : Arrays.asList(
+            JvmTuningProfile.compute(16384, 8192, 8, 17, ADOPTIUM, null, 0, 0),
+            JvmTuningProfile.compute(32768, 16384, 16, 21, ADOPTIUM, forge, 200, 0),
+            JvmTuningProfile.compute(65536, 32768, 16, 21, ADOPTIUM, forge, 300, 0))) {
+            for (String argument : profile.getArguments()) {
+                assertTrue(JvmTuningProfile.isTuningArgument(argument), argument);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class LaunchPlanTest {
+    private static Map<String, String> values() {
+        Map<String, String> values = new HashMap<>();
+        values.put("${auth_player_name}", "Player");
+        values.put("${game_directory}", "/instances/Test");
+        values.put("${natives_directory}", "/natives");
+
+        return values;
+    }
+
+    @Test
+    public void testThatArgumentsAreSplitIntoTokens() {
+        assertEquals(Collections.singletonList("--demo"), LaunchPlan.ArgumentTemplate.compile("--demo").tokens);
+        assertEquals(Collections.singletonList("${auth_player_name}"),
+            LaunchPlan.ArgumentTemplate.compile("${auth_player_name}").tokens);
+        assertEquals(Arrays.asList("-Djava.library.path=", "${natives_directory}"),
+            LaunchPlan.ArgumentTemplate.compile("-Djava.library.path=${natives_directory}").tokens);
+        assertEquals(Arrays.asList("${game_directory}", "/", "${auth_player_name}", ".log"),
+            LaunchPlan.ArgumentTemplate.compile("${game_directory}/${auth_player_name}.log").tokens);
+    }
+
+    @Test
+    public void testThatUnclosedPlaceholdersAreKeptAsText() {
+        assertEquals(Collections.singletonList("-Dname=${broken"),
+            LaunchPlan.ArgumentTemplate.compile("-Dname=${broken").tokens);
+        assertEquals("-Dname=${broken", LaunchPlan.ArgumentTemplate.compile("-Dname=${broken").render(values()));
+    }
+
+    @Test
+    public void testThatArgumentsAreRenderedCorrectly() {
+        Map<String, String> values = values();
+
+        assertEquals("--demo", LaunchPlan.ArgumentTemplate.compile("--demo").render(values));
+        assertEquals("Player", LaunchPlan.ArgumentTemplate.compile("${auth_player_name}").render(values));
+        assertEquals("-Djava.library.path=/natives",
+            LaunchPlan.ArgumentTemplate.compile("-Djava.library.path=${natives_directory}").render(values));
+        assertEquals("/instances/Test/Player.log",
+            LaunchPlan.ArgumentTemplate.compile("${game_directory}/${auth_player_name}.log").render(values));
+    }
+
+    @Test
+    public void testThatPlaceholdersWithoutValuesAreLeftAsIs() {
+        Map<String, String> values = values();
+
+        assertEquals("${unknown}", LaunchPlan.ArgumentTemplate.compile("${unknown}").render(values));
+        assertEquals("--user=Player --other=${unknown}", LaunchPlan.ArgumentTemplate
+            .compile("--user=${auth_player_name} --other=${unknown}").render(values));
+    }
+
+    @Test
+    public void testThatEmptyArgumentsAreRenderedCorrectly() {
+        assertEquals("", LaunchPlan.ArgumentTemplate.compile("").render(values()));
+    }
+}
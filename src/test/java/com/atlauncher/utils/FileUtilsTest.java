@@ -0,0 +1,60 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+public class FileUtilsTest {
+    @Test
+    public void testThatSizesUnderAKilobyteAreFormattedInBytes() {
+        assertEquals("0 B", FileUtils.formatSize(0));
+        assertEquals("1 B", FileUtils.formatSize(1));
+        assertEquals("1023 B", FileUtils.formatSize(1023));
+    }
+
+    @Test
+    public void testThatSizesAreFormattedInTheLargestUnit() {
+        assertEquals("1.0 KB", FileUtils.formatSize(1024));
+        assertEquals("1.5 KB", FileUtils.formatSize(1536));
+        assertEquals("1.0 MB", FileUtils.formatSize(1024L * 1024));
+        assertEquals("250.0 MB", FileUtils.formatSize(250L * 1024 * 1024));
+        assertEquals("1.5 GB", FileUtils.formatSize(1536L * 1024 * 1024));
+        assertEquals("1.0 TB", FileUtils.formatSize(1024L * 1024 * 1024 * 1024));
+    }
+
+    @Test
+    public void testThatSizesAboveATerabyteStayInTerabytes() {
+        assertEquals("2048.0 TB", FileUtils.formatSize(2048L * 1024 * 1024 * 1024 * 1024));
+    }
+
+    @Test
+    public void testThatSizesAreFormattedTheSameInEveryLocale() {
+        Locale defaultLocale = Locale.getDefault();
+
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            assertEquals("1.5 GB", FileUtils.formatSize(1536L * 1024 * 1024));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.FileVisitResult;
+
+import org.junit.jupiter.api.Test;
+
+public class PathPrefixFilterTest {
+    @Test
+    public void testThatEverythingIsIncludedByDefault() {
+        assertTrue(PathPrefixFilter.ALL.includes("options.txt"));
+        assertTrue(PathPrefixFilter.ALL.includes("saves/New World/level.dat"));
+        assertTrue(PathPrefixFilter.ALL.shouldVisitDirectory("mods"));
+        assertEquals("mods/mod.jar", PathPrefixFilter.ALL.map("mods/mod.jar"));
+    }
+
+    @Test
+    public void testThatOnlyIncludedPrefixesAreIncluded() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().include("saves/", "config/").build();
+
+        assertTrue(filter.includes("saves/New World/level.dat"));
+        assertTrue(filter.includes("config/forge.cfg"));
+        assertFalse(filter.includes("mods/mod.jar"));
+        assertFalse(filter.includes("options.txt"));
+        assertNull(filter.map("mods/mod.jar"));
+    }
+
+    @Test
+    public void testThatIncludedFilesAreMatchedCaseInsensitively() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().includeFile("options.txt").build();
+
+        assertTrue(filter.includes("options.txt"));
+        assertTrue(filter.includes("Options.TXT"));
+        assertFalse(filter.includes("options.txt.bak"));
+        assertFalse(filter.includes("config/options.txt"));
+    }
+
+    @Test
+    public void testThatExcludesWinOverIncludes() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().include("saves/").exclude("saves/Backup/").build();
+
+        assertTrue(filter.includes("saves/New World/level.dat"));
+        assertFalse(filter.includes("saves/Backup/level.dat"));
+    }
+
+    @Test
+    public void testThatExcludesApplyWithoutIncludes() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().exclude("logs/").build();
+
+        assertTrue(filter.includes("mods/mod.jar"));
+        assertFalse(filter.includes("logs/latest.log"));
+    }
+
+    @Test
+    public void testThatDirectoriesWhichCantContainIncludedFilesAreSkipped() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().includeFile("config/options.txt")
+            .include("saves/", "resourcepacks/packs/").exclude("saves/Backup/").build();
+
+        // everything inside is included
+        assertTrue(filter.shouldVisitDirectory("saves"));
+        assertTrue(filter.shouldVisitDirectory("saves/New World"));
+
+        // something further down is included
+        assertTrue(filter.shouldVisitDirectory("resourcepacks"));
+        assertTrue(filter.shouldVisitDirectory("Config"));
+
+        // nothing inside can be included
+        assertFalse(filter.shouldVisitDirectory("mods"));
+        assertFalse(filter.shouldVisitDirectory("resourcepacks/other"));
+        assertFalse(filter.shouldVisitDirectory("saves/Backup"));
+        assertFalse(filter.shouldVisitDirectory("saves/Backup/region"));
+    }
+
+    @Test
+    public void testThatTreeWalksAreToldToSkipExcludedDirectories() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().include("saves/").build();
+
+        assertEquals(FileVisitResult.CONTINUE, PathPrefixFilter.preVisitDirectory(filter, "saves"));
+        assertEquals(FileVisitResult.SKIP_SUBTREE, PathPrefixFilter.preVisitDirectory(filter, "mods"));
+    }
+
+    @Test
+    public void testThatTreeWalksAlwaysVisitTheRootAndOtherNameMappers() {
+        PathPrefixFilter filter = PathPrefixFilter.builder().include("saves/").build();
+
+        assertEquals(FileVisitResult.CONTINUE, PathPrefixFilter.preVisitDirectory(filter, ""));
+        assertEquals(FileVisitResult.CONTINUE, PathPrefixFilter.preVisitDirectory(name -> null, "mods"));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.javafinder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class JavaInstallationsTest {
+    @Test
+    public void testThatReleaseFileIsParsedCorrectly() {
+        Map<String, String> release = JavaInstallations.parseReleaseFile(Arrays.asList(
+            "IMPLEMENTOR=\"Eclipse Adoptium\"",
+            "IMPLEMENTOR_VERSION=\"Temurin-17.0.9+9\"",
+            "JAVA_VERSION=\"17.0.9\"",
+            "JAVA_VERSION_DATE=\"2023-10-17\"",
+            "OS_ARCH=\"x86_64\"",
+            "OS_NAME=\"Linux\""));
+
+        assertEquals("Eclipse Adoptium", release.get("IMPLEMENTOR"));
+        assertEquals("17.0.9", release.get("JAVA_VERSION"));
+        assertEquals("x86_64", release.get("OS_ARCH"));
+        assertEquals("Linux", release.get("OS_NAME"));
+    }
+
+    @Test
+    public void testThatReleaseFileValuesWithoutQuotesAreParsedCorrectly() {
+        Map<String, String> release = JavaInstallations.parseReleaseFile(Arrays.asList(
+            "JAVA_VERSION=1.8.0_392",
+            "  OS_ARCH=\"aarch64\"  "));
+
+        assertEquals("1.8.0_392", release.get("JAVA_VERSION"));
+        assertEquals("aarch64", release.get("OS_ARCH"));
+    }
+
+    @Test
+    public void testThatInvalidReleaseFileLinesAreIgnored() {
+        Map<String, String> release = JavaInstallations.parseReleaseFile(Arrays.asList(
+            "",
+            "# a comment",
+            "not a value",
+            "lowercase=\"value\"",
+            "JAVA_VERSION=\"21.0.1\""));
+
+        assertEquals(1, release.size());
+        assertEquals("21.0.1", release.get("JAVA_VERSION"));
+        assertFalse(release.containsKey("lowercase"));
+    }
+
+    @Test
+    public void testThatEmptyReleaseFileIsParsedCorrectly() {
+        assertTrue(JavaInstallations.parseReleaseFile(Collections.emptyList()).isEmpty());
+    }
+}